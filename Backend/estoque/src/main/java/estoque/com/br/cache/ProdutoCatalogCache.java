@@ -0,0 +1,100 @@
+package estoque.com.br.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import estoque.com.br.model.Produto;
+import estoque.com.br.repositories.ProdutoRepository;
+
+/**
+ * Cache de leitura do catalogo de produtos por id, limitado por tamanho e por
+ * tempo desde a carga. {@link #getAll(Collection)} busca no banco so os ids
+ * que faltam, numa unica consulta. O ProdutoService invalida a entrada no
+ * update e no delete.
+ *
+ * As entidades guardadas sao compartilhadas entre requisicoes e nao devem ser
+ * alteradas nem associadas a outras entidades; para gravar uma referencia use
+ * {@link ProdutoRepository#getReferenceById(Object)}.
+ */
+@Component
+public class ProdutoCatalogCache {
+
+    private final LoadingCache<Long, Produto> cache;
+
+    public ProdutoCatalogCache(ProdutoRepository repository,
+            @Value("${catalog.produto.cache.maximum-size:10000}") long maximumSize,
+            @Value("${catalog.produto.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build(new CacheLoader<Long, Produto>() {
+
+                    @Override
+                    public Produto load(Long id) {
+                        return repository.findById(id).orElse(null);
+                    }
+
+                    @Override
+                    public Map<Long, Produto> loadAll(Set<? extends Long> ids) {
+                        Map<Long, Produto> produtos = new HashMap<>();
+                        repository.findAllById(List.copyOf(ids)).forEach(p -> produtos.put(p.getId(), p));
+                        return produtos;
+                    }
+                });
+    }
+
+    public Produto get(Long id) {
+        return cache.get(id);
+    }
+
+    /**
+     * Ids que nao existem no banco ficam fora do mapa devolvido.
+     */
+    public Map<Long, Produto> getAll(Collection<Long> ids) {
+        return cache.getAll(ids);
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * Dentro de uma transacao, invalida so depois do commit; antes disso outra
+     * requisicao poderia recarregar o valor antigo para o cache.
+     */
+    public void invalidateAfterCommit(Collection<Long> ids) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidateAll(ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidateAll(ids);
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
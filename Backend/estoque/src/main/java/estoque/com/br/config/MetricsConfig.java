@@ -0,0 +1,117 @@
+package estoque.com.br.config;
+
+import java.sql.SQLException;
+import java.util.function.ToIntFunction;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import estoque.com.br.cache.ProdutoCatalogCache;
+import estoque.com.br.metrics.MetricsRegistry;
+import estoque.com.br.metrics.RequestMetricsFilter;
+import estoque.com.br.metrics.SqlMetricsDataSource;
+import estoque.com.br.threads.ConnectionAdmissionFilter;
+import estoque.com.br.threads.VirtualThreadPinningMonitor;
+
+/**
+ * Liga a medicao do caminho quente: o filtro por requisicao, o DataSource que
+ * mede o SQL (desligavel por metrics.sql.enabled) e os gauges do pool, do
+ * catalogo de produtos e das threads virtuais. A leitura fica em
+ * /api/metrics/v1.
+ */
+@Configuration
+public class MetricsConfig {
+
+	@Autowired
+	private MetricsRegistry registry;
+
+	@Bean
+	public FilterRegistrationBean<RequestMetricsFilter> requestMetricsFilter() {
+		var registration = new FilterRegistrationBean<>(new RequestMetricsFilter(registry));
+		// antes da seguranca, para a latencia incluir a verificacao do JWT
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+		return registration;
+	}
+
+	@Bean
+	public static BeanPostProcessor sqlMetricsDataSourcePostProcessor(ObjectProvider<MetricsRegistry> registry,
+			Environment environment) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+				if (!(bean instanceof DataSource dataSource) || bean instanceof SqlMetricsDataSource
+						|| !environment.getProperty("metrics.sql.enabled", Boolean.class, true)) {
+					return bean;
+				}
+				var metrics = registry.getObject();
+				return new SqlMetricsDataSource(dataSource,
+						metrics.timer("estoque_jdbc_connection_acquire_seconds", "Espera por uma conexao do pool"),
+						metrics.timer("estoque_sql_statement_seconds", "Tempo de cada execucao de comando SQL"));
+			}
+		};
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void registerGauges(ApplicationReadyEvent event) {
+		var context = event.getApplicationContext();
+
+		context.getBeanProvider(DataSource.class).ifAvailable(dataSource -> {
+			HikariDataSource hikari = unwrapHikari(dataSource);
+			if (hikari != null) {
+				hikariGauge(hikari, "estoque_hikari_connections_active", "Conexoes em uso", HikariPoolMXBean::getActiveConnections);
+				hikariGauge(hikari, "estoque_hikari_connections_idle", "Conexoes livres", HikariPoolMXBean::getIdleConnections);
+				hikariGauge(hikari, "estoque_hikari_connections_pending", "Threads esperando conexao",
+						HikariPoolMXBean::getThreadsAwaitingConnection);
+				registry.gauge("estoque_hikari_connections_max", "Tamanho maximo do pool", hikari::getMaximumPoolSize);
+			}
+		});
+
+		context.getBeanProvider(ProdutoCatalogCache.class).ifAvailable(catalog -> {
+			registry.counter("estoque_catalog_cache_requests_total", "Consultas ao catalogo de produtos",
+					() -> catalog.stats().hitCount(), "result", "hit");
+			registry.counter("estoque_catalog_cache_requests_total", "Consultas ao catalogo de produtos",
+					() -> catalog.stats().missCount(), "result", "miss");
+			registry.counter("estoque_catalog_cache_evictions_total", "Produtos removidos do catalogo",
+					() -> catalog.stats().evictionCount());
+		});
+
+		context.getBeanProvider(ConnectionAdmissionFilter.class).ifAvailable(admission -> {
+			registry.gauge("estoque_admission_in_flight", "Requisicoes em andamento no modo virtual", admission::getInFlight);
+			registry.gauge("estoque_admission_limit", "Limite de requisicoes em andamento", admission::getLimit);
+		});
+
+		context.getBeanProvider(VirtualThreadPinningMonitor.class).ifAvailable(monitor ->
+				registry.gauges("estoque_virtual_thread_pinned", "Pinning de threads virtuais por ponto do codigo",
+						"site", monitor::getSites));
+	}
+
+	private void hikariGauge(HikariDataSource hikari, String name, String help, ToIntFunction<HikariPoolMXBean> value) {
+		registry.gauge(name, help, () -> {
+			// o pool so existe depois da primeira conexao
+			HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+			return pool == null ? Double.NaN : value.applyAsInt(pool);
+		});
+	}
+
+	private static HikariDataSource unwrapHikari(DataSource dataSource) {
+		try {
+			return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+		} catch (SQLException e) {
+			return null;
+		}
+	}
+}
@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,13 +14,14 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
-import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import estoque.com.br.metrics.MetricsRegistry;
+import estoque.com.br.security.jwt.JwtAuthenticationCache;
 import estoque.com.br.security.jwt.JwtTokenFilter;
 import estoque.com.br.security.jwt.JwtTokenProvider;
+import estoque.com.br.security.password.AdaptivePbkdf2PasswordEncoder;
 
 @EnableWebSecurity
 @Configuration
@@ -28,11 +30,19 @@ public class SecurityConfig {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private JwtAuthenticationCache authenticationCache;
+
     @Bean
-    PasswordEncoder passwordEncoder() {
+    PasswordEncoder passwordEncoder(
+        @Value("${security.password.pbkdf2.iterations:185000}") int iterations,
+        @Value("${security.password.pbkdf2.salt-length:8}") int saltLength,
+        MetricsRegistry metrics) {
         Map<String, PasswordEncoder> encoders = new HashMap<>();
 
-        Pbkdf2PasswordEncoder pbkdf2Encoder = new Pbkdf2PasswordEncoder("", 8, 185000, SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+        AdaptivePbkdf2PasswordEncoder pbkdf2Encoder = new AdaptivePbkdf2PasswordEncoder(iterations, saltLength,
+            metrics.timer("estoque_password_hash_seconds", "Tempo do PBKDF2 por operacao", "operation", "encode"),
+            metrics.timer("estoque_password_hash_seconds", "Tempo do PBKDF2 por operacao", "operation", "matches"));
         encoders.put("pbkdf2", pbkdf2Encoder);
         DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder("pbkdf2", encoders);
         passwordEncoder.setDefaultPasswordEncoderForMatches(pbkdf2Encoder);
@@ -49,7 +59,7 @@ public class SecurityConfig {
     @Bean
     SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
 
-        JwtTokenFilter customFilter = new JwtTokenFilter(tokenProvider);
+        JwtTokenFilter customFilter = new JwtTokenFilter(tokenProvider, authenticationCache);
 
         //@formatter:off
         return http
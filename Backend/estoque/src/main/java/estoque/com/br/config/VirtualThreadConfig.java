@@ -0,0 +1,73 @@
+package estoque.com.br.config;
+
+import java.time.Duration;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import estoque.com.br.threads.ConnectionAdmissionFilter;
+import estoque.com.br.threads.VirtualThreadPinningMonitor;
+
+/**
+ * Modo de threads virtuais, ligado por spring.threads.virtual.enabled. O Spring
+ * Boot ja coloca o Tomcat, o @Async e o streaming das exportacoes em threads
+ * virtuais; aqui entram o limite de requisicoes proporcional ao pool de
+ * conexoes e o monitor de pinning.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+	private Logger logger = Logger.getLogger(VirtualThreadConfig.class.getName());
+
+	@Value("${spring.datasource.hikari.maximum-pool-size:10}")
+	private int poolSize;
+
+	@Value("${virtual-threads.admission.max-concurrent:0}")
+	private int maxConcurrent;
+
+	@Value("${virtual-threads.admission.per-connection:4}")
+	private int perConnection;
+
+	@Value("${virtual-threads.admission.wait:1s}")
+	private Duration wait;
+
+	@Value("${virtual-threads.admission.retry-after:1}")
+	private long retryAfterSeconds;
+
+	@Bean
+	public ConnectionAdmissionFilter connectionAdmissionFilter(
+			@Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver) {
+		// sem valor explicito o limite acompanha o tamanho do pool
+		int limit = maxConcurrent > 0 ? maxConcurrent : poolSize * perConnection;
+		logger.info("Threads virtuais ligadas: ate " + limit + " requisicoes em andamento para "
+				+ poolSize + " conexoes");
+		return new ConnectionAdmissionFilter(limit, wait, retryAfterSeconds, exceptionResolver);
+	}
+
+	@Bean
+	public FilterRegistrationBean<ConnectionAdmissionFilter> connectionAdmissionFilterRegistration(
+			ConnectionAdmissionFilter filter) {
+		var registration = new FilterRegistrationBean<>(filter);
+		registration.addUrlPatterns("/api/*", "/auth/*");
+		// antes do Spring Security: a autenticacao pelo JWT pode ir ao banco
+		registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+		return registration;
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "virtual-threads.pinning.enabled", matchIfMissing = true)
+	public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+			@Value("${virtual-threads.pinning.threshold:20ms}") Duration threshold) {
+		return new VirtualThreadPinningMonitor(threshold);
+	}
+}
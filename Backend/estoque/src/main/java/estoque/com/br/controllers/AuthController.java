@@ -1,5 +1,7 @@
 package estoque.com.br.controllers;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -27,15 +29,16 @@ public class AuthController {
 	@SuppressWarnings("rawtypes")
 	@Operation(summary = "Authenticates a user and returns a token")
 	@PostMapping(value = "/signin")
-	public ResponseEntity signin(@RequestBody AccountCredentialsVO data) {
+	public CompletableFuture<ResponseEntity> signin(@RequestBody AccountCredentialsVO data) {
 		if (checkIfParamsIsNotNull(data)) {
-			return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid client request!");
-		}
-		var token = authServices.signin(data);
-		if (token == null) {
-			return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid client request!");
+			return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid client request!"));
 		}
-		return token;
+		return authServices.signin(data).thenApply(token -> {
+			if (token == null) {
+				return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid client request!");
+			}
+			return token;
+		});
 	}
 
 	@SuppressWarnings("rawtypes")
@@ -1,10 +1,16 @@
 package estoque.com.br.controllers;
 
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +24,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import estoque.com.br.data.vo.ClienteDeleteJobVO;
+import estoque.com.br.data.vo.ClienteSuggestionVO;
 import estoque.com.br.data.vo.ClienteVO;
 import estoque.com.br.services.ClienteService;
 import estoque.com.br.util.MediaType;
@@ -66,6 +74,59 @@ public class ClienteController {
 	}
 
 
+	@GetMapping(params = "after", produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
+	@Operation(summary = "Procurando clientes por cursor", description = "Paginacao por cursor, sem contagem: envie after vazio na primeira pagina e siga o link next",
+		tags = {"Cliente"},
+		responses = {
+				@ApiResponse(description = "Sucess", responseCode = "200",
+					content = {
+						@Content(
+							mediaType = "application/json",
+							array = @ArraySchema(schema = @Schema(implementation = ClienteVO.class))
+						)
+					}
+				),
+				@ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+				@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+				@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+			}
+		)
+	public ResponseEntity<CollectionModel<EntityModel<ClienteVO>>> findAllAfter(
+			@RequestParam(value = "after") String after,
+			@RequestParam(value = "size", defaultValue = "12") Integer size,
+	        @RequestParam(value = "direction", defaultValue = "asc") String direction
+			) {
+		var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+
+		return ResponseEntity.ok(service.findAllAfter(after, size, sortDirection));
+	}
+
+
+	@GetMapping(value = "/suggest", produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
+	@Operation(summary = "Sugerindo clientes", description = "Autocomplete por prefixo da razao social ou do CNPJ, sem acento nem pontuacao",
+		tags = {"Cliente"},
+		responses = {
+				@ApiResponse(description = "Sucess", responseCode = "200",
+					content = {
+						@Content(
+							mediaType = "application/json",
+							array = @ArraySchema(schema = @Schema(implementation = ClienteSuggestionVO.class))
+						)
+					}
+				),
+				@ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+				@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+				@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+			}
+		)
+	public ResponseEntity<List<ClienteSuggestionVO>> suggest(
+			@RequestParam(value = "q") String query,
+			@RequestParam(value = "limit", defaultValue = "10") Integer limit
+			) {
+		return ResponseEntity.ok(service.suggest(query, limit));
+	}
+
+
 	@GetMapping(value = "/findClientesByName/{razaoSocial}", produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
 	@Operation(summary = "Procurando clientes por nome", description = "Procurando clientes por nome",
 	tags = { "Cliente" },
@@ -158,18 +219,47 @@ public class ClienteController {
 
 	@DeleteMapping(value = "/{id}")
 	@Operation(summary = "Deletando Cliente",
-		description = "Deletando cliente passando por SJSON, XML or YML",
+		description = "Deletando cliente e todos os seus orcamentos. Com async=true a exclusao roda em blocos "
+				+ "e a resposta traz o job para acompanhar o progresso",
 		tags = {"Cliente"},
 		responses = {
 			@ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+			@ApiResponse(description = "Accepted", responseCode = "202",
+				content = @Content(schema = @Schema(implementation = ClienteDeleteJobVO.class))
+			),
 			@ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
 			@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
 			@ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
 			@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
 		}
 	)
-	public ResponseEntity<?> delete(@PathVariable(value = "id") Long id) {
+	public ResponseEntity<?> delete(
+			@PathVariable(value = "id") Long id,
+			@RequestParam(value = "async", defaultValue = "false") Boolean async
+			) {
+		if (async) {
+			var job = service.deleteAsync(id);
+			var location = linkTo(methodOn(ClienteController.class).findDeleteJob(job.getJobId())).toUri();
+			return ResponseEntity.accepted().location(location).body(job);
+		}
 		service.delete(id);
 		return ResponseEntity.noContent().build();
 	}
+
+
+	@GetMapping(value = "/delete-jobs/{jobId}", produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
+	@Operation(summary = "Acompanhando a exclusao de um cliente", description = "Progresso de uma exclusao iniciada com async=true",
+		tags = {"Cliente"},
+		responses = {
+				@ApiResponse(description = "Success", responseCode = "200",
+					content = @Content(schema = @Schema(implementation = ClienteDeleteJobVO.class))
+				),
+				@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+				@ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+				@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+			}
+		)
+	public ClienteDeleteJobVO findDeleteJob(@PathVariable(value = "jobId") String jobId) {
+		return service.findDeleteJob(jobId);
+	}
 }
@@ -0,0 +1,40 @@
+package estoque.com.br.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import estoque.com.br.metrics.MetricsRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/metrics/v1")
+@Tag(name = "Metricas", description = "Endpoint de coleta das metricas")
+public class MetricsController {
+
+	// definido na resposta e nao em produces: sem Accept a negociacao cairia
+	// no JSON padrao e o scraper receberia 406
+	private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain;version=0.0.4;charset=utf-8");
+
+	@Autowired
+	private MetricsRegistry registry;
+
+	@GetMapping
+	@Operation(summary = "Coletando as metricas", description = "Latencia, SQL, mappers, links e serializacao por metodo de controller, JWT, PBKDF2 e o pool de conexoes, no formato texto do Prometheus",
+		tags = {"Metricas"},
+		responses = {
+				@ApiResponse(description = "Success", responseCode = "200", content = @Content(mediaType = "text/plain")),
+				@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+				@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+			}
+		)
+	public ResponseEntity<String> scrape() {
+		return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(registry.scrape());
+	}
+}
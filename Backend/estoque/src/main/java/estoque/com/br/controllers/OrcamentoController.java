@@ -1,12 +1,21 @@
 package estoque.com.br.controllers;
 
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDate;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,11 +23,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import estoque.com.br.data.vo.OrcamentoImportReportVO;
 import estoque.com.br.data.vo.OrcamentoVO;
+import estoque.com.br.services.OrcamentoExportService;
+import estoque.com.br.services.OrcamentoExportService.Format;
+import estoque.com.br.services.OrcamentoImportService;
 import estoque.com.br.services.OrcamentoService;
 import estoque.com.br.util.MediaType;
 import io.swagger.v3.oas.annotations.Operation;
@@ -27,6 +43,7 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/api/orcamento/v1")
@@ -36,6 +53,17 @@ public class OrcamentoController {
 	@Autowired
 	private OrcamentoService service;
 
+	@Autowired
+	private OrcamentoExportService exportService;
+
+	@Autowired
+	private OrcamentoImportService importService;
+
+	// so a exportacao fica aberta tanto tempo; o resto usa o
+	// spring.mvc.async.request-timeout curto
+	@Value("${orcamento.export.timeout:1h}")
+	private Duration exportTimeout;
+
 	@GetMapping(produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
 	@Operation(summary = "Procurando todos os orcamentos", description = "Procurando todos os orcamentos",
 		tags = {"Orcamento"},
@@ -66,6 +94,34 @@ public class OrcamentoController {
 	}
 
 
+	@GetMapping(params = "after", produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
+	@Operation(summary = "Procurando orcamentos por cursor", description = "Paginacao por cursor, sem contagem: envie after vazio na primeira pagina e siga o link next",
+		tags = {"Orcamento"},
+		responses = {
+				@ApiResponse(description = "Sucess", responseCode = "200",
+					content = {
+						@Content(
+							mediaType = "application/json",
+							array = @ArraySchema(schema = @Schema(implementation = OrcamentoVO.class))
+						)
+					}
+				),
+				@ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+				@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+				@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+			}
+		)
+	public ResponseEntity<CollectionModel<EntityModel<OrcamentoVO>>> findAllAfter(
+			@RequestParam(value = "after") String after,
+			@RequestParam(value = "size", defaultValue = "12") Integer size,
+	        @RequestParam(value = "direction", defaultValue = "asc") String direction
+			) {
+		var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+
+		return ResponseEntity.ok(service.findAllAfter(after, size, sortDirection));
+	}
+
+
 	@GetMapping(value = "/findOrcamentosById/{id}", produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
 	@Operation(summary = "Procurando orcamentos por id", description = "Procurando orcamentos por id",
 	tags = { "Orcamento" },
@@ -95,6 +151,59 @@ public class OrcamentoController {
 	}
 
 
+	@PostMapping(value = "/import",
+			consumes = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON },
+			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
+	@Operation(summary = "Importando orcamentos em lote", description = "Recebe um array JSON ou NDJSON de orcamentos, grava em blocos e devolve o resultado de cada registro",
+	tags = { "Orcamento" },
+	responses = {
+			@ApiResponse(description = "Success", responseCode = "200",
+					content = @Content(schema = @Schema(implementation = OrcamentoImportReportVO.class))),
+			@ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+			@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+			@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+	}
+			)
+	public ResponseEntity<OrcamentoImportReportVO> importar(InputStream body) {
+		return ResponseEntity.ok(importService.importar(body));
+	}
+
+
+	@GetMapping(value = "/export", produces = { MediaType.APPLICATION_NDJSON, MediaType.TEXT_CSV })
+	@Operation(summary = "Exportando orcamentos com itens", description = "Exporta orcamentos com itens em streaming, em NDJSON ou CSV conforme o header Accept, filtrando por data de criacao (from/to, inclusivos) e status",
+	tags = { "Orcamento" },
+	responses = {
+			@ApiResponse(description = "Success", responseCode = "200",
+					content = { @Content(mediaType = MediaType.APPLICATION_NDJSON), @Content(mediaType = MediaType.TEXT_CSV) }),
+			@ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+			@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+			@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+	}
+			)
+	public WebAsyncTask<Void> export(
+			@RequestParam(value = "from", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+			@RequestParam(value = "to", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+			@RequestParam(value = "status", required = false) String status,
+			@RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.APPLICATION_NDJSON) String accept,
+			HttpServletResponse response)
+	{
+		var format = accept.contains(MediaType.TEXT_CSV) ? Format.CSV : Format.NDJSON;
+		var fileName = format == Format.CSV ? "orcamentos.csv" : "orcamentos.ndjson";
+		var contentType = format == Format.CSV ? MediaType.TEXT_CSV + ";charset=UTF-8" : MediaType.APPLICATION_NDJSON;
+		StreamingResponseBody body = exportService.export(format, from, to, status);
+
+		response.setHeader(HttpHeaders.CONTENT_TYPE, contentType);
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+		// WebAsyncTask e nao StreamingResponseBody direto: so ele leva um
+		// timeout proprio, e o streaming roda no mesmo executor de tarefas
+		return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+			body.writeTo(response.getOutputStream());
+			response.flushBuffer();
+			return null;
+		});
+	}
+
+
 	@GetMapping(value = "/{id}",
 			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML  })
 		@Operation(summary = "Procurando orcamento", description = "Procurando orcamento",
@@ -156,6 +265,46 @@ public class OrcamentoController {
 		}
 
 
+	@PostMapping(value = "/{id}/aprovar",
+			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML  })
+		@Operation(summary = "Aprovando orcamento",
+			description = "Aprova o orcamento e baixa o estoque de todos os itens; se algum produto nao tiver saldo nada e alterado",
+			tags = {"Orcamento"},
+			responses = {
+				@ApiResponse(description = "Success", responseCode = "200",
+					content = @Content(schema = @Schema(implementation = OrcamentoVO.class))
+				),
+				@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+				@ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+				@ApiResponse(description = "Conflict", responseCode = "409", content = @Content),
+				@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+			}
+		)
+		public OrcamentoVO aprovar(@PathVariable("id") Long id) {
+			return service.aprovar(id);
+		}
+
+
+	@PostMapping(value = "/{id}/cancelar",
+			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML  })
+		@Operation(summary = "Cancelando orcamento",
+			description = "Cancela um orcamento aprovado e devolve o estoque reservado",
+			tags = {"Orcamento"},
+			responses = {
+				@ApiResponse(description = "Success", responseCode = "200",
+					content = @Content(schema = @Schema(implementation = OrcamentoVO.class))
+				),
+				@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+				@ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+				@ApiResponse(description = "Conflict", responseCode = "409", content = @Content),
+				@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+			}
+		)
+		public OrcamentoVO cancelar(@PathVariable("id") Long id) {
+			return service.cancelar(id);
+		}
+
+
 	@DeleteMapping(value = "/{id}")
 	@Operation(summary = "Deletando Orcamento",
 		description = "Deletando orcamento passando porJSON, XML or YML",
@@ -0,0 +1,69 @@
+package estoque.com.br.controllers;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import estoque.com.br.data.vo.EventoOutboxVO;
+import estoque.com.br.services.OutboxService;
+import estoque.com.br.util.MediaType;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/outbox/v1")
+@Tag(name = "Outbox", description = "Endpoints para a fila de eventos")
+public class OutboxController {
+
+	@Autowired
+	private OutboxService service;
+
+	@GetMapping(value = "/mortos", produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
+	@Operation(summary = "Procurando eventos mortos", description = "Eventos que esgotaram as tentativas de entrega, do mais recente para o mais antigo",
+		tags = {"Outbox"},
+		responses = {
+				@ApiResponse(description = "Success", responseCode = "200",
+					content = {
+						@Content(
+							mediaType = "application/json",
+							array = @ArraySchema(schema = @Schema(implementation = EventoOutboxVO.class))
+						)
+					}
+				),
+				@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+				@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+			}
+		)
+	public ResponseEntity<List<EventoOutboxVO>> findMortos(
+			@RequestParam(value = "limit", defaultValue = "50") Integer limit
+			) {
+		return ResponseEntity.ok(service.findMortos(limit));
+	}
+
+
+	@PostMapping(value = "/{id}/reprocessar")
+	@Operation(summary = "Reprocessando um evento morto", description = "Devolve o evento para a fila com as tentativas zeradas",
+		tags = {"Outbox"},
+		responses = {
+				@ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+				@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+				@ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+				@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+			}
+		)
+	public ResponseEntity<?> reprocessar(@PathVariable(value = "id") Long id) {
+		service.reprocessar(id);
+		return ResponseEntity.noContent().build();
+	}
+}
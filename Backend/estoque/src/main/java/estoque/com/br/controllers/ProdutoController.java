@@ -5,6 +5,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.ResponseEntity;
@@ -68,8 +69,36 @@ public class ProdutoController {
 	}
 
 
+	@GetMapping(params = "after", produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
+	@Operation(summary = "Procurando produtos por cursor", description = "Paginacao por cursor, sem contagem: envie after vazio na primeira pagina e siga o link next",
+		tags = {"Produto"},
+		responses = {
+				@ApiResponse(description = "Sucess", responseCode = "200",
+					content = {
+						@Content(
+							mediaType = "application/json",
+							array = @ArraySchema(schema = @Schema(implementation = ProdutoVO.class))
+						)
+					}
+				),
+				@ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+				@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+				@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+			}
+		)
+	public ResponseEntity<CollectionModel<EntityModel<ProdutoVO>>> findAllAfter(
+			@RequestParam(value = "after") String after,
+			@RequestParam(value = "size", defaultValue = "12") Integer size,
+	        @RequestParam(value = "direction", defaultValue = "asc") String direction
+			) {
+		var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+
+		return ResponseEntity.ok(service.findAllAfter(after, size, sortDirection));
+	}
+
+
 	@GetMapping(value = "/findProdutosByName/{nomeProduto}", produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
-	@Operation(summary = "Procurando produtos por nome", description = "Procurando produtos por nome",
+	@Operation(summary = "Procurando produtos por nome", description = "Procurando produtos por nome; paginas alem de search.produto.max-window resultados (1000 por padrao) voltam 400",
 	tags = { "Produto" },
 	responses = {
 			@ApiResponse(description = "Success", responseCode = "200",
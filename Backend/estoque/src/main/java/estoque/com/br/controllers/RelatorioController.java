@@ -0,0 +1,81 @@
+package estoque.com.br.controllers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import estoque.com.br.data.vo.ResumoVendaVO;
+import estoque.com.br.model.DimensaoRelatorio;
+import estoque.com.br.services.RelatorioVendasService;
+import estoque.com.br.util.MediaType;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/relatorio/v1")
+@Tag(name = "Relatorio", description = "Endpoints para Relatorios de vendas")
+public class RelatorioController {
+
+	@Autowired
+	private RelatorioVendasService service;
+
+	@GetMapping(value = "/vendas", produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
+	@Operation(summary = "Resumo diario de vendas", description = "Orcamentos, quantidade e valor por dia e status para cada cliente, vendedor, produto ou tipo de produto, lidos do resumo ja agregado (de e ate inclusivos; chave e status opcionais)",
+		tags = {"Relatorio"},
+		responses = {
+				@ApiResponse(description = "Success", responseCode = "200",
+					content = {
+						@Content(
+							mediaType = "application/json",
+							array = @ArraySchema(schema = @Schema(implementation = ResumoVendaVO.class))
+						)
+					}
+				),
+				@ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+				@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+				@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+			}
+		)
+	public ResponseEntity<List<ResumoVendaVO>> findResumo(
+			@RequestParam(value = "dimensao") DimensaoRelatorio dimensao,
+			@RequestParam(value = "de") @DateTimeFormat(iso = ISO.DATE) LocalDate de,
+			@RequestParam(value = "ate") @DateTimeFormat(iso = ISO.DATE) LocalDate ate,
+			@RequestParam(value = "chave", required = false) String chave,
+			@RequestParam(value = "status", required = false) String status
+			) {
+		return ResponseEntity.ok(service.findResumo(dimensao, de, ate, chave, status));
+	}
+
+
+	@PostMapping(value = "/vendas/reconstruir")
+	@Operation(summary = "Reconstruindo o resumo de vendas", description = "Recalcula o resumo dos dias do periodo a partir dos orcamentos (de e ate inclusivos); de depois de ate ou periodo maior que relatorio.reconstruir.max-dias (366 por padrao) volta 400, e eventos de orcamento do periodo ainda pendentes no outbox voltam 409",
+		tags = {"Relatorio"},
+		responses = {
+				@ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+				@ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+				@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+				@ApiResponse(description = "Conflict", responseCode = "409", content = @Content),
+				@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+			}
+		)
+	public ResponseEntity<?> reconstruir(
+			@RequestParam(value = "de") @DateTimeFormat(iso = ISO.DATE) LocalDate de,
+			@RequestParam(value = "ate") @DateTimeFormat(iso = ISO.DATE) LocalDate ate
+			) {
+		service.reconstruir(de, ate);
+		return ResponseEntity.noContent().build();
+	}
+}
@@ -6,6 +6,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.jpa.domain.JpaSort;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.ResponseEntity;
@@ -68,6 +69,34 @@ public class UsuarioController {
 
     	return ResponseEntity.ok(usuarioService.findAll(pageable));
     }
+
+
+    @GetMapping(params = "after", produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
+    @Operation(summary = "Procurando usuarios por cursor", description = "Paginacao por cursor, sem contagem: envie after vazio na primeira pagina e siga o link next",
+    	tags = {"Usuario"},
+    	responses = {
+    			@ApiResponse(description = "Sucess", responseCode = "200",
+    				content = {
+    					@Content(
+    						mediaType = "application/json",
+    						array = @ArraySchema(schema = @Schema(implementation = UsuarioVO.class))
+    					)
+    				}
+    			),
+    			@ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+    			@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+    			@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+    		}
+    	)
+    public ResponseEntity<CollectionModel<EntityModel<UsuarioVO>>> findAllAfter(
+    		@RequestParam(value = "after") String after,
+    		@RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    		) {
+    	var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+
+    	return ResponseEntity.ok(usuarioService.findAllAfter(after, size, sortDirection));
+    }
         
     
     @GetMapping(value = "/findUsuariosByUserName/{userName}", produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
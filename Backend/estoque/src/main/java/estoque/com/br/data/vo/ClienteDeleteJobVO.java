@@ -0,0 +1,112 @@
+package estoque.com.br.data.vo;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+@JsonPropertyOrder({"jobId", "clienteId", "status", "total", "deleted", "startedAt", "finishedAt", "message"})
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ClienteDeleteJobVO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public enum Status { RUNNING, DONE, FAILED }
+
+	private String jobId;
+	private Long clienteId;
+	private Status status;
+	private long total;
+	private long deleted;
+	private Date startedAt;
+	private Date finishedAt;
+	private String message;
+
+	public ClienteDeleteJobVO() {}
+
+	public String getJobId() {
+		return jobId;
+	}
+
+	public void setJobId(String jobId) {
+		this.jobId = jobId;
+	}
+
+	public Long getClienteId() {
+		return clienteId;
+	}
+
+	public void setClienteId(Long clienteId) {
+		this.clienteId = clienteId;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public void setStatus(Status status) {
+		this.status = status;
+	}
+
+	public long getTotal() {
+		return total;
+	}
+
+	public void setTotal(long total) {
+		this.total = total;
+	}
+
+	public long getDeleted() {
+		return deleted;
+	}
+
+	public void setDeleted(long deleted) {
+		this.deleted = deleted;
+	}
+
+	public Date getStartedAt() {
+		return startedAt;
+	}
+
+	public void setStartedAt(Date startedAt) {
+		this.startedAt = startedAt;
+	}
+
+	public Date getFinishedAt() {
+		return finishedAt;
+	}
+
+	public void setFinishedAt(Date finishedAt) {
+		this.finishedAt = finishedAt;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(clienteId, deleted, finishedAt, jobId, message, startedAt, status, total);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ClienteDeleteJobVO other = (ClienteDeleteJobVO) obj;
+		return Objects.equals(clienteId, other.clienteId) && deleted == other.deleted
+				&& Objects.equals(finishedAt, other.finishedAt) && Objects.equals(jobId, other.jobId)
+				&& Objects.equals(message, other.message) && Objects.equals(startedAt, other.startedAt)
+				&& status == other.status && total == other.total;
+	}
+}
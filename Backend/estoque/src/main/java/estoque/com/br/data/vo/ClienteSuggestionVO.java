@@ -0,0 +1,66 @@
+package estoque.com.br.data.vo;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+@JsonPropertyOrder({"id", "razaoSocial", "cnpj"})
+public class ClienteSuggestionVO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Long id;
+	private String razaoSocial;
+	private String cnpj;
+
+	public ClienteSuggestionVO() {}
+
+	public ClienteSuggestionVO(Long id, String razaoSocial, String cnpj) {
+		this.id = id;
+		this.razaoSocial = razaoSocial;
+		this.cnpj = cnpj;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getRazaoSocial() {
+		return razaoSocial;
+	}
+
+	public void setRazaoSocial(String razaoSocial) {
+		this.razaoSocial = razaoSocial;
+	}
+
+	public String getCnpj() {
+		return cnpj;
+	}
+
+	public void setCnpj(String cnpj) {
+		this.cnpj = cnpj;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(cnpj, id, razaoSocial);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ClienteSuggestionVO other = (ClienteSuggestionVO) obj;
+		return Objects.equals(cnpj, other.cnpj) && Objects.equals(id, other.id)
+				&& Objects.equals(razaoSocial, other.razaoSocial);
+	}
+}
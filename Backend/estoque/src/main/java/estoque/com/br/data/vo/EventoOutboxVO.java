@@ -0,0 +1,122 @@
+package estoque.com.br.data.vo;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import estoque.com.br.model.StatusEvento;
+
+@JsonPropertyOrder({"id", "agregadoTipo", "agregadoId", "tipo", "status", "tentativas", "ultimoErro", "dataCriacao", "payload"})
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EventoOutboxVO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Long id;
+	private String agregadoTipo;
+	private Long agregadoId;
+	private String tipo;
+	private StatusEvento status;
+	private Integer tentativas;
+	private String ultimoErro;
+	private Date dataCriacao;
+	private String payload;
+
+	public EventoOutboxVO() {}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getAgregadoTipo() {
+		return agregadoTipo;
+	}
+
+	public void setAgregadoTipo(String agregadoTipo) {
+		this.agregadoTipo = agregadoTipo;
+	}
+
+	public Long getAgregadoId() {
+		return agregadoId;
+	}
+
+	public void setAgregadoId(Long agregadoId) {
+		this.agregadoId = agregadoId;
+	}
+
+	public String getTipo() {
+		return tipo;
+	}
+
+	public void setTipo(String tipo) {
+		this.tipo = tipo;
+	}
+
+	public StatusEvento getStatus() {
+		return status;
+	}
+
+	public void setStatus(StatusEvento status) {
+		this.status = status;
+	}
+
+	public Integer getTentativas() {
+		return tentativas;
+	}
+
+	public void setTentativas(Integer tentativas) {
+		this.tentativas = tentativas;
+	}
+
+	public String getUltimoErro() {
+		return ultimoErro;
+	}
+
+	public void setUltimoErro(String ultimoErro) {
+		this.ultimoErro = ultimoErro;
+	}
+
+	public Date getDataCriacao() {
+		return dataCriacao;
+	}
+
+	public void setDataCriacao(Date dataCriacao) {
+		this.dataCriacao = dataCriacao;
+	}
+
+	public String getPayload() {
+		return payload;
+	}
+
+	public void setPayload(String payload) {
+		this.payload = payload;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(agregadoId, agregadoTipo, dataCriacao, id, payload, status, tentativas, tipo, ultimoErro);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		EventoOutboxVO other = (EventoOutboxVO) obj;
+		return Objects.equals(agregadoId, other.agregadoId) && Objects.equals(agregadoTipo, other.agregadoTipo)
+				&& Objects.equals(dataCriacao, other.dataCriacao) && Objects.equals(id, other.id)
+				&& Objects.equals(payload, other.payload) && status == other.status
+				&& Objects.equals(tentativas, other.tentativas) && Objects.equals(tipo, other.tipo)
+				&& Objects.equals(ultimoErro, other.ultimoErro);
+	}
+}
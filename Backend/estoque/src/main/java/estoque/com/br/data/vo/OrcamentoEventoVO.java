@@ -0,0 +1,75 @@
+package estoque.com.br.data.vo;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Payload dos eventos de orcamento. {@code resumo} traz o que o orcamento
+ * mudou no resumo de vendas, ja como diferenca a somar.
+ */
+@JsonPropertyOrder({"orcamentoId", "statusAnterior", "status", "resumo"})
+public class OrcamentoEventoVO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Long orcamentoId;
+	private String statusAnterior;
+	private String status;
+	private List<ResumoVendaVO> resumo = new ArrayList<>();
+
+	public OrcamentoEventoVO() {}
+
+	public Long getOrcamentoId() {
+		return orcamentoId;
+	}
+
+	public void setOrcamentoId(Long orcamentoId) {
+		this.orcamentoId = orcamentoId;
+	}
+
+	public String getStatusAnterior() {
+		return statusAnterior;
+	}
+
+	public void setStatusAnterior(String statusAnterior) {
+		this.statusAnterior = statusAnterior;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public List<ResumoVendaVO> getResumo() {
+		return resumo;
+	}
+
+	public void setResumo(List<ResumoVendaVO> resumo) {
+		this.resumo = resumo;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(orcamentoId, resumo, status, statusAnterior);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		OrcamentoEventoVO other = (OrcamentoEventoVO) obj;
+		return Objects.equals(orcamentoId, other.orcamentoId) && Objects.equals(resumo, other.resumo)
+				&& Objects.equals(status, other.status) && Objects.equals(statusAnterior, other.statusAnterior);
+	}
+}
@@ -0,0 +1,90 @@
+package estoque.com.br.data.vo;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+@JsonPropertyOrder({"total", "imported", "rejected", "failed", "results"})
+public class OrcamentoImportReportVO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private int total;
+	private int imported;
+	private int rejected;
+	private int failed;
+	private List<OrcamentoImportResultVO> results = new ArrayList<>();
+
+	public OrcamentoImportReportVO() {}
+
+	public void add(OrcamentoImportResultVO result) {
+		results.add(result);
+		total++;
+		switch (result.getStatus()) {
+			case IMPORTED -> imported++;
+			case REJECTED -> rejected++;
+			case FAILED -> failed++;
+		}
+	}
+
+	public int getTotal() {
+		return total;
+	}
+
+	public void setTotal(int total) {
+		this.total = total;
+	}
+
+	public int getImported() {
+		return imported;
+	}
+
+	public void setImported(int imported) {
+		this.imported = imported;
+	}
+
+	public int getRejected() {
+		return rejected;
+	}
+
+	public void setRejected(int rejected) {
+		this.rejected = rejected;
+	}
+
+	public int getFailed() {
+		return failed;
+	}
+
+	public void setFailed(int failed) {
+		this.failed = failed;
+	}
+
+	public List<OrcamentoImportResultVO> getResults() {
+		return results;
+	}
+
+	public void setResults(List<OrcamentoImportResultVO> results) {
+		this.results = results;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(failed, imported, rejected, results, total);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		OrcamentoImportReportVO other = (OrcamentoImportReportVO) obj;
+		return failed == other.failed && imported == other.imported && rejected == other.rejected
+				&& Objects.equals(results, other.results) && total == other.total;
+	}
+}
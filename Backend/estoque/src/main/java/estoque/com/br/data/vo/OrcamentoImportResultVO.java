@@ -0,0 +1,80 @@
+package estoque.com.br.data.vo;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+@JsonPropertyOrder({"index", "status", "id", "message"})
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrcamentoImportResultVO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public enum Status { IMPORTED, REJECTED, FAILED }
+
+	private int index;
+	private Status status;
+	private Long id;
+	private String message;
+
+	public OrcamentoImportResultVO() {}
+
+	public OrcamentoImportResultVO(int index, Status status, Long id, String message) {
+		this.index = index;
+		this.status = status;
+		this.id = id;
+		this.message = message;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public void setIndex(int index) {
+		this.index = index;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public void setStatus(Status status) {
+		this.status = status;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id, index, message, status);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		OrcamentoImportResultVO other = (OrcamentoImportResultVO) obj;
+		return Objects.equals(id, other.id) && index == other.index && Objects.equals(message, other.message)
+				&& status == other.status;
+	}
+}
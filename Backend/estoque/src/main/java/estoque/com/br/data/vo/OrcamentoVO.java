@@ -10,7 +10,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.github.dozermapper.core.Mapping;
 
-@JsonPropertyOrder({"id", "dataCriacao", "dataValidade", "status", "clienteId", "vendedorId", "itens", "total"})
+@JsonPropertyOrder({"id", "dataCriacao", "dataValidade", "status", "clienteId", "vendedorId", "itens", "total", "quantidadeItens"})
 public class OrcamentoVO extends RepresentationModel<OrcamentoVO> implements Serializable {
 
 	private static final long serialVersionUID = 1L;
@@ -28,6 +28,7 @@ public class OrcamentoVO extends RepresentationModel<OrcamentoVO> implements Ser
     private Long usuarioId;
     private List<ItemOrcamentoVO> itens;
     private Double total;
+    private Integer quantidadeItens;
 
 	public OrcamentoVO() {}
 
@@ -111,10 +112,18 @@ public class OrcamentoVO extends RepresentationModel<OrcamentoVO> implements Ser
 		this.total = total;
 	}
 
+	public Integer getQuantidadeItens() {
+		return quantidadeItens;
+	}
+
+	public void setQuantidadeItens(Integer quantidadeItens) {
+		this.quantidadeItens = quantidadeItens;
+	}
+
 	@Override
 	public String toString() {
 		return "OrcamentoVO [key=" + key + ", dataCriacao=" + dataCriacao + ", dataValidade=" + dataValidade
 				+ ", status=" + status + ", clienteId=" + clienteId + ", razaoSocial=" + razaoSocial + ", usuarioId="
-				+ usuarioId + ", itens=" + itens + ", total=" + total + "]";
+				+ usuarioId + ", itens=" + itens + ", total=" + total + ", quantidadeItens=" + quantidadeItens + "]";
 	}
 }
\ No newline at end of file
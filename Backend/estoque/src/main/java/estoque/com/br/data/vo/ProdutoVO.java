@@ -24,6 +24,7 @@ public class ProdutoVO extends RepresentationModel<ProdutoVO> implements Seriali
 	private TipoProduto tipoProduto;
 	private BigDecimal quantidadeProduto;
 	private Double valor;
+	private Long version;
 
 	public ProdutoVO() {}
 
@@ -67,6 +68,14 @@ public class ProdutoVO extends RepresentationModel<ProdutoVO> implements Seriali
 		this.valor = valor;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
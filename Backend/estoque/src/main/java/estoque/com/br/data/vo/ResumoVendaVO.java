@@ -0,0 +1,112 @@
+package estoque.com.br.data.vo;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import estoque.com.br.model.DimensaoRelatorio;
+
+@JsonPropertyOrder({"dia", "dimensao", "chave", "status", "orcamentos", "quantidade", "valor"})
+public class ResumoVendaVO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private LocalDate dia;
+	private DimensaoRelatorio dimensao;
+	private String chave;
+	private String status;
+	private Integer orcamentos;
+	private BigDecimal quantidade;
+	private BigDecimal valor;
+
+	public ResumoVendaVO() {}
+
+	public ResumoVendaVO(LocalDate dia, DimensaoRelatorio dimensao, String chave, String status, Integer orcamentos,
+			BigDecimal quantidade, BigDecimal valor) {
+		this.dia = dia;
+		this.dimensao = dimensao;
+		this.chave = chave;
+		this.status = status;
+		this.orcamentos = orcamentos;
+		this.quantidade = quantidade;
+		this.valor = valor;
+	}
+
+	public LocalDate getDia() {
+		return dia;
+	}
+
+	public void setDia(LocalDate dia) {
+		this.dia = dia;
+	}
+
+	public DimensaoRelatorio getDimensao() {
+		return dimensao;
+	}
+
+	public void setDimensao(DimensaoRelatorio dimensao) {
+		this.dimensao = dimensao;
+	}
+
+	public String getChave() {
+		return chave;
+	}
+
+	public void setChave(String chave) {
+		this.chave = chave;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public Integer getOrcamentos() {
+		return orcamentos;
+	}
+
+	public void setOrcamentos(Integer orcamentos) {
+		this.orcamentos = orcamentos;
+	}
+
+	public BigDecimal getQuantidade() {
+		return quantidade;
+	}
+
+	public void setQuantidade(BigDecimal quantidade) {
+		this.quantidade = quantidade;
+	}
+
+	public BigDecimal getValor() {
+		return valor;
+	}
+
+	public void setValor(BigDecimal valor) {
+		this.valor = valor;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(chave, dia, dimensao, orcamentos, quantidade, status, valor);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ResumoVendaVO other = (ResumoVendaVO) obj;
+		return Objects.equals(chave, other.chave) && Objects.equals(dia, other.dia) && dimensao == other.dimensao
+				&& Objects.equals(orcamentos, other.orcamentos) && Objects.equals(quantidade, other.quantidade)
+				&& Objects.equals(status, other.status) && Objects.equals(valor, other.valor);
+	}
+}
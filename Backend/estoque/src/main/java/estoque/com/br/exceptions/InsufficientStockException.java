@@ -0,0 +1,22 @@
+package estoque.com.br.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InsufficientStockException extends ResourceConflictException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final Long produtoId;
+
+  public InsufficientStockException(Long produtoId) {
+    super("Estoque insuficiente para o produto " + produtoId + "!");
+    this.produtoId = produtoId;
+  }
+
+  public Long getProdutoId() {
+    return produtoId;
+  }
+
+}
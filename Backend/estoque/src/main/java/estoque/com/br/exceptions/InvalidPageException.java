@@ -0,0 +1,19 @@
+package estoque.com.br.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPageException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  public InvalidPageException() {
+	  super("Invalid page!");
+  }
+
+  public InvalidPageException(String ex) {
+    super(ex);
+  }
+
+}
@@ -0,0 +1,19 @@
+package estoque.com.br.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPeriodException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  public InvalidPeriodException() {
+	  super("Invalid period!");
+  }
+
+  public InvalidPeriodException(String ex) {
+    super(ex);
+  }
+
+}
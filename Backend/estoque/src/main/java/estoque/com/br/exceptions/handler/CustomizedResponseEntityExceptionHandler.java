@@ -2,6 +2,8 @@ package estoque.com.br.exceptions.handler;
 
 import java.util.Date;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -11,9 +13,14 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import estoque.com.br.exceptions.ExceptionResponse;
+import estoque.com.br.exceptions.InvalidCursorException;
 import estoque.com.br.exceptions.InvalidJwtAuthenticationException;
+import estoque.com.br.exceptions.InvalidPageException;
+import estoque.com.br.exceptions.InvalidPeriodException;
 import estoque.com.br.exceptions.RequiredObjectIsNullException;
+import estoque.com.br.exceptions.ResourceConflictException;
 import estoque.com.br.exceptions.ResourceNotFoundException;
+import estoque.com.br.exceptions.ServiceOverloadedException;
 
 @ControllerAdvice
 @RestController
@@ -41,7 +48,8 @@ public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExce
       return new ResponseEntity<>(exceptionResponse, HttpStatus.NOT_FOUND);
     }
 
-  @ExceptionHandler(RequiredObjectIsNullException.class)
+  @ExceptionHandler({RequiredObjectIsNullException.class, InvalidCursorException.class, InvalidPeriodException.class,
+	  InvalidPageException.class})
   public final ResponseEntity<ExceptionResponse> handleBadRequestExceptions(Exception ex, WebRequest request)
   {
 	  ExceptionResponse exceptionResponse = new ExceptionResponse(
@@ -52,6 +60,18 @@ public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExce
 	  return new ResponseEntity<>(exceptionResponse, HttpStatus.BAD_REQUEST);
   }
 
+  // ObjectOptimisticLockingFailureException vem do @Version do Produto
+  @ExceptionHandler({ResourceConflictException.class, ObjectOptimisticLockingFailureException.class})
+  public final ResponseEntity<ExceptionResponse> handleConflictExceptions(Exception ex, WebRequest request)
+  {
+	  ExceptionResponse exceptionResponse = new ExceptionResponse(
+			  new Date(),
+			  ex.getMessage(),
+			  request.getDescription(false));
+
+	  return new ResponseEntity<>(exceptionResponse, HttpStatus.CONFLICT);
+  }
+
   @ExceptionHandler(InvalidJwtAuthenticationException.class)
   public final ResponseEntity<ExceptionResponse> handleInvalidJwtAuthenticationException(Exception ex, WebRequest request)
   {
@@ -63,4 +83,17 @@ public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExce
 	  return new ResponseEntity<>(exceptionResponse, HttpStatus.FORBIDDEN);
   }
 
+  @ExceptionHandler(ServiceOverloadedException.class)
+  public final ResponseEntity<ExceptionResponse> handleServiceOverloadedException(ServiceOverloadedException ex, WebRequest request)
+  {
+	  ExceptionResponse exceptionResponse = new ExceptionResponse(
+			  new Date(),
+			  ex.getMessage(),
+			  request.getDescription(false));
+
+	  return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+			  .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+			  .body(exceptionResponse);
+  }
+
 }
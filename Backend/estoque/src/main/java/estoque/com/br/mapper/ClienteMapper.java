@@ -0,0 +1,46 @@
+package estoque.com.br.mapper;
+
+import estoque.com.br.data.vo.ClienteVO;
+import estoque.com.br.metrics.RequestMetrics;
+import estoque.com.br.metrics.RequestMetrics.Phase;
+import estoque.com.br.model.Cliente;
+
+public final class ClienteMapper {
+
+	private ClienteMapper() {}
+
+	public static ClienteVO toVO(Cliente entity) {
+		if (entity == null) {
+			return null;
+		}
+		long inicio = RequestMetrics.start(Phase.MAPPER);
+		try {
+			ClienteVO vo = new ClienteVO();
+			vo.setKey(entity.getId());
+			vo.setRazaoSocial(entity.getRazaoSocial());
+			vo.setInscricaoEstadual(entity.getInscricaoEstadual());
+			vo.setCnpj(entity.getCnpj());
+			vo.setEndereco(entity.getEndereco());
+			vo.setEmail(entity.getEmail());
+			vo.setTelefone(entity.getTelefone());
+			return vo;
+		} finally {
+			RequestMetrics.stop(Phase.MAPPER, inicio);
+		}
+	}
+
+	public static Cliente toEntity(ClienteVO vo) {
+		if (vo == null) {
+			return null;
+		}
+		Cliente entity = new Cliente();
+		entity.setId(vo.getKey());
+		entity.setRazaoSocial(vo.getRazaoSocial());
+		entity.setInscricaoEstadual(vo.getInscricaoEstadual());
+		entity.setCnpj(vo.getCnpj());
+		entity.setEndereco(vo.getEndereco());
+		entity.setEmail(vo.getEmail());
+		entity.setTelefone(vo.getTelefone());
+		return entity;
+	}
+}
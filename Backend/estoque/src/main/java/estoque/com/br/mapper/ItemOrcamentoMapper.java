@@ -0,0 +1,54 @@
+package estoque.com.br.mapper;
+
+import estoque.com.br.data.vo.ItemOrcamentoVO;
+import estoque.com.br.metrics.RequestMetrics;
+import estoque.com.br.metrics.RequestMetrics.Phase;
+import estoque.com.br.model.ItemOrcamento;
+import estoque.com.br.model.Orcamento;
+import estoque.com.br.model.Produto;
+import estoque.com.br.util.OrcamentoTotals;
+
+public final class ItemOrcamentoMapper {
+
+	private ItemOrcamentoMapper() {}
+
+	public static ItemOrcamentoVO toVO(ItemOrcamento entity) {
+		if (entity == null) {
+			return null;
+		}
+		long inicio = RequestMetrics.start(Phase.MAPPER);
+		try {
+			ItemOrcamentoVO vo = new ItemOrcamentoVO();
+			vo.setKey(entity.getId());
+			vo.setOrcamentoId(entity.getOrcamento() != null ? entity.getOrcamento().getId() : null);
+			vo.setProdutoId(entity.getProduto() != null ? entity.getProduto().getId() : null);
+			vo.setQuantidade(entity.getQuantidade());
+			vo.setPrecoUnitario(entity.getPrecoUnitario() != null ? entity.getPrecoUnitario().doubleValue() : null);
+			return vo;
+		} finally {
+			RequestMetrics.stop(Phase.MAPPER, inicio);
+		}
+	}
+
+	// Orcamento e produto voltam apenas com o id preenchido
+	public static ItemOrcamento toEntity(ItemOrcamentoVO vo) {
+		if (vo == null) {
+			return null;
+		}
+		ItemOrcamento entity = new ItemOrcamento();
+		entity.setId(vo.getKey());
+		if (vo.getOrcamentoId() != null) {
+			Orcamento orcamento = new Orcamento();
+			orcamento.setId(vo.getOrcamentoId());
+			entity.setOrcamento(orcamento);
+		}
+		if (vo.getProdutoId() != null) {
+			Produto produto = new Produto();
+			produto.setId(vo.getProdutoId());
+			entity.setProduto(produto);
+		}
+		entity.setQuantidade(OrcamentoTotals.centavos(vo.getQuantidade()));
+		entity.setPrecoUnitario(OrcamentoTotals.centavos(vo.getPrecoUnitario()));
+		return entity;
+	}
+}
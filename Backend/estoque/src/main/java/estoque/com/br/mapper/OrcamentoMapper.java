@@ -0,0 +1,80 @@
+package estoque.com.br.mapper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import estoque.com.br.data.vo.ItemOrcamentoVO;
+import estoque.com.br.data.vo.OrcamentoVO;
+import estoque.com.br.metrics.RequestMetrics;
+import estoque.com.br.metrics.RequestMetrics.Phase;
+import estoque.com.br.model.Cliente;
+import estoque.com.br.model.ItemOrcamento;
+import estoque.com.br.model.Orcamento;
+import estoque.com.br.model.Usuario;
+
+public final class OrcamentoMapper {
+
+	private OrcamentoMapper() {}
+
+	public static OrcamentoVO toVO(Orcamento entity) {
+		if (entity == null) {
+			return null;
+		}
+		long inicio = RequestMetrics.start(Phase.MAPPER);
+		try {
+			OrcamentoVO vo = new OrcamentoVO();
+			vo.setKey(entity.getId());
+			vo.setDataCriacao(entity.getDataCriacao());
+			vo.setDataValidade(entity.getDataValidade());
+			vo.setStatus(entity.getStatus());
+			vo.setClienteId(entity.getCliente() != null ? entity.getCliente().getId() : null);
+			vo.setVendedorId(entity.getUsuario() != null ? entity.getUsuario().getId() : null);
+			vo.setTotal(entity.getTotal() != null ? entity.getTotal().doubleValue() : null);
+			vo.setQuantidadeItens(entity.getQuantidadeItens());
+			if (entity.getItens() != null) {
+				List<ItemOrcamentoVO> itens = new ArrayList<>(entity.getItens().size());
+				for (ItemOrcamento item : entity.getItens()) {
+					itens.add(ItemOrcamentoMapper.toVO(item));
+				}
+				vo.setItens(itens);
+			}
+			return vo;
+		} finally {
+			RequestMetrics.stop(Phase.MAPPER, inicio);
+		}
+	}
+
+	// Cliente e vendedor voltam apenas com o id preenchido
+	public static Orcamento toEntity(OrcamentoVO vo) {
+		if (vo == null) {
+			return null;
+		}
+		Orcamento entity = new Orcamento();
+		entity.setId(vo.getKey());
+		entity.setDataCriacao(vo.getDataCriacao());
+		entity.setDataValidade(vo.getDataValidade());
+		entity.setStatus(vo.getStatus());
+		if (vo.getClienteId() != null) {
+			Cliente cliente = new Cliente();
+			cliente.setId(vo.getClienteId());
+			entity.setCliente(cliente);
+		}
+		if (vo.getVendedorId() != null) {
+			Usuario usuario = new Usuario();
+			usuario.setId(vo.getVendedorId());
+			entity.setUsuario(usuario);
+		}
+		entity.setTotal(vo.getTotal() != null ? BigDecimal.valueOf(vo.getTotal()) : null);
+		entity.setQuantidadeItens(vo.getQuantidadeItens());
+		List<ItemOrcamento> itens = null;
+		if (vo.getItens() != null) {
+			itens = new ArrayList<>(vo.getItens().size());
+			for (ItemOrcamentoVO item : vo.getItens()) {
+				itens.add(ItemOrcamentoMapper.toEntity(item));
+			}
+		}
+		entity.setItens(itens);
+		return entity;
+	}
+}
@@ -0,0 +1,36 @@
+package estoque.com.br.mapper;
+
+import estoque.com.br.data.vo.PermissionVO;
+import estoque.com.br.metrics.RequestMetrics;
+import estoque.com.br.metrics.RequestMetrics.Phase;
+import estoque.com.br.model.Permission;
+
+public final class PermissionMapper {
+
+	private PermissionMapper() {}
+
+	public static PermissionVO toVO(Permission entity) {
+		if (entity == null) {
+			return null;
+		}
+		long inicio = RequestMetrics.start(Phase.MAPPER);
+		try {
+			PermissionVO vo = new PermissionVO();
+			vo.setKey(entity.getId());
+			vo.setDescription(entity.getDescription());
+			return vo;
+		} finally {
+			RequestMetrics.stop(Phase.MAPPER, inicio);
+		}
+	}
+
+	public static Permission toEntity(PermissionVO vo) {
+		if (vo == null) {
+			return null;
+		}
+		Permission entity = new Permission();
+		entity.setId(vo.getKey());
+		entity.setDescription(vo.getDescription());
+		return entity;
+	}
+}
@@ -0,0 +1,44 @@
+package estoque.com.br.mapper;
+
+import estoque.com.br.data.vo.ProdutoVO;
+import estoque.com.br.metrics.RequestMetrics;
+import estoque.com.br.metrics.RequestMetrics.Phase;
+import estoque.com.br.model.Produto;
+
+public final class ProdutoMapper {
+
+	private ProdutoMapper() {}
+
+	public static ProdutoVO toVO(Produto entity) {
+		if (entity == null) {
+			return null;
+		}
+		long inicio = RequestMetrics.start(Phase.MAPPER);
+		try {
+			ProdutoVO vo = new ProdutoVO();
+			vo.setKey(entity.getId());
+			vo.setNomeProduto(entity.getNomeProduto());
+			vo.setTipoProduto(entity.getTipoProduto());
+			vo.setQuantidadeProduto(entity.getQuantidadeProduto());
+			vo.setValor(entity.getValor());
+			vo.setVersion(entity.getVersion());
+			return vo;
+		} finally {
+			RequestMetrics.stop(Phase.MAPPER, inicio);
+		}
+	}
+
+	public static Produto toEntity(ProdutoVO vo) {
+		if (vo == null) {
+			return null;
+		}
+		Produto entity = new Produto();
+		entity.setId(vo.getKey());
+		entity.setNomeProduto(vo.getNomeProduto());
+		entity.setTipoProduto(vo.getTipoProduto());
+		entity.setQuantidadeProduto(vo.getQuantidadeProduto());
+		entity.setValor(vo.getValor());
+		entity.setVersion(vo.getVersion());
+		return entity;
+	}
+}
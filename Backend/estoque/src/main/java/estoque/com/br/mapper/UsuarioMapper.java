@@ -0,0 +1,46 @@
+package estoque.com.br.mapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import estoque.com.br.data.vo.PermissionVO;
+import estoque.com.br.data.vo.UsuarioVO;
+import estoque.com.br.metrics.RequestMetrics;
+import estoque.com.br.metrics.RequestMetrics.Phase;
+import estoque.com.br.model.Permission;
+import estoque.com.br.model.Usuario;
+
+public final class UsuarioMapper {
+
+	private UsuarioMapper() {}
+
+	public static UsuarioVO toVO(Usuario entity) {
+		if (entity == null) {
+			return null;
+		}
+		long inicio = RequestMetrics.start(Phase.MAPPER);
+		try {
+			UsuarioVO vo = new UsuarioVO();
+			vo.setKey(entity.getId());
+			vo.setUserName(entity.getUserName());
+			vo.setFullName(entity.getFullName());
+			vo.setPassword(entity.getPassword());
+			vo.setAccountNonExpired(entity.getAccountNonExpired());
+			vo.setAccountNonLocked(entity.getAccountNonLocked());
+			vo.setCredentialsNonExpired(entity.getCredentialsNonExpired());
+			vo.setEnabled(entity.getEnabled());
+
+			// Sem permissoes o VO recebe lista vazia, como no conversor do ModelMapper
+			List<PermissionVO> permissions = new ArrayList<>();
+			if (entity.getPermissions() != null) {
+				for (Permission permission : entity.getPermissions()) {
+					permissions.add(PermissionMapper.toVO(permission));
+				}
+			}
+			vo.setPermissions(permissions);
+			return vo;
+		} finally {
+			RequestMetrics.stop(Phase.MAPPER, inicio);
+		}
+	}
+}
@@ -0,0 +1,207 @@
+package estoque.com.br.metrics;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Registro das metricas da aplicacao e exportacao no formato texto do
+ * Prometheus. Cada metrica e uma familia (nome, ajuda, tipo) com uma serie por
+ * combinacao de labels; as series sao criadas uma vez e guardadas por quem
+ * grava, entao o caminho quente nao passa por aqui.
+ *
+ * Histogramas saem como histogram do Prometheus, com faixas fixas para o
+ * histogram_quantile, e tambem com os quantis e o maximo calculados do
+ * histograma completo desde a subida.
+ */
+@Component
+public class MetricsRegistry {
+
+	private static final double[] SECONDS_BOUNDS = { 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5,
+			5, 10 };
+	private static final double[] COUNT_BOUNDS = { 1, 2, 5, 10, 20, 50, 100, 200, 500 };
+	private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+	private enum Type {
+
+		TIMER("histogram", 1e6, SECONDS_BOUNDS),
+		DISTRIBUTION("histogram", 1, COUNT_BOUNDS),
+		GAUGE("gauge", 1, null),
+		COUNTER("counter", 1, null);
+
+		final String prometheus;
+		final double divisor;
+		final double[] bounds;
+
+		Type(String prometheus, double divisor, double[] bounds) {
+			this.prometheus = prometheus;
+			this.divisor = divisor;
+			this.bounds = bounds;
+		}
+	}
+
+	private record Family(String name, String help, Type type, Map<String, Object> series) {}
+
+	private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+	/**
+	 * Histograma de tempos; grave com {@link LogLinearHistogram#recordNanos}.
+	 */
+	public LogLinearHistogram timer(String name, String help, String... labels) {
+		return (LogLinearHistogram) series(name, help, Type.TIMER, labels, LogLinearHistogram::new);
+	}
+
+	/**
+	 * Histograma de quantidades, como comandos SQL por requisicao.
+	 */
+	public LogLinearHistogram distribution(String name, String help, String... labels) {
+		return (LogLinearHistogram) series(name, help, Type.DISTRIBUTION, labels, LogLinearHistogram::new);
+	}
+
+	public LongAdder counter(String name, String help, String... labels) {
+		return (LongAdder) series(name, help, Type.COUNTER, labels, LongAdder::new);
+	}
+
+	/**
+	 * Contador lido de outra fonte (estatisticas de cache, por exemplo).
+	 */
+	public void counter(String name, String help, DoubleSupplier value, String... labels) {
+		series(name, help, Type.COUNTER, labels, () -> value);
+	}
+
+	public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+		series(name, help, Type.GAUGE, labels, () -> value);
+	}
+
+	/**
+	 * Familia de gauges cujas series so sao conhecidas na hora da leitura; o
+	 * mapa vai do valor do label ao valor da serie.
+	 */
+	public void gauges(String name, String help, String label, Supplier<Map<String, ? extends Number>> values) {
+		series(name, help, Type.GAUGE, new String[0], () -> new Dynamic(label, values));
+	}
+
+	public String scrape() {
+		var out = new StringWriter();
+		try {
+			write(out);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out.toString();
+	}
+
+	public void write(Writer out) throws IOException {
+		for (Family family : families.values()) {
+			if (family.type().bounds != null) {
+				// uma copia por serie, para buckets, quantis e maximo baterem entre si
+				var snapshots = new LinkedHashMap<String, LogLinearHistogram.Snapshot>();
+				family.series().forEach((labels, series) -> snapshots.put(labels, ((LogLinearHistogram) series).snapshot()));
+				writeHistogram(out, family, snapshots);
+				continue;
+			}
+			header(out, family.name(), family.help(), family.type().prometheus);
+			for (var entry : family.series().entrySet()) {
+				writeSeries(out, family, entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
+	private Object series(String name, String help, Type type, String[] labels, Supplier<Object> factory) {
+		var family = families.computeIfAbsent(name, key -> new Family(name, help, type, new ConcurrentSkipListMap<>()));
+		if (family.type() != type) {
+			throw new IllegalArgumentException("Metrica " + name + " ja registrada como " + family.type());
+		}
+		return family.series().computeIfAbsent(labels(labels), key -> factory.get());
+	}
+
+	private void writeSeries(Writer out, Family family, String labels, Object series) throws IOException {
+		if (series instanceof LongAdder counter) {
+			sample(out, family.name(), labels, counter.sum());
+		} else if (series instanceof DoubleSupplier value) {
+			sample(out, family.name(), labels, value.getAsDouble());
+		} else if (series instanceof Dynamic dynamic) {
+			for (var entry : new TreeMap<>(dynamic.values().get()).entrySet()) {
+				sample(out, family.name(), dynamic.label() + "=\"" + escape(entry.getKey()) + "\"",
+						entry.getValue().doubleValue());
+			}
+		}
+	}
+
+	// quantis e maximo saem em familias proprias, logo depois do histograma
+	private void writeHistogram(Writer out, Family family, Map<String, LogLinearHistogram.Snapshot> snapshots)
+			throws IOException {
+		String name = family.name();
+		double divisor = family.type().divisor;
+		header(out, name, family.help(), family.type().prometheus);
+		for (var entry : snapshots.entrySet()) {
+			var snapshot = entry.getValue();
+			for (double bound : family.type().bounds) {
+				sample(out, name + "_bucket", join(entry.getKey(), "le=\"" + bound + "\""),
+						snapshot.countAtOrBelow(Math.round(bound * divisor)));
+			}
+			sample(out, name + "_bucket", join(entry.getKey(), "le=\"+Inf\""), snapshot.count());
+			sample(out, name + "_sum", entry.getKey(), snapshot.sum() / divisor);
+			sample(out, name + "_count", entry.getKey(), snapshot.count());
+		}
+		header(out, name + "_quantile", family.help() + " (quantis desde a subida)", "gauge");
+		for (var entry : snapshots.entrySet()) {
+			for (double quantile : QUANTILES) {
+				sample(out, name + "_quantile", join(entry.getKey(), "quantile=\"" + quantile + "\""),
+						entry.getValue().percentile(quantile) / divisor);
+			}
+		}
+		header(out, name + "_max", family.help() + " (maximo desde a subida)", "gauge");
+		for (var entry : snapshots.entrySet()) {
+			sample(out, name + "_max", entry.getKey(), entry.getValue().max() / divisor);
+		}
+	}
+
+	private static void header(Writer out, String name, String help, String type) throws IOException {
+		out.write("# HELP " + name + " " + help.replace("\\", "\\\\").replace("\n", "\\n") + "\n");
+		out.write("# TYPE " + name + " " + type + "\n");
+	}
+
+	private static void sample(Writer out, String name, String labels, double value) throws IOException {
+		out.write(name);
+		if (!labels.isEmpty()) {
+			out.write("{" + labels + "}");
+		}
+		out.write(" ");
+		out.write(value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15
+				? Long.toString((long) value)
+				: Double.toString(value));
+		out.write("\n");
+	}
+
+	private static String labels(String[] pairs) {
+		if (pairs.length % 2 != 0) {
+			throw new IllegalArgumentException("Labels devem vir em pares nome, valor");
+		}
+		var labels = new StringBuilder();
+		for (int i = 0; i < pairs.length; i += 2) {
+			labels.append(i == 0 ? "" : ",").append(pairs[i]).append("=\"").append(escape(pairs[i + 1])).append('"');
+		}
+		return labels.toString();
+	}
+
+	private static String join(String labels, String label) {
+		return labels.isEmpty() ? label : labels + "," + label;
+	}
+
+	private static String escape(String value) {
+		return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+
+	private record Dynamic(String label, Supplier<Map<String, ? extends Number>> values) {}
+}
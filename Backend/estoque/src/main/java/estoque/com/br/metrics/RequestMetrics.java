@@ -0,0 +1,85 @@
+package estoque.com.br.metrics;
+
+/**
+ * Acumulador da requisicao corrente, preso a thread que a atende. O SQL, os
+ * mappers, os links e a serializacao somam aqui sem tocar em nada
+ * compartilhado, e o {@link RequestMetricsFilter} grava os totais uma vez no
+ * fim. Fora de uma requisicao (outbox, jobs) as chamadas nao fazem nada.
+ *
+ * Chamadas aninhadas da mesma fase (um mapper que chama outro) contam so a
+ * de fora.
+ */
+public final class RequestMetrics {
+
+	public enum Phase { MAPPER, LINKS }
+
+	private static final ThreadLocal<RequestMetrics> CURRENT = new ThreadLocal<>();
+
+	private int sqlStatements;
+	private long sqlNanos;
+	private final long[] phaseNanos = new long[Phase.values().length];
+	private final int[] depth = new int[Phase.values().length];
+	private long serializationStart;
+
+	private RequestMetrics() {}
+
+	static RequestMetrics begin() {
+		var metrics = new RequestMetrics();
+		CURRENT.set(metrics);
+		return metrics;
+	}
+
+	static void end() {
+		CURRENT.remove();
+	}
+
+	public static long start(Phase phase) {
+		var metrics = CURRENT.get();
+		if (metrics == null || metrics.depth[phase.ordinal()]++ > 0) {
+			return 0;
+		}
+		return System.nanoTime();
+	}
+
+	public static void stop(Phase phase, long start) {
+		var metrics = CURRENT.get();
+		if (metrics == null) {
+			return;
+		}
+		metrics.depth[phase.ordinal()]--;
+		if (start != 0) {
+			metrics.phaseNanos[phase.ordinal()] += System.nanoTime() - start;
+		}
+	}
+
+	static void statement(long nanos) {
+		var metrics = CURRENT.get();
+		if (metrics != null) {
+			metrics.sqlStatements++;
+			metrics.sqlNanos += nanos;
+		}
+	}
+
+	static void serializationStarted() {
+		var metrics = CURRENT.get();
+		if (metrics != null && metrics.serializationStart == 0) {
+			metrics.serializationStart = System.nanoTime();
+		}
+	}
+
+	int getSqlStatements() {
+		return sqlStatements;
+	}
+
+	long getSqlNanos() {
+		return sqlNanos;
+	}
+
+	long getPhaseNanos(Phase phase) {
+		return phaseNanos[phase.ordinal()];
+	}
+
+	long getSerializationStart() {
+		return serializationStart;
+	}
+}
@@ -0,0 +1,110 @@
+package estoque.com.br.metrics;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import estoque.com.br.metrics.RequestMetrics.Phase;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Mede cada requisicao do inicio ao fim, seguranca incluida, e grava por
+ * metodo de controller a latencia, o SQL, os mappers, os links e a
+ * serializacao acumulados em {@link RequestMetrics}. As series de cada metodo
+ * sao criadas na primeira requisicao e guardadas aqui, entao gravar custa
+ * alguns incrementos atomicos. O que nao chega a um controller (404, 401 da
+ * seguranca) vai para a serie {@code handler="NONE"}.
+ *
+ * Numa requisicao assincrona (exportacao) a medida termina quando o
+ * controller devolve o stream.
+ */
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+	private static final Object UNMAPPED = new Object();
+
+	private final MetricsRegistry registry;
+
+	private final Map<Object, HandlerMetrics> handlers = new ConcurrentHashMap<>();
+
+	public RequestMetricsFilter(MetricsRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+			@NonNull FilterChain chain) throws ServletException, IOException {
+		long start = System.nanoTime();
+		var metrics = RequestMetrics.begin();
+		boolean failed = true;
+		try {
+			chain.doFilter(request, response);
+			failed = false;
+		} finally {
+			RequestMetrics.end();
+			long end = System.nanoTime();
+			int status = failed ? 500 : response.getStatus();
+			handlerMetrics(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE))
+					.record(metrics, status, end - start, end);
+		}
+	}
+
+	private HandlerMetrics handlerMetrics(Object handler) {
+		if (handler instanceof HandlerMethod method) {
+			return handlers.computeIfAbsent(method.getMethod(), key -> new HandlerMetrics(registry,
+					method.getBeanType().getSimpleName() + "." + method.getMethod().getName()));
+		}
+		return handlers.computeIfAbsent(UNMAPPED, key -> new HandlerMetrics(registry, "NONE"));
+	}
+
+	private static class HandlerMetrics {
+
+		private final LogLinearHistogram latency;
+		private final LogLinearHistogram sqlStatements;
+		private final LogLinearHistogram sqlTime;
+		private final LogLinearHistogram mapperTime;
+		private final LogLinearHistogram linksTime;
+		private final LogLinearHistogram serializationTime;
+		private final LongAdder[] statuses = new LongAdder[5];
+
+		HandlerMetrics(MetricsRegistry registry, String handler) {
+			latency = registry.timer("estoque_http_request_seconds",
+					"Latencia das requisicoes por metodo de controller", "handler", handler);
+			sqlStatements = registry.distribution("estoque_http_request_sql_statements",
+					"Comandos SQL executados por requisicao", "handler", handler);
+			sqlTime = registry.timer("estoque_http_request_sql_seconds",
+					"Tempo em comandos SQL por requisicao", "handler", handler);
+			mapperTime = registry.timer("estoque_http_request_mapper_seconds",
+					"Tempo convertendo entidades em VOs por requisicao", "handler", handler);
+			linksTime = registry.timer("estoque_http_request_links_seconds",
+					"Tempo montando links HATEOAS por requisicao", "handler", handler);
+			serializationTime = registry.timer("estoque_http_request_serialization_seconds",
+					"Tempo serializando e escrevendo o corpo da resposta", "handler", handler);
+			for (int i = 0; i < statuses.length; i++) {
+				statuses[i] = registry.counter("estoque_http_requests_total",
+						"Requisicoes por metodo de controller e classe de status", "handler", handler,
+						"status", (i + 1) + "xx");
+			}
+		}
+
+		void record(RequestMetrics metrics, int status, long elapsed, long end) {
+			latency.recordNanos(elapsed);
+			sqlStatements.record(metrics.getSqlStatements());
+			sqlTime.recordNanos(metrics.getSqlNanos());
+			mapperTime.recordNanos(metrics.getPhaseNanos(Phase.MAPPER));
+			linksTime.recordNanos(metrics.getPhaseNanos(Phase.LINKS));
+			if (metrics.getSerializationStart() != 0) {
+				serializationTime.recordNanos(end - metrics.getSerializationStart());
+			}
+			statuses[Math.min(Math.max(status / 100, 1), 5) - 1].increment();
+		}
+	}
+}
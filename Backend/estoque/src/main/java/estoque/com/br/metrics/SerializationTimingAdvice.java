@@ -0,0 +1,33 @@
+package estoque.com.br.metrics;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marca o momento em que o corpo da resposta vai para o conversor (JSON, XML,
+ * YAML ou HAL). O {@link RequestMetricsFilter} conta dali ate o fim da
+ * requisicao como serializacao.
+ */
+@ControllerAdvice
+public class SerializationTimingAdvice implements ResponseBodyAdvice<Object> {
+
+	@Override
+	public boolean supports(@NonNull MethodParameter returnType,
+			@NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+
+	@Override
+	public Object beforeBodyWrite(Object body, @NonNull MethodParameter returnType,
+			@NonNull MediaType selectedContentType, @NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+			@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response) {
+		RequestMetrics.serializationStarted();
+		return body;
+	}
+}
@@ -0,0 +1,107 @@
+package estoque.com.br.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.NonNull;
+
+/**
+ * DataSource que mede a espera por conexao do pool e cada execucao de comando
+ * (execute*, inclusive lotes). Os tempos vao para histogramas globais e para
+ * o acumulador da requisicao corrente, que da a contagem e o tempo de SQL por
+ * requisicao. Conexoes e statements sao proxies do JDK; ResultSets nao passam
+ * pelo proxy, entao ler as linhas nao custa nada a mais.
+ *
+ * unwrap chega ao pool original, entao quem procura o HikariDataSource
+ * continua achando.
+ */
+public class SqlMetricsDataSource extends DelegatingDataSource {
+
+	private final LogLinearHistogram acquireTimes;
+
+	private final LogLinearHistogram statementTimes;
+
+	public SqlMetricsDataSource(DataSource target, LogLinearHistogram acquireTimes, LogLinearHistogram statementTimes) {
+		super(target);
+		this.acquireTimes = acquireTimes;
+		this.statementTimes = statementTimes;
+	}
+
+	@Override
+	@NonNull
+	public Connection getConnection() throws SQLException {
+		long start = System.nanoTime();
+		Connection connection = obtainTargetDataSource().getConnection();
+		acquireTimes.recordNanos(System.nanoTime() - start);
+		return wrap(connection);
+	}
+
+	@Override
+	@NonNull
+	public Connection getConnection(@NonNull String username, @NonNull String password) throws SQLException {
+		long start = System.nanoTime();
+		Connection connection = obtainTargetDataSource().getConnection(username, password);
+		acquireTimes.recordNanos(System.nanoTime() - start);
+		return wrap(connection);
+	}
+
+	private Connection wrap(Connection connection) {
+		return proxy(Connection.class, connection, (proxy, method, args) -> {
+			Object result = invoke(connection, method, args);
+			if (result instanceof CallableStatement statement) {
+				return statement(CallableStatement.class, statement);
+			}
+			if (result instanceof PreparedStatement statement) {
+				return statement(PreparedStatement.class, statement);
+			}
+			if (result instanceof Statement statement) {
+				return statement(Statement.class, statement);
+			}
+			return result;
+		});
+	}
+
+	private <S extends Statement> S statement(Class<S> type, S statement) {
+		return proxy(type, statement, (proxy, method, args) -> {
+			if (!method.getName().startsWith("execute")) {
+				return invoke(statement, method, args);
+			}
+			long start = System.nanoTime();
+			try {
+				return invoke(statement, method, args);
+			} finally {
+				long elapsed = System.nanoTime() - start;
+				statementTimes.recordNanos(elapsed);
+				RequestMetrics.statement(elapsed);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(SqlMetricsDataSource.class.getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> switch (method.getName()) {
+					case "equals" -> proxy == args[0];
+					case "hashCode" -> System.identityHashCode(proxy);
+					default -> handler.invoke(proxy, method, args);
+				});
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+}
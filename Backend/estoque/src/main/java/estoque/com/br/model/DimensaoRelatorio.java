@@ -0,0 +1,9 @@
+package estoque.com.br.model;
+
+/**
+ * Eixo de agregacao do resumo de vendas. A chave de cada linha e o id do
+ * cliente, do vendedor ou do produto, ou o tipo de produto em maiusculas.
+ */
+public enum DimensaoRelatorio {
+	CLIENTE, VENDEDOR, PRODUTO, TIPO_PRODUTO
+}
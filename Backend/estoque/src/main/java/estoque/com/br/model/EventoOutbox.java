@@ -0,0 +1,187 @@
+package estoque.com.br.model;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+
+/**
+ * Evento de dominio gravado na mesma transacao da alteracao que o gerou e
+ * entregue depois do commit pelo OutboxDispatcher. A ordem de entrega e a
+ * ordem do id dentro de cada agregado.
+ */
+@Entity
+@Table(name = "outbox_eventos")
+public class EventoOutbox implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "agregado_tipo", nullable = false, length = 30)
+	private String agregadoTipo;
+
+	@Column(name = "agregado_id", nullable = false)
+	private Long agregadoId;
+
+	@Column(name = "tipo", nullable = false, length = 40)
+	private String tipo;
+
+	@Column(name = "payload", length = 65535)
+	private String payload;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "status", nullable = false, length = 10)
+	private StatusEvento status;
+
+	@Column(name = "tentativas", nullable = false)
+	private Integer tentativas;
+
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name = "proxima_tentativa", nullable = false)
+	private Date proximaTentativa;
+
+	@Column(name = "ultimo_erro", length = 1000)
+	private String ultimoErro;
+
+	@CreationTimestamp
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name = "data_criacao", nullable = false)
+	private Date dataCriacao;
+
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name = "data_processamento")
+	private Date dataProcessamento;
+
+	public EventoOutbox() {}
+
+	public EventoOutbox(String agregadoTipo, Long agregadoId, String tipo, String payload) {
+		this.agregadoTipo = agregadoTipo;
+		this.agregadoId = agregadoId;
+		this.tipo = tipo;
+		this.payload = payload;
+		this.status = StatusEvento.PENDENTE;
+		this.tentativas = 0;
+		this.proximaTentativa = new Date();
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getAgregadoTipo() {
+		return agregadoTipo;
+	}
+
+	public void setAgregadoTipo(String agregadoTipo) {
+		this.agregadoTipo = agregadoTipo;
+	}
+
+	public Long getAgregadoId() {
+		return agregadoId;
+	}
+
+	public void setAgregadoId(Long agregadoId) {
+		this.agregadoId = agregadoId;
+	}
+
+	public String getTipo() {
+		return tipo;
+	}
+
+	public void setTipo(String tipo) {
+		this.tipo = tipo;
+	}
+
+	public String getPayload() {
+		return payload;
+	}
+
+	public void setPayload(String payload) {
+		this.payload = payload;
+	}
+
+	public StatusEvento getStatus() {
+		return status;
+	}
+
+	public void setStatus(StatusEvento status) {
+		this.status = status;
+	}
+
+	public Integer getTentativas() {
+		return tentativas;
+	}
+
+	public void setTentativas(Integer tentativas) {
+		this.tentativas = tentativas;
+	}
+
+	public Date getProximaTentativa() {
+		return proximaTentativa;
+	}
+
+	public void setProximaTentativa(Date proximaTentativa) {
+		this.proximaTentativa = proximaTentativa;
+	}
+
+	public String getUltimoErro() {
+		return ultimoErro;
+	}
+
+	public void setUltimoErro(String ultimoErro) {
+		this.ultimoErro = ultimoErro;
+	}
+
+	public Date getDataCriacao() {
+		return dataCriacao;
+	}
+
+	public void setDataCriacao(Date dataCriacao) {
+		this.dataCriacao = dataCriacao;
+	}
+
+	public Date getDataProcessamento() {
+		return dataProcessamento;
+	}
+
+	public void setDataProcessamento(Date dataProcessamento) {
+		this.dataProcessamento = dataProcessamento;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(agregadoId, agregadoTipo, id, tipo);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		EventoOutbox other = (EventoOutbox) obj;
+		return Objects.equals(agregadoId, other.agregadoId) && Objects.equals(agregadoTipo, other.agregadoTipo)
+				&& Objects.equals(id, other.id) && Objects.equals(tipo, other.tipo);
+	}
+}
@@ -12,6 +12,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 
 @Entity
 @Table(name = "itens_orcamento")
@@ -20,7 +21,9 @@ public class ItemOrcamento implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "item_orcamento_generator")
+    @TableGenerator(name = "item_orcamento_generator", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "itens_orcamento", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -34,8 +37,8 @@ public class ItemOrcamento implements Serializable {
     @Column(name = "quantidade")
     private BigDecimal quantidade;
 
-    @Column(name = "preco_unitario")
-    private Double precoUnitario;
+    @Column(name = "preco_unitario", precision = 10, scale = 2)
+    private BigDecimal precoUnitario;
 
 	public ItemOrcamento() {}
 
@@ -71,11 +74,11 @@ public class ItemOrcamento implements Serializable {
 		this.quantidade = quantidade;
 	}
 
-	public Double getPrecoUnitario() {
+	public BigDecimal getPrecoUnitario() {
 		return precoUnitario;
 	}
 
-	public void setPrecoUnitario(Double precoUnitario) {
+	public void setPrecoUnitario(BigDecimal precoUnitario) {
 		this.precoUnitario = precoUnitario;
 	}
 
@@ -0,0 +1,133 @@
+package estoque.com.br.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.Objects;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+
+/**
+ * Lancamento do razao de estoque. A quantidade tem sinal: negativa quando sai
+ * (reserva de orcamento aprovado) e positiva quando volta (estorno). Produto e
+ * orcamento ficam so como ids para o lancamento ser gravado sem carregar as
+ * entidades.
+ */
+@Entity
+@Table(name = "movimentacoes_estoque")
+public class MovimentacaoEstoque implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // IDENTITY e nao a tabela de ids: o gerador por tabela pede uma segunda
+    // conexao no meio da transacao, e com as baixas esperando lock de produto
+    // isso esgota o pool
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "produto_id", nullable = false)
+    private Long produtoId;
+
+    @Column(name = "orcamento_id")
+    private Long orcamentoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false, length = 10)
+    private TipoMovimentacao tipo;
+
+    @Column(name = "quantidade", nullable = false, precision = 10, scale = 3)
+    private BigDecimal quantidade;
+
+    @CreationTimestamp
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "data_movimentacao", nullable = false)
+    private Date dataMovimentacao;
+
+	public MovimentacaoEstoque() {}
+
+	public MovimentacaoEstoque(Long produtoId, Long orcamentoId, TipoMovimentacao tipo, BigDecimal quantidade) {
+		this.produtoId = produtoId;
+		this.orcamentoId = orcamentoId;
+		this.tipo = tipo;
+		this.quantidade = quantidade;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Long getProdutoId() {
+		return produtoId;
+	}
+
+	public void setProdutoId(Long produtoId) {
+		this.produtoId = produtoId;
+	}
+
+	public Long getOrcamentoId() {
+		return orcamentoId;
+	}
+
+	public void setOrcamentoId(Long orcamentoId) {
+		this.orcamentoId = orcamentoId;
+	}
+
+	public TipoMovimentacao getTipo() {
+		return tipo;
+	}
+
+	public void setTipo(TipoMovimentacao tipo) {
+		this.tipo = tipo;
+	}
+
+	public BigDecimal getQuantidade() {
+		return quantidade;
+	}
+
+	public void setQuantidade(BigDecimal quantidade) {
+		this.quantidade = quantidade;
+	}
+
+	public Date getDataMovimentacao() {
+		return dataMovimentacao;
+	}
+
+	public void setDataMovimentacao(Date dataMovimentacao) {
+		this.dataMovimentacao = dataMovimentacao;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(dataMovimentacao, id, orcamentoId, produtoId, quantidade, tipo);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		MovimentacaoEstoque other = (MovimentacaoEstoque) obj;
+		return Objects.equals(dataMovimentacao, other.dataMovimentacao) && Objects.equals(id, other.id)
+				&& Objects.equals(orcamentoId, other.orcamentoId) && Objects.equals(produtoId, other.produtoId)
+				&& Objects.equals(quantidade, other.quantidade) && tipo == other.tipo;
+	}
+}
@@ -1,6 +1,7 @@
 package estoque.com.br.model;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -19,6 +20,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
 
@@ -29,7 +31,9 @@ public class Orcamento implements Serializable{
 	private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "orcamento_generator")
+    @TableGenerator(name = "orcamento_generator", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "orcamentos", allocationSize = 50)
     private Long id;
 
     @CreationTimestamp
@@ -55,8 +59,13 @@ public class Orcamento implements Serializable{
     @OneToMany(mappedBy = "orcamento", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     private List<ItemOrcamento> itens = new ArrayList<>();
 
-    @Column(name = "total")
-    private Double total;
+    @Column(name = "total", precision = 10, scale = 2)
+    private BigDecimal total;
+
+    // Agregados mantidos pelo service junto com os itens, para listas e
+    // relatorios nao precisarem ler itens_orcamento
+    @Column(name = "quantidade_itens", nullable = false)
+    private Integer quantidadeItens = 0;
 
 	public Orcamento() {}
 
@@ -116,17 +125,25 @@ public class Orcamento implements Serializable{
 		this.itens = itens;
 	}
 
-	public Double getTotal() {
+	public BigDecimal getTotal() {
 		return total;
 	}
 
-	public void setTotal(Double total) {
+	public void setTotal(BigDecimal total) {
 		this.total = total;
 	}
 
+	public Integer getQuantidadeItens() {
+		return quantidadeItens;
+	}
+
+	public void setQuantidadeItens(Integer quantidadeItens) {
+		this.quantidadeItens = quantidadeItens;
+	}
+
 	@Override
 	public int hashCode() {
-		return Objects.hash(cliente, dataCriacao, dataValidade, id, itens, status, total, usuario);
+		return Objects.hash(cliente, dataCriacao, dataValidade, id, itens, quantidadeItens, status, total, usuario);
 	}
 
 	@Override
@@ -140,7 +157,8 @@ public class Orcamento implements Serializable{
 		Orcamento other = (Orcamento) obj;
 		return Objects.equals(cliente, other.cliente) && Objects.equals(dataCriacao, other.dataCriacao)
 				&& Objects.equals(dataValidade, other.dataValidade) && Objects.equals(id, other.id)
-				&& Objects.equals(itens, other.itens) && Objects.equals(status, other.status)
+				&& Objects.equals(itens, other.itens) && Objects.equals(quantidadeItens, other.quantidadeItens)
+				&& Objects.equals(status, other.status)
 				&& Objects.equals(total, other.total) && Objects.equals(usuario, other.usuario);
 	}
 }
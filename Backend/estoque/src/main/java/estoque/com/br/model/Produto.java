@@ -12,6 +12,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
 @Table(name = "produtos")
@@ -36,6 +37,13 @@ public class Produto implements Serializable{
 	@Column(name = "valor_produto", nullable = false, length = 10)
 	private Double valor;
 
+	// incrementada tambem pelas reservas de estoque (ProdutoRepository), entao
+	// um update com a quantidade lida antes de uma reserva falha em vez de
+	// sobrescrever a baixa
+	@Version
+	@Column(name = "version", nullable = false)
+	private Long version;
+
 	public Produto() {}
 
 	public Long getId() {
@@ -78,6 +86,14 @@ public class Produto implements Serializable{
 		this.valor = valor;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	@Override
 	public int hashCode() {
 		return Objects.hash(id, nomeProduto, quantidadeProduto, tipoProduto, valor);
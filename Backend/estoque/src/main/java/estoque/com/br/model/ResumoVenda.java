@@ -0,0 +1,131 @@
+package estoque.com.br.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+/**
+ * Linha do resumo diario de vendas: quantos orcamentos, quantas unidades e
+ * qual valor caem em cada dia, status e chave de uma dimensao. A tabela e
+ * mantida por diferencas pelo RelatorioVendasService e so e lida pelos
+ * endpoints de relatorio.
+ */
+@Entity
+@Table(name = "resumo_vendas")
+@IdClass(ResumoVendaId.class)
+public class ResumoVenda implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@Enumerated(EnumType.STRING)
+	@Column(name = "dimensao", length = 15)
+	private DimensaoRelatorio dimensao;
+
+	@Id
+	@Column(name = "dia")
+	private LocalDate dia;
+
+	@Id
+	@Column(name = "chave", length = 20)
+	private String chave;
+
+	@Id
+	@Column(name = "status", length = 20)
+	private String status;
+
+	@Column(name = "orcamentos", nullable = false)
+	private Integer orcamentos;
+
+	@Column(name = "quantidade", nullable = false, precision = 16, scale = 2)
+	private BigDecimal quantidade;
+
+	@Column(name = "valor", nullable = false, precision = 16, scale = 2)
+	private BigDecimal valor;
+
+	public ResumoVenda() {}
+
+	public DimensaoRelatorio getDimensao() {
+		return dimensao;
+	}
+
+	public void setDimensao(DimensaoRelatorio dimensao) {
+		this.dimensao = dimensao;
+	}
+
+	public LocalDate getDia() {
+		return dia;
+	}
+
+	public void setDia(LocalDate dia) {
+		this.dia = dia;
+	}
+
+	public String getChave() {
+		return chave;
+	}
+
+	public void setChave(String chave) {
+		this.chave = chave;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public Integer getOrcamentos() {
+		return orcamentos;
+	}
+
+	public void setOrcamentos(Integer orcamentos) {
+		this.orcamentos = orcamentos;
+	}
+
+	public BigDecimal getQuantidade() {
+		return quantidade;
+	}
+
+	public void setQuantidade(BigDecimal quantidade) {
+		this.quantidade = quantidade;
+	}
+
+	public BigDecimal getValor() {
+		return valor;
+	}
+
+	public void setValor(BigDecimal valor) {
+		this.valor = valor;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(chave, dia, dimensao, orcamentos, quantidade, status, valor);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ResumoVenda other = (ResumoVenda) obj;
+		return Objects.equals(chave, other.chave) && Objects.equals(dia, other.dia) && dimensao == other.dimensao
+				&& Objects.equals(orcamentos, other.orcamentos) && Objects.equals(quantidade, other.quantidade)
+				&& Objects.equals(status, other.status) && Objects.equals(valor, other.valor);
+	}
+}
@@ -0,0 +1,42 @@
+package estoque.com.br.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+public class ResumoVendaId implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private DimensaoRelatorio dimensao;
+	private LocalDate dia;
+	private String chave;
+	private String status;
+
+	public ResumoVendaId() {}
+
+	public ResumoVendaId(DimensaoRelatorio dimensao, LocalDate dia, String chave, String status) {
+		this.dimensao = dimensao;
+		this.dia = dia;
+		this.chave = chave;
+		this.status = status;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(chave, dia, dimensao, status);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ResumoVendaId other = (ResumoVendaId) obj;
+		return Objects.equals(chave, other.chave) && Objects.equals(dia, other.dia) && dimensao == other.dimensao
+				&& Objects.equals(status, other.status);
+	}
+}
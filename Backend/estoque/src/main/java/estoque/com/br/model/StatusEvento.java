@@ -0,0 +1,9 @@
+package estoque.com.br.model;
+
+/**
+ * PENDENTE inclui os eventos esperando nova tentativa; MORTO e o evento que
+ * esgotou as tentativas e so volta a fila pelo reprocessamento manual.
+ */
+public enum StatusEvento {
+	PENDENTE, PROCESSADO, MORTO
+}
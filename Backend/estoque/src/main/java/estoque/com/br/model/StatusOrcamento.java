@@ -0,0 +1,22 @@
+package estoque.com.br.model;
+
+import java.util.List;
+
+/**
+ * Status de orcamento com regra propria. Os demais continuam livres, como
+ * sempre foram; APROVADO e CANCELADO so sao alcancados pelos endpoints de
+ * aprovacao e cancelamento, que movimentam o estoque.
+ */
+public final class StatusOrcamento {
+
+	public static final String APROVADO = "APROVADO";
+	public static final String CANCELADO = "CANCELADO";
+
+	public static final List<String> FECHADOS = List.of(APROVADO, CANCELADO);
+
+	private StatusOrcamento() {}
+
+	public static boolean isFechado(String status) {
+		return APROVADO.equalsIgnoreCase(status) || CANCELADO.equalsIgnoreCase(status);
+	}
+}
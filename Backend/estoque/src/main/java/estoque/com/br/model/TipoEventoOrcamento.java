@@ -0,0 +1,20 @@
+package estoque.com.br.model;
+
+/**
+ * Eventos do ciclo de vida do orcamento publicados no outbox, com o agregado
+ * {@link #AGREGADO} e o id do orcamento.
+ */
+public enum TipoEventoOrcamento {
+	ORCAMENTO_CRIADO, ORCAMENTO_ALTERADO, ORCAMENTO_APROVADO, ORCAMENTO_CANCELADO, ORCAMENTO_EXCLUIDO;
+
+	public static final String AGREGADO = "ORCAMENTO";
+
+	public static boolean isEvento(String tipo) {
+		for (TipoEventoOrcamento evento : values()) {
+			if (evento.name().equals(tipo)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,5 @@
+package estoque.com.br.model;
+
+public enum TipoMovimentacao {
+	RESERVA, ESTORNO, AJUSTE
+}
@@ -50,6 +50,9 @@ public class Usuario  implements UserDetails, Serializable {
 	@Column(name = "enabled")
 	private Boolean enabled;
 
+	@Column(name = "tokens_revogados_ate")
+	private Long tokensRevogadosAte;
+
 	@ManyToMany(fetch = FetchType.EAGER)
 	@JoinTable(name = "user_permission", joinColumns = {@JoinColumn (name = "id_usuario")},
 		inverseJoinColumns = {@JoinColumn (name = "id_permission")}
@@ -157,6 +160,14 @@ public class Usuario  implements UserDetails, Serializable {
 		this.enabled = enabled;
 	}
 
+	public Long getTokensRevogadosAte() {
+		return tokensRevogadosAte;
+	}
+
+	public void setTokensRevogadosAte(Long tokensRevogadosAte) {
+		this.tokensRevogadosAte = tokensRevogadosAte;
+	}
+
 	public List<Permission> getPermissions() {
 		return permissions;
 	}
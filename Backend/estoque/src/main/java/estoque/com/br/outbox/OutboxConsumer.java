@@ -0,0 +1,19 @@
+package estoque.com.br.outbox;
+
+import estoque.com.br.model.EventoOutbox;
+
+/**
+ * Destino dos eventos do outbox. Os consumidores locais sao beans do Spring;
+ * um broker externo entra como mais uma implementacao que publica o evento.
+ *
+ * {@link #consumir} roda na transacao que marca o evento como processado:
+ * o que o consumidor grava no banco acontece uma vez so. Efeitos fora do banco
+ * podem se repetir quando outro consumidor do mesmo evento falha, e precisam
+ * ser idempotentes.
+ */
+public interface OutboxConsumer {
+
+	boolean aceita(String tipo);
+
+	void consumir(EventoOutbox evento);
+}
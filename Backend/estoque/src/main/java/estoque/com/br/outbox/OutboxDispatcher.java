@@ -0,0 +1,251 @@
+package estoque.com.br.outbox;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import estoque.com.br.model.EventoOutbox;
+import estoque.com.br.model.StatusEvento;
+import estoque.com.br.repositories.EventoOutboxRepository;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Entrega os eventos do outbox aos {@link OutboxConsumer}s. Um laco busca os
+ * eventos prontos em lotes e separa por agregado; cada agregado e entregue em
+ * ordem de id numa virtual thread, e agregados diferentes andam em paralelo,
+ * limitados por {@code concurrency} para nao tomar o pool de conexoes.
+ *
+ * Cada evento e entregue na sua transacao. Se um consumidor falha, o evento
+ * volta com espera exponencial e os seguintes do mesmo agregado esperam por
+ * ele; depois de {@code max-attempts} tentativas ele vira MORTO e sai do
+ * caminho. A ordem por agregado vale com um dispatcher por banco; nas demais
+ * instancias use {@code outbox.dispatcher.enabled=false}.
+ */
+@Component
+public class OutboxDispatcher {
+
+	private static final int TAMANHO_ERRO = 1000;
+
+	private static final Duration INTERVALO_LIMPEZA = Duration.ofHours(1);
+
+	private Logger logger = Logger.getLogger(OutboxDispatcher.class.getName());
+
+	@Autowired
+	private EventoOutboxRepository repository;
+
+	@Autowired
+	private List<OutboxConsumer> consumers;
+
+	private final TransactionTemplate transaction;
+
+	private final boolean enabled;
+	private final int batchSize;
+	private final Duration pollInterval;
+	private final int maxAttempts;
+	private final Duration initialBackoff;
+	private final Duration maxBackoff;
+	private final Duration retention;
+
+	private final Semaphore conexoes;
+
+	// liberado a cada commit com eventos; o laco espera nele entre os ciclos
+	private final Semaphore sinal = new Semaphore(0);
+
+	private volatile boolean running;
+	private Thread loop;
+	private long ultimaLimpeza;
+
+	public OutboxDispatcher(PlatformTransactionManager transactionManager,
+			@Value("${outbox.dispatcher.enabled:true}") boolean enabled,
+			@Value("${outbox.dispatcher.batch-size:100}") int batchSize,
+			@Value("${outbox.dispatcher.poll-interval:1s}") Duration pollInterval,
+			@Value("${outbox.dispatcher.concurrency:4}") int concurrency,
+			@Value("${outbox.dispatcher.max-attempts:10}") int maxAttempts,
+			@Value("${outbox.dispatcher.initial-backoff:1s}") Duration initialBackoff,
+			@Value("${outbox.dispatcher.max-backoff:10m}") Duration maxBackoff,
+			@Value("${outbox.dispatcher.retention:7d}") Duration retention) {
+		this.transaction = new TransactionTemplate(transactionManager);
+		this.enabled = enabled;
+		this.batchSize = batchSize;
+		this.pollInterval = pollInterval;
+		this.conexoes = new Semaphore(concurrency);
+		this.maxAttempts = maxAttempts;
+		this.initialBackoff = initialBackoff;
+		this.maxBackoff = maxBackoff;
+		this.retention = retention;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (!enabled) {
+			logger.info("Dispatcher do outbox desligado nesta instancia");
+			return;
+		}
+		running = true;
+		loop = Thread.ofVirtual().name("outbox-dispatcher").start(this::run);
+	}
+
+	public void acordar() {
+		if (sinal.availablePermits() == 0) {
+			sinal.release();
+		}
+	}
+
+	/**
+	 * Um ciclo: busca um lote de eventos prontos e entrega. Devolve quantos
+	 * eventos foram buscados.
+	 */
+	public int despachar() {
+		var eventos = repository.findProntos(new Date(), PageRequest.of(0, batchSize));
+		if (eventos.isEmpty()) {
+			return 0;
+		}
+
+		Map<String, List<EventoOutbox>> porAgregado = new LinkedHashMap<>();
+		for (EventoOutbox evento : eventos) {
+			porAgregado.computeIfAbsent(evento.getAgregadoTipo() + ":" + evento.getAgregadoId(), k -> new ArrayList<>())
+					.add(evento);
+		}
+
+		// o close espera todos os agregados do lote terminarem
+		try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (List<EventoOutbox> agregado : porAgregado.values()) {
+				executor.execute(() -> entregar(agregado));
+			}
+		}
+		return eventos.size();
+	}
+
+	private void run() {
+		while (running) {
+			try {
+				// lote cheio: ainda ha eventos na fila, segue sem esperar
+				if (despachar() < batchSize) {
+					sinal.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+					sinal.drainPermits();
+				}
+				limpar();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				logger.log(Level.WARNING, "Falha no ciclo do dispatcher do outbox", e);
+				esperar();
+			}
+		}
+	}
+
+	private void entregar(List<EventoOutbox> agregado) {
+		try {
+			conexoes.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+		try {
+			for (EventoOutbox evento : agregado) {
+				if (!entregar(evento)) {
+					// os seguintes ficam presos atras deste ate ele passar ou morrer
+					return;
+				}
+			}
+		} finally {
+			conexoes.release();
+		}
+	}
+
+	private boolean entregar(EventoOutbox evento) {
+		try {
+			transaction.executeWithoutResult(tx -> {
+				if (repository.marcarProcessado(evento.getId(), new Date()) == 0) {
+					// ja entregue por outro dispatcher
+					return;
+				}
+				for (OutboxConsumer consumer : consumers) {
+					if (consumer.aceita(evento.getTipo())) {
+						consumer.consumir(evento);
+					}
+				}
+			});
+			return true;
+		} catch (RuntimeException e) {
+			falhou(evento, e);
+			return false;
+		}
+	}
+
+	private void falhou(EventoOutbox evento, RuntimeException e) {
+		int tentativas = evento.getTentativas() + 1;
+		var status = tentativas >= maxAttempts ? StatusEvento.MORTO : StatusEvento.PENDENTE;
+		var proxima = new Date(System.currentTimeMillis() + backoff(tentativas).toMillis());
+		var erro = String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+		if (erro.length() > TAMANHO_ERRO) {
+			erro = erro.substring(0, TAMANHO_ERRO);
+		}
+
+		logger.log(status == StatusEvento.MORTO ? Level.SEVERE : Level.WARNING, "Evento " + evento.getId() + " ("
+				+ evento.getTipo() + ") falhou na tentativa " + tentativas + (status == StatusEvento.MORTO
+						? " e foi para a fila de mortos" : ", nova tentativa em " + proxima), e);
+		var mensagem = erro;
+		try {
+			transaction.executeWithoutResult(tx -> repository.registrarFalha(evento.getId(), status, tentativas, proxima, mensagem));
+		} catch (RuntimeException falha) {
+			// o evento continua pendente e sera tentado de novo no proximo ciclo
+			logger.log(Level.WARNING, "Falha ao registrar o erro do evento " + evento.getId(), falha);
+		}
+	}
+
+	private Duration backoff(int tentativas) {
+		long fator = 1L << Math.min(tentativas - 1, 20);
+		var espera = initialBackoff.multipliedBy(fator);
+		return espera.compareTo(maxBackoff) > 0 ? maxBackoff : espera;
+	}
+
+	private void limpar() {
+		long agora = System.currentTimeMillis();
+		if (agora - ultimaLimpeza < INTERVALO_LIMPEZA.toMillis()) {
+			return;
+		}
+		ultimaLimpeza = agora;
+		var limite = new Date(agora - retention.toMillis());
+		Integer removidos = transaction.execute(tx -> repository.deleteProcessadosAntesDe(limite));
+		if (removidos != null && removidos > 0) {
+			logger.info("Removidos " + removidos + " eventos processados do outbox");
+		}
+	}
+
+	private void esperar() {
+		try {
+			Thread.sleep(pollInterval.toMillis());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			running = false;
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		running = false;
+		if (loop != null) {
+			loop.interrupt();
+		}
+	}
+}
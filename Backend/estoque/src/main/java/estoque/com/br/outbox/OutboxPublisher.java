@@ -0,0 +1,49 @@
+package estoque.com.br.outbox;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import estoque.com.br.model.EventoOutbox;
+import estoque.com.br.repositories.EventoOutboxRepository;
+
+/**
+ * Grava eventos no outbox dentro da transacao corrente: o evento existe se e
+ * somente se a alteracao fez commit. Depois do commit o dispatcher e acordado
+ * para nao esperar o proximo ciclo.
+ */
+@Component
+public class OutboxPublisher {
+
+	@Autowired
+	private EventoOutboxRepository repository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Lazy
+	@Autowired
+	private OutboxDispatcher dispatcher;
+
+	public void publicar(String agregadoTipo, Long agregadoId, String tipo, Object payload) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			throw new IllegalStateException("Evento publicado fora de transacao: " + tipo);
+		}
+		try {
+			repository.save(new EventoOutbox(agregadoTipo, agregadoId, tipo, objectMapper.writeValueAsString(payload)));
+		} catch (JsonProcessingException e) {
+			throw new IllegalArgumentException("Payload invalido para o evento " + tipo, e);
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				dispatcher.acordar();
+			}
+		});
+	}
+}
@@ -1,16 +1,32 @@
 package estoque.com.br.repositories;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import estoque.com.br.model.Cliente;
 
-public interface ClienteRepository extends JpaRepository<Cliente, Long> {
+public interface ClienteRepository extends JpaRepository<Cliente, Long>, JpaSpecificationExecutor<Cliente> {
 
 	@Query("SELECT c FROM Cliente c WHERE c.razaoSocial LIKE LOWER(CONCAT ('%',:razaoSocial,'%'))")
 	Page<Cliente> findClientesByName(@Param("razaoSocial") String razaoSocial, Pageable pageable);
 
+	@Query("SELECT c.id, c.razaoSocial, c.cnpj FROM Cliente c")
+	Stream<Object[]> streamSugestoes();
+
+	@Query("SELECT c.id FROM Cliente c WHERE c.id IN :ids")
+	List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+	// sem passar pelo cascade de Cliente.orcamentos, que carregaria a colecao
+	@Modifying
+	@Query("DELETE FROM Cliente c WHERE c.id = :id")
+	int deleteClienteById(@Param("id") Long id);
 }
@@ -0,0 +1,56 @@
+package estoque.com.br.repositories;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import estoque.com.br.model.EventoOutbox;
+import estoque.com.br.model.StatusEvento;
+
+@Repository
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+
+	// evento de um agregado com outro anterior esperando nova tentativa fica
+	// para depois, senao passaria na frente dele
+	@Query("SELECT e FROM EventoOutbox e WHERE e.status = estoque.com.br.model.StatusEvento.PENDENTE"
+			+ " AND e.proximaTentativa <= :agora AND NOT EXISTS (SELECT b.id FROM EventoOutbox b"
+			+ " WHERE b.agregadoTipo = e.agregadoTipo AND b.agregadoId = e.agregadoId"
+			+ " AND b.status = estoque.com.br.model.StatusEvento.PENDENTE AND b.id < e.id AND b.proximaTentativa > :agora)"
+			+ " ORDER BY e.id")
+	List<EventoOutbox> findProntos(@Param("agora") Date agora, Pageable pageable);
+
+	/**
+	 * Marca o evento como processado se ainda estiver pendente. O UPDATE trava
+	 * a linha, entao outro dispatcher com o mesmo evento espera e recebe zero.
+	 */
+	@Modifying
+	@Query("UPDATE EventoOutbox e SET e.status = estoque.com.br.model.StatusEvento.PROCESSADO, e.dataProcessamento = :agora"
+			+ " WHERE e.id = :id AND e.status = estoque.com.br.model.StatusEvento.PENDENTE")
+	int marcarProcessado(@Param("id") Long id, @Param("agora") Date agora);
+
+	@Modifying
+	@Query("UPDATE EventoOutbox e SET e.status = :status, e.tentativas = :tentativas, e.proximaTentativa = :proxima,"
+			+ " e.ultimoErro = :erro WHERE e.id = :id")
+	int registrarFalha(@Param("id") Long id, @Param("status") StatusEvento status, @Param("tentativas") int tentativas,
+			@Param("proxima") Date proxima, @Param("erro") String erro);
+
+	@Modifying
+	@Query("UPDATE EventoOutbox e SET e.status = estoque.com.br.model.StatusEvento.PENDENTE, e.tentativas = 0,"
+			+ " e.proximaTentativa = :agora WHERE e.id = :id AND e.status = estoque.com.br.model.StatusEvento.MORTO")
+	int reprocessar(@Param("id") Long id, @Param("agora") Date agora);
+
+	List<EventoOutbox> findByStatusOrderByIdDesc(StatusEvento status, Pageable pageable);
+
+	long countByStatus(StatusEvento status);
+
+	@Modifying
+	@Query("DELETE FROM EventoOutbox e WHERE e.status = estoque.com.br.model.StatusEvento.PROCESSADO"
+			+ " AND e.dataProcessamento < :limite")
+	int deleteProcessadosAntesDe(@Param("limite") Date limite);
+}
@@ -1,11 +1,30 @@
 package estoque.com.br.repositories;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import estoque.com.br.model.ItemOrcamento;
 
 @Repository
 public interface ItemOrcamentoRepository extends JpaRepository<ItemOrcamento, Long> {
-	
-}
\ No newline at end of file
+
+	@Modifying
+	@Query("DELETE FROM ItemOrcamento i WHERE i.orcamento.id IN (SELECT o.id FROM Orcamento o WHERE o.cliente.id = :clienteId)")
+	int deleteByClienteId(@Param("clienteId") Long clienteId);
+
+	// quantidade por produto, na ordem de id: as baixas de estoque sempre
+	// travam as linhas de produto na mesma ordem e nao entram em deadlock
+	@Query("SELECT i.produto.id, SUM(i.quantidade) FROM ItemOrcamento i WHERE i.orcamento.id = :orcamentoId"
+			+ " AND i.produto IS NOT NULL GROUP BY i.produto.id ORDER BY i.produto.id")
+	List<Object[]> sumQuantidadeByProduto(@Param("orcamentoId") Long orcamentoId);
+
+	@Modifying
+	@Query("DELETE FROM ItemOrcamento i WHERE i.orcamento.id IN :orcamentoIds")
+	int deleteByOrcamentoIds(@Param("orcamentoIds") Collection<Long> orcamentoIds);
+}
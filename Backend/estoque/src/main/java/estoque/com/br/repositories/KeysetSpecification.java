@@ -0,0 +1,66 @@
+package estoque.com.br.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import estoque.com.br.exceptions.InvalidCursorException;
+import estoque.com.br.util.KeysetCursor;
+
+/**
+ * Paginacao por cursor (seek) sobre (chave de ordenacao, id), sem OFFSET e sem
+ * COUNT. A comparacao segue a ordenacao padrao do MySQL para NULL: primeiro no
+ * ASC e por ultimo no DESC, para nao precisar de NULLS FIRST/LAST no ORDER BY.
+ */
+public final class KeysetSpecification {
+
+	private static final String ID = "id";
+
+	private KeysetSpecification() {}
+
+	public static <T> List<T> fetch(JpaSpecificationExecutor<T> repository, String sortAttribute,
+			KeysetCursor after, Direction direction, int limit) {
+		if (limit < 2) {
+			throw new InvalidCursorException("Size must be greater than zero!");
+		}
+		return repository.findBy(after(sortAttribute, after, direction),
+				query -> query.sortBy(sort(sortAttribute, direction)).limit(limit).all());
+	}
+
+	public static Sort sort(String sortAttribute, Direction direction) {
+		return Sort.by(direction, sortAttribute).and(Sort.by(direction, ID));
+	}
+
+	public static <T> Specification<T> after(String sortAttribute, KeysetCursor cursor, Direction direction) {
+		return (root, query, cb) -> {
+			if (cursor == null) {
+				return cb.conjunction();
+			}
+			var key = root.<String>get(sortAttribute);
+			var id = root.<Long>get(ID);
+			var value = cursor.getSortValue();
+			var lastId = cursor.getId();
+
+			if (direction.isAscending()) {
+				if (value == null) {
+					return cb.or(
+							cb.and(cb.isNull(key), cb.greaterThan(id, lastId)),
+							cb.isNotNull(key));
+				}
+				return cb.or(
+						cb.greaterThan(key, value),
+						cb.and(cb.equal(key, value), cb.greaterThan(id, lastId)));
+			}
+			if (value == null) {
+				return cb.and(cb.isNull(key), cb.lessThan(id, lastId));
+			}
+			return cb.or(
+					cb.lessThan(key, value),
+					cb.and(cb.equal(key, value), cb.lessThan(id, lastId)),
+					cb.isNull(key));
+		};
+	}
+}
@@ -1,23 +1,63 @@
 package estoque.com.br.repositories;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import estoque.com.br.model.Orcamento;
-import jakarta.transaction.Transactional;
 
-public interface OrcamentoRepository extends JpaRepository<Orcamento, Long> {
+public interface OrcamentoRepository extends JpaRepository<Orcamento, Long>, JpaSpecificationExecutor<Orcamento> {
 
 	@Query("SELECT o FROM Orcamento o WHERE o.id =:id")
 	Page<Orcamento> findOrcamentosById(@Param("id") Long id, Pageable pageable);
 	
-	@Query("SELECT o FROM Orcamento o LEFT JOIN FETCH o.itens WHERE o.id =:id")
+	@Query("SELECT o FROM Orcamento o LEFT JOIN FETCH o.itens i LEFT JOIN FETCH i.produto WHERE o.id =:id")
 	Orcamento findByIdWithItens(@Param("id") Long id);
+
+	// Primeira fase da listagem: so os ids da pagina, com a ordenacao do Pageable
+	@Query(value = "SELECT o.id FROM Orcamento o", countQuery = "SELECT COUNT(o) FROM Orcamento o")
+	Page<Long> findPageIds(Pageable pageable);
+
+	// Segunda fase: os orcamentos da pagina com cliente, vendedor e itens numa
+	// consulta so. A ordem nao e garantida, quem chama reordena pelos ids.
+	@EntityGraph(attributePaths = {"cliente", "usuario", "itens", "itens.produto"})
+	@Query("SELECT DISTINCT o FROM Orcamento o WHERE o.id IN :ids")
+	List<Orcamento> findAllWithItensByIdIn(@Param("ids") Collection<Long> ids);
 	
-	@Transactional
-	void deleteByClienteId(Long clienteId);
+	// DELETE direto no banco, sem carregar os orcamentos; os itens precisam ser
+	// removidos antes (ItemOrcamentoRepository.deleteByClienteId)
+	@Modifying
+	@Query("DELETE FROM Orcamento o WHERE o.cliente.id = :clienteId")
+	int deleteByClienteId(@Param("clienteId") Long clienteId);
+
+	@Modifying
+	@Query("DELETE FROM Orcamento o WHERE o.id IN :ids")
+	int deleteByIds(@Param("ids") Collection<Long> ids);
+
+	@Query("SELECT o.id FROM Orcamento o WHERE o.cliente.id = :clienteId ORDER BY o.id")
+	List<Long> findIdsByClienteId(@Param("clienteId") Long clienteId, Pageable pageable);
+
+	// Trocas de status condicionais: o UPDATE so acontece se o status atual
+	// ainda for o esperado, e a linha fica travada ate o fim da transacao
+	@Modifying
+	@Query("UPDATE Orcamento o SET o.status = :status WHERE o.id = :id"
+			+ " AND (o.status IS NULL OR o.status NOT IN :bloqueados)")
+	int updateStatusUnlessIn(@Param("id") Long id, @Param("status") String status,
+			@Param("bloqueados") Collection<String> bloqueados);
+
+	@Modifying
+	@Query("UPDATE Orcamento o SET o.status = :status WHERE o.id = :id AND o.status = :esperado")
+	int updateStatusIfEquals(@Param("id") Long id, @Param("status") String status, @Param("esperado") String esperado);
+
+	@Query("SELECT COUNT(o) FROM Orcamento o WHERE o.cliente.id = :clienteId")
+	long countByClienteId(@Param("clienteId") Long clienteId);
 
 }
@@ -1,16 +1,32 @@
 package estoque.com.br.repositories;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import java.math.BigDecimal;
+import java.util.stream.Stream;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import estoque.com.br.model.Produto;
 
-public interface ProdutoRepository extends JpaRepository<Produto, Long> {
+public interface ProdutoRepository extends JpaRepository<Produto, Long>, JpaSpecificationExecutor<Produto> {
+
+	@Query("SELECT p.id, p.nomeProduto FROM Produto p")
+	Stream<Object[]> streamNomes();
+
+	// Baixa condicional: a conferencia do saldo e a baixa sao o mesmo UPDATE,
+	// entao duas reservas concorrentes nunca leem o mesmo saldo. Devolve 0
+	// quando nao ha estoque suficiente.
+	@Modifying
+	@Query("UPDATE Produto p SET p.quantidadeProduto = p.quantidadeProduto - :quantidade, p.version = p.version + 1"
+			+ " WHERE p.id = :id AND p.quantidadeProduto >= :quantidade")
+	int baixarEstoque(@Param("id") Long id, @Param("quantidade") BigDecimal quantidade);
 
-	@Query("SELECT p FROM Produto p WHERE p.nomeProduto LIKE LOWER(CONCAT ('%',:nomeProduto,'%'))")
-	Page<Produto> findProdutosByName(@Param("nomeProduto") String nomeProduto, Pageable pageable);
+	@Modifying
+	@Query("UPDATE Produto p SET p.quantidadeProduto = p.quantidadeProduto + :quantidade, p.version = p.version + 1"
+			+ " WHERE p.id = :id")
+	int devolverEstoque(@Param("id") Long id, @Param("quantidade") BigDecimal quantidade);
 
 }
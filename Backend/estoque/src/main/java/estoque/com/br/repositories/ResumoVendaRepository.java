@@ -0,0 +1,80 @@
+package estoque.com.br.repositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import estoque.com.br.model.DimensaoRelatorio;
+import estoque.com.br.model.ResumoVenda;
+import estoque.com.br.model.ResumoVendaId;
+import estoque.com.br.model.TipoEventoOrcamento;
+
+@Repository
+public interface ResumoVendaRepository extends JpaRepository<ResumoVenda, ResumoVendaId> {
+
+	String LINHAS = "SELECT o.id, CAST(o.data_criacao AS DATE), o.status, o.cliente_id, o.usuario_id,"
+			+ " i.produto_id, p.tipo_produto, i.quantidade, i.preco_unitario"
+			+ " FROM orcamentos o"
+			+ " LEFT JOIN itens_orcamento i ON i.orcamento_id = o.id"
+			+ " LEFT JOIN produtos p ON p.id = i.produto_id";
+
+	// linhas zeradas ficam na tabela depois de exclusoes e nao sao devolvidas
+	@Query("SELECT r FROM ResumoVenda r WHERE r.dimensao = :dimensao AND r.dia BETWEEN :de AND :ate"
+			+ " AND (:chave IS NULL OR r.chave = :chave) AND (:status IS NULL OR r.status = :status)"
+			+ " AND r.orcamentos > 0 ORDER BY r.dia, r.chave, r.status")
+	List<ResumoVenda> findResumo(@Param("dimensao") DimensaoRelatorio dimensao, @Param("de") LocalDate de,
+			@Param("ate") LocalDate ate, @Param("chave") String chave, @Param("status") String status);
+
+	/**
+	 * Soma a diferenca na linha, criando a linha se ainda nao existir.
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO resumo_vendas (dimensao, dia, chave, status, orcamentos, quantidade, valor)"
+			+ " VALUES (:dimensao, :dia, :chave, :status, :orcamentos, :quantidade, :valor)"
+			+ " ON DUPLICATE KEY UPDATE orcamentos = orcamentos + :orcamentos,"
+			+ " quantidade = quantidade + :quantidade, valor = valor + :valor", nativeQuery = true)
+	int somar(@Param("dimensao") String dimensao, @Param("dia") LocalDate dia, @Param("chave") String chave,
+			@Param("status") String status, @Param("orcamentos") int orcamentos,
+			@Param("quantidade") BigDecimal quantidade, @Param("valor") BigDecimal valor);
+
+	@Modifying
+	@Query("DELETE FROM ResumoVenda r WHERE r.dia = :dia")
+	int deleteByDia(@Param("dia") LocalDate dia);
+
+	// trava os orcamentos para o retrato de antes valer ate o commit
+	@Query(value = "SELECT o.id FROM orcamentos o WHERE o.id IN (:ids) FOR UPDATE", nativeQuery = true)
+	List<Long> lockOrcamentos(@Param("ids") Collection<Long> ids);
+
+	@Query(value = LINHAS + " WHERE o.id IN (:ids)", nativeQuery = true)
+	List<Object[]> findLinhas(@Param("ids") Collection<Long> ids);
+
+	// trava os orcamentos do periodo (e o intervalo no indice, contra novos)
+	// durante a reconstrucao de um dia; alteracoes esperam o commit
+	@Query(value = "SELECT o.id FROM orcamentos o WHERE o.data_criacao >= :inicio AND o.data_criacao < :fim FOR UPDATE",
+			nativeQuery = true)
+	List<Long> lockOrcamentosByPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+	// eventos ja gravados e ainda nao somados ao resumo, de orcamentos do periodo
+	@Query(value = "SELECT COUNT(*) FROM outbox_eventos e JOIN orcamentos o ON o.id = e.agregado_id"
+			+ " WHERE e.agregado_tipo = '" + TipoEventoOrcamento.AGREGADO + "' AND e.status = 'PENDENTE'"
+			+ " AND o.data_criacao >= :inicio AND o.data_criacao < :fim", nativeQuery = true)
+	long countEventosPendentesByPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+	@Query(value = LINHAS + " WHERE o.data_criacao >= :inicio AND o.data_criacao < :fim", nativeQuery = true)
+	List<Object[]> findLinhasByPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+	@Query(value = "SELECT o.id FROM orcamentos o WHERE o.cliente_id = :clienteId", nativeQuery = true)
+	List<Long> findOrcamentoIdsByClienteId(@Param("clienteId") Long clienteId);
+
+	@Query(value = "SELECT DISTINCT i.orcamento_id FROM itens_orcamento i"
+			+ " WHERE i.produto_id = :produtoId AND i.orcamento_id IS NOT NULL", nativeQuery = true)
+	List<Long> findOrcamentoIdsByProdutoId(@Param("produtoId") Long produtoId);
+}
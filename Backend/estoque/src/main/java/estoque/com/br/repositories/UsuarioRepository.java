@@ -1,8 +1,12 @@
 package estoque.com.br.repositories;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -10,11 +14,19 @@ import org.springframework.stereotype.Repository;
 import estoque.com.br.model.Usuario;
 
 @Repository
-public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+public interface UsuarioRepository extends JpaRepository<Usuario, Long>, JpaSpecificationExecutor<Usuario> {
 
 	@Query("SELECT u FROM Usuario u WHERE u.userName LIKE LOWER(CONCAT ('%',:userName,'%'))")
 	Page<Usuario> findByUserName(@Param("userName") String userName, Pageable pageable);
 	
-	@Query("SELECT u FROM Usuario u WHERE u.userName LIKE LOWER(CONCAT ('%',:userName,'%'))")
+	// Busca exata usada na autenticacao, atendida pelo indice uk_user_name
+	@Query("SELECT DISTINCT u FROM Usuario u LEFT JOIN FETCH u.permissions WHERE u.userName = :userName")
 	Usuario findByUsername(@Param("userName") String userName);
-}
\ No newline at end of file
+
+	// null quando o usuario nao existe mais (excluido ou renomeado)
+	@Query("SELECT COALESCE(u.tokensRevogadosAte, 0) FROM Usuario u WHERE u.userName = :userName")
+	Long findTokensRevogadosAte(@Param("userName") String userName);
+
+	@Query("SELECT u.id FROM Usuario u WHERE u.id IN :ids")
+	List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,165 @@
+package estoque.com.br.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import estoque.com.br.data.vo.ClienteSuggestionVO;
+import estoque.com.br.model.Cliente;
+import estoque.com.br.repositories.ClienteRepository;
+
+/**
+ * Autocomplete de clientes por prefixo da razao social ou do CNPJ, servido da
+ * memoria. As chaves {@code categoria + termo} ficam numa {@link RadixTrie}
+ * com os ids dos clientes, entao uma busca por prefixo desce ate o no do
+ * prefixo e percorre a subarvore ate juntar k clientes. As categorias definem
+ * a ordem: nome que comeca com o texto, depois palavra do nome, depois CNPJ.
+ *
+ * Carregado do banco quando a aplicacao sobe e mantido pelo ClienteService.
+ * Cada instancia tem o seu.
+ */
+@Component
+public class ClienteSuggestIndex {
+
+	private static final char NAME = '0';
+	private static final char WORD = '1';
+	private static final char CNPJ = '2';
+
+	private Logger logger = Logger.getLogger(ClienteSuggestIndex.class.getName());
+
+	// o rebuild monta uma arvore nova e so entao troca, as buscas nao veem o
+	// indice pela metade
+	private volatile RadixTrie keys = new RadixTrie();
+	private volatile Map<Long, ClienteSuggestionVO> entries = new ConcurrentHashMap<>();
+
+	// lock e nao synchronized: o rebuild segura o lock enquanto le do banco, e
+	// uma thread virtual esperando um monitor prende a thread carregadora
+	private final ReentrantLock lock = new ReentrantLock();
+
+	@Autowired
+	private ClienteRepository repository;
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional(readOnly = true)
+	public void rebuild() {
+		logger.info("Montando o indice de sugestao de clientes");
+
+		lock.lock();
+		try {
+			var newKeys = new RadixTrie();
+			var newEntries = new ConcurrentHashMap<Long, ClienteSuggestionVO>();
+			try (var sugestoes = repository.streamSugestoes()) {
+				sugestoes.forEach(row -> {
+					var entry = new ClienteSuggestionVO((Long) row[0], (String) row[1], (String) row[2]);
+					newEntries.put(entry.getId(), entry);
+					keysOf(entry).forEach(key -> newKeys.put(key, entry.getId()));
+				});
+			}
+			entries = newEntries;
+			keys = newKeys;
+		} finally {
+			lock.unlock();
+		}
+
+		logger.info("Indice de sugestao de clientes com " + entries.size() + " clientes");
+	}
+
+	public void index(Cliente cliente) {
+		put(new ClienteSuggestionVO(cliente.getId(), cliente.getRazaoSocial(), cliente.getCnpj()));
+	}
+
+	public void remove(Long id) {
+		lock.lock();
+		try {
+			var old = entries.remove(id);
+			if (old != null) {
+				keysOf(old).forEach(key -> keys.remove(key, id));
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public List<ClienteSuggestionVO> suggest(String query, int limit) {
+		Map<Long, ClienteSuggestionVO> found = new LinkedHashMap<>();
+		String normalized = TextNormalizer.normalize(query);
+		if (!normalized.isEmpty()) {
+			collect(NAME + normalized, limit, found);
+			collect(WORD + normalized, limit, found);
+		}
+		String digits = digits(query);
+		if (!digits.isEmpty()) {
+			collect(CNPJ + digits, limit, found);
+		}
+		return new ArrayList<>(found.values());
+	}
+
+	private void put(ClienteSuggestionVO entry) {
+		lock.lock();
+		try {
+			var old = entries.put(entry.getId(), entry);
+			if (old != null) {
+				keysOf(old).forEach(key -> keys.remove(key, entry.getId()));
+			}
+			keysOf(entry).forEach(key -> keys.put(key, entry.getId()));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void collect(String prefix, int limit, Map<Long, ClienteSuggestionVO> found) {
+		var current = entries;
+		keys.visit(prefix, id -> {
+			if (found.size() >= limit) {
+				return false;
+			}
+			var entry = current.get(id);
+			if (entry != null) {
+				found.putIfAbsent(id, entry);
+			}
+			return true;
+		});
+	}
+
+	private static List<String> keysOf(ClienteSuggestionVO entry) {
+		List<String> keys = new ArrayList<>();
+		String name = TextNormalizer.normalize(entry.getRazaoSocial());
+		if (!name.isEmpty()) {
+			keys.add(NAME + name);
+			// cada palavra depois da primeira vira o inicio de uma chave, para
+			// "joao" e "sao jo" acharem "Padaria Sao Joao"
+			for (int i = name.indexOf(' '); i >= 0; i = name.indexOf(' ', i + 1)) {
+				keys.add(WORD + name.substring(i + 1));
+			}
+		}
+		String cnpj = digits(entry.getCnpj());
+		if (!cnpj.isEmpty()) {
+			keys.add(CNPJ + cnpj);
+		}
+		return keys;
+	}
+
+	private static String digits(String text) {
+		if (text == null) {
+			return "";
+		}
+		StringBuilder digits = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c >= '0' && c <= '9') {
+				digits.append(c);
+			}
+		}
+		return digits.toString();
+	}
+}
@@ -0,0 +1,88 @@
+package estoque.com.br.search;
+
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import estoque.com.br.exceptions.InvalidPageException;
+import estoque.com.br.model.Produto;
+import estoque.com.br.repositories.ProdutoRepository;
+import estoque.com.br.search.TrigramIndex.SearchResult;
+
+/**
+ * Indice de busca dos nomes de produto. E carregado do banco quando a
+ * aplicacao sobe e depois mantido pelo ProdutoService a cada create, update e
+ * delete. Cada instancia tem o seu, entao alteracoes feitas por outra
+ * instancia so aparecem depois de um restart.
+ */
+@Component
+public class ProdutoSearchIndex {
+
+	private Logger logger = Logger.getLogger(ProdutoSearchIndex.class.getName());
+
+	private final TrigramIndex index = new TrigramIndex();
+
+	@Autowired
+	private ProdutoRepository repository;
+
+	@Value("${search.produto.min-similarity:0.6}")
+	private double minSimilarity;
+
+	// maior offset + tamanho de pagina aceito; o ranking guarda a janela inteira
+	@Value("${search.produto.max-window:1000}")
+	private long maxWindow;
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional(readOnly = true)
+	public void rebuild() {
+		logger.info("Montando o indice de busca de produtos");
+
+		index.clear();
+		try (var nomes = repository.streamNomes()) {
+			nomes.forEach(row -> index.put((Long) row[0], (String) row[1]));
+		}
+
+		logger.info("Indice de busca de produtos com " + index.size() + " produtos");
+	}
+
+	public void index(Produto produto) {
+		index.put(produto.getId(), produto.getNomeProduto());
+	}
+
+	/**
+	 * Dentro de uma transacao, indexa so depois do commit; num rollback a
+	 * busca continuaria achando o nome que nao foi gravado.
+	 */
+	public void indexAfterCommit(Produto produto) {
+		Long id = produto.getId();
+		String nome = produto.getNomeProduto();
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			index.put(id, nome);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				index.put(id, nome);
+			}
+		});
+	}
+
+	public void remove(Long id) {
+		index.remove(id);
+	}
+
+	public SearchResult search(String nomeProduto, long offset, int limit) {
+		if (offset < 0 || limit < 0 || Math.addExact(offset, limit) > maxWindow) {
+			throw new InvalidPageException("Search results are limited to the first " + maxWindow + " matches!");
+		}
+		return index.search(nomeProduto, minSimilarity, (int) offset, limit);
+	}
+}
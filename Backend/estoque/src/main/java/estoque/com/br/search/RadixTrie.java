@@ -0,0 +1,230 @@
+package estoque.com.br.search;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Arvore radix de chaves de texto para ids. Prefixos comuns ficam uma vez so,
+ * nas arestas, e cada no guarda os ids das chaves que terminam nele. A busca
+ * por prefixo desce ate o no do prefixo e percorre a subarvore em ordem:
+ * chaves mais curtas primeiro, depois em ordem de caractere; ids da mesma
+ * chave em ordem crescente.
+ *
+ * Os nos sao imutaveis: cada escrita copia so o caminho ate a chave e publica
+ * a nova raiz, entao leituras nao travam e sempre veem uma arvore inteira.
+ * As escritas precisam vir de uma thread por vez.
+ */
+public class RadixTrie {
+
+	private static final long[] NO_IDS = new long[0];
+	private static final Node[] NO_CHILDREN = new Node[0];
+
+	private volatile Node root = new Node("", NO_CHILDREN, NO_IDS);
+
+	public void put(String key, long id) {
+		root = insert(root, key, 0, id);
+	}
+
+	public void remove(String key, long id) {
+		Node updated = delete(root, key, 0, id);
+		root = updated != null ? updated : new Node("", NO_CHILDREN, NO_IDS);
+	}
+
+	/**
+	 * Entrega ao visitor os ids das chaves que comecam com o prefixo, na ordem
+	 * da arvore, ate ele devolver false.
+	 */
+	public void visit(String prefix, LongPredicate visitor) {
+		Node node = root;
+		int i = 0;
+		while (i < prefix.length()) {
+			Node child = node.child(prefix.charAt(i));
+			if (child == null) {
+				return;
+			}
+			int common = common(child.label, prefix, i);
+			if (i + common == prefix.length()) {
+				// o prefixo acaba no meio ou no fim da aresta
+				node = child;
+				break;
+			}
+			if (common < child.label.length()) {
+				return;
+			}
+			i += common;
+			node = child;
+		}
+		walk(node, visitor);
+	}
+
+	private static boolean walk(Node node, LongPredicate visitor) {
+		for (long id : node.ids) {
+			if (!visitor.test(id)) {
+				return false;
+			}
+		}
+		for (Node child : node.children) {
+			if (!walk(child, visitor)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static Node insert(Node node, String key, int from, long id) {
+		if (from == key.length()) {
+			return node.withIds(addId(node.ids, id));
+		}
+		int index = node.indexOf(key.charAt(from));
+		if (index < 0) {
+			Node leaf = new Node(key.substring(from), NO_CHILDREN, new long[] { id });
+			return node.withChildAt(-index - 1, leaf, true);
+		}
+		Node child = node.children[index];
+		int common = common(child.label, key, from);
+		if (common == child.label.length()) {
+			return node.withChildAt(index, insert(child, key, from + common, id), false);
+		}
+		// a chave sai no meio da aresta: o trecho comum vira um no novo
+		Node tail = child.withLabel(child.label.substring(common));
+		Node split = new Node(child.label.substring(0, common), new Node[] { tail }, NO_IDS);
+		return node.withChildAt(index, insert(split, key, from + common, id), false);
+	}
+
+	// devolve null quando o no fica sem ids e sem filhos
+	private static Node delete(Node node, String key, int from, long id) {
+		Node updated;
+		if (from == key.length()) {
+			updated = node.withIds(removeId(node.ids, id));
+		} else {
+			int index = node.indexOf(key.charAt(from));
+			if (index < 0) {
+				return node;
+			}
+			Node child = node.children[index];
+			if (!key.startsWith(child.label, from)) {
+				return node;
+			}
+			Node newChild = delete(child, key, from + child.label.length(), id);
+			if (newChild == child) {
+				return node;
+			}
+			updated = newChild == null ? node.withoutChildAt(index) : node.withChildAt(index, newChild, false);
+		}
+		if (node.label.isEmpty()) {
+			// a raiz fica mesmo vazia
+			return updated;
+		}
+		if (updated.ids.length == 0 && updated.children.length == 0) {
+			return null;
+		}
+		if (updated.ids.length == 0 && updated.children.length == 1) {
+			// no que so repassa para um filho e juntado com ele
+			Node only = updated.children[0];
+			return only.withLabel(updated.label + only.label);
+		}
+		return updated;
+	}
+
+	private static int common(String label, String key, int from) {
+		int max = Math.min(label.length(), key.length() - from);
+		int i = 0;
+		while (i < max && label.charAt(i) == key.charAt(from + i)) {
+			i++;
+		}
+		return i;
+	}
+
+	private static long[] addId(long[] ids, long id) {
+		int index = Arrays.binarySearch(ids, id);
+		if (index >= 0) {
+			return ids;
+		}
+		int at = -index - 1;
+		long[] added = new long[ids.length + 1];
+		System.arraycopy(ids, 0, added, 0, at);
+		added[at] = id;
+		System.arraycopy(ids, at, added, at + 1, ids.length - at);
+		return added;
+	}
+
+	private static long[] removeId(long[] ids, long id) {
+		int index = Arrays.binarySearch(ids, id);
+		if (index < 0) {
+			return ids;
+		}
+		if (ids.length == 1) {
+			return NO_IDS;
+		}
+		long[] removed = new long[ids.length - 1];
+		System.arraycopy(ids, 0, removed, 0, index);
+		System.arraycopy(ids, index + 1, removed, index, ids.length - index - 1);
+		return removed;
+	}
+
+	private static final class Node {
+
+		// rotulo da aresta que chega ao no; so a raiz tem rotulo vazio
+		private final String label;
+		// ordenados pelo primeiro caractere do rotulo, que nao se repete entre irmaos
+		private final Node[] children;
+		private final long[] ids;
+
+		private Node(String label, Node[] children, long[] ids) {
+			this.label = label;
+			this.children = children;
+			this.ids = ids;
+		}
+
+		private Node child(char first) {
+			int index = indexOf(first);
+			return index >= 0 ? children[index] : null;
+		}
+
+		// busca binaria pelo primeiro caractere; negativo e o ponto de insercao
+		private int indexOf(char first) {
+			int low = 0;
+			int high = children.length - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				char c = children[mid].label.charAt(0);
+				if (c < first) {
+					low = mid + 1;
+				} else if (c > first) {
+					high = mid - 1;
+				} else {
+					return mid;
+				}
+			}
+			return -(low + 1);
+		}
+
+		private Node withIds(long[] newIds) {
+			return newIds == ids ? this : new Node(label, children, newIds);
+		}
+
+		private Node withLabel(String newLabel) {
+			return new Node(newLabel, children, ids);
+		}
+
+		private Node withChildAt(int index, Node child, boolean insert) {
+			Node[] copy;
+			if (insert) {
+				copy = new Node[children.length + 1];
+				System.arraycopy(children, 0, copy, 0, index);
+				System.arraycopy(children, index, copy, index + 1, children.length - index);
+			} else {
+				copy = children.clone();
+			}
+			copy[index] = child;
+			return new Node(label, copy, ids);
+		}
+
+		private Node withoutChildAt(int index) {
+			Node[] copy = new Node[children.length - 1];
+			System.arraycopy(children, 0, copy, 0, index);
+			System.arraycopy(children, index + 1, copy, index, children.length - index - 1);
+			return new Node(label, copy, ids);
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package estoque.com.br.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Normaliza textos para busca: remove acentos (decomposicao NFD), passa para
+ * minusculas e troca pontuacao por espaco, de modo que "Açúcar Cristal" e
+ * "acucar  cristal" viram o mesmo texto.
+ */
+public final class TextNormalizer {
+
+	private TextNormalizer() {}
+
+	public static String normalize(String text) {
+		if (text == null) {
+			return "";
+		}
+		String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+		StringBuilder out = new StringBuilder(decomposed.length());
+		boolean space = true;
+		for (int i = 0; i < decomposed.length(); i++) {
+			char c = decomposed.charAt(i);
+			if (Character.getType(c) == Character.NON_SPACING_MARK) {
+				continue;
+			}
+			if (Character.isLetterOrDigit(c)) {
+				out.append(Character.toLowerCase(c));
+				space = false;
+			} else if (!space) {
+				out.append(' ');
+				space = true;
+			}
+		}
+		int length = out.length();
+		if (length > 0 && out.charAt(length - 1) == ' ') {
+			out.setLength(length - 1);
+		}
+		return out.toString();
+	}
+
+	public static List<String> words(String normalized) {
+		List<String> words = new ArrayList<>();
+		if (normalized.isEmpty()) {
+			return words;
+		}
+		int start = 0;
+		for (int i = 0; i <= normalized.length(); i++) {
+			if (i == normalized.length() || normalized.charAt(i) == ' ') {
+				if (i > start) {
+					words.add(normalized.substring(start, i));
+				}
+				start = i + 1;
+			}
+		}
+		return words;
+	}
+}
@@ -0,0 +1,397 @@
+package estoque.com.br.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Indice invertido de trigramas em memoria. Cada palavra do nome vira
+ * trigramas com o mesmo preenchimento do pg_trgm ("  arroz " gera "  a",
+ * " ar", "arr", ...), entao o inicio das palavras pesa na busca e a ultima
+ * palavra digitada funciona como prefixo.
+ *
+ * Os documentos recebem um ordinal crescente, o que mantem as listas de
+ * postagem ordenadas sem custo. Remocoes so marcam o ordinal; quando metade
+ * do indice esta marcada ele e reconstruido.
+ */
+public class TrigramIndex {
+
+	private static final int COMPACT_THRESHOLD = 1024;
+
+	// uma busca usa so CPU, entao mais buscas simultaneas que nucleos sao raras
+	private static final int SCRATCH_POOL = Runtime.getRuntime().availableProcessors();
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	// contadores por ordinal reaproveitados entre buscas; cada busca devolve o
+	// array zerado. Um pool pequeno e nao um ThreadLocal: com threads virtuais
+	// cada requisicao e uma thread nova e alocaria o array inteiro a cada busca
+	private final BlockingQueue<int[]> scratch = new ArrayBlockingQueue<>(SCRATCH_POOL);
+
+	private final Map<Long, Integer> ordinals = new HashMap<>();
+	private final Map<String, Postings> postings = new HashMap<>();
+
+	private long[] ids = new long[16];
+	private String[] names = new String[16];
+	// tamanho dos nomes fora dos objetos String, para o ranking nao precisar
+	// ler cada nome candidato
+	private int[] lengths = new int[16];
+	private int next;
+	private int removed;
+
+	public void put(long id, String name) {
+		lock.writeLock().lock();
+		try {
+			unlink(id);
+			String normalized = TextNormalizer.normalize(name);
+			if (next == ids.length) {
+				ids = Arrays.copyOf(ids, next * 2);
+				names = Arrays.copyOf(names, next * 2);
+				lengths = Arrays.copyOf(lengths, next * 2);
+			}
+			int ordinal = next++;
+			ids[ordinal] = id;
+			names[ordinal] = normalized;
+			lengths[ordinal] = normalized.length();
+			ordinals.put(id, ordinal);
+			for (String gram : documentTrigrams(normalized)) {
+				postings.computeIfAbsent(gram, g -> new Postings()).add(ordinal);
+			}
+			compactIfNeeded();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(long id) {
+		lock.writeLock().lock();
+		try {
+			unlink(id);
+			compactIfNeeded();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void clear() {
+		lock.writeLock().lock();
+		try {
+			ordinals.clear();
+			postings.clear();
+			ids = new long[16];
+			names = new String[16];
+			lengths = new int[16];
+			next = 0;
+			removed = 0;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return ordinals.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Procura os documentos que tem pelo menos {@code minSimilarity} dos
+	 * trigramas da consulta. A ordem e: mais trigramas em comum, nome que
+	 * comeca com a consulta, palavra que comeca com a consulta, nome mais
+	 * curto e, no empate, menor id.
+	 */
+	public SearchResult search(String query, double minSimilarity, int offset, int limit) {
+		String normalized = TextNormalizer.normalize(query);
+		List<String> grams = queryTrigrams(normalized);
+		if (offset < 0) {
+			throw new IllegalArgumentException("offset must not be negative");
+		}
+		if (grams.isEmpty() || limit <= 0) {
+			return new SearchResult(Collections.emptyList(), 0);
+		}
+
+		lock.readLock().lock();
+		try {
+			Postings[] lists = new Postings[grams.size()];
+			for (int i = 0; i < lists.length; i++) {
+				lists[i] = postings.getOrDefault(grams.get(i), Postings.EMPTY);
+			}
+			Arrays.sort(lists, Comparator.comparingInt(p -> p.size));
+
+			int required = Math.max(1, (int) Math.ceil(lists.length * minSimilarity));
+			// Quem tem "required" trigramas aparece em pelo menos uma das
+			// (total - required + 1) listas menores; so elas geram candidatos.
+			int seeds = lists.length - required + 1;
+
+			int[] counts = borrowScratch();
+			for (Postings list : lists) {
+				for (int k = 0; k < list.size; k++) {
+					counts[list.ordinals[k]]++;
+				}
+			}
+
+			// o heap nunca passa do numero de documentos, qualquer que seja a pagina
+			int capacity = (int) Math.min((long) offset + limit, ordinals.size());
+			TopMatches top = new TopMatches(capacity, lists.length, normalized);
+			int total = 0;
+			for (int s = 0; s < seeds; s++) {
+				Postings seed = lists[s];
+				for (int k = 0; k < seed.size; k++) {
+					int ordinal = seed.ordinals[k];
+					int matched = counts[ordinal];
+					// zerar aqui evita contar o mesmo ordinal em outra lista semente
+					counts[ordinal] = 0;
+					if (matched < required || names[ordinal] == null) {
+						continue;
+					}
+					total++;
+					top.offer(ids[ordinal], names[ordinal], lengths[ordinal], matched);
+				}
+			}
+			for (int s = seeds; s < lists.length; s++) {
+				for (int k = 0; k < lists[s].size; k++) {
+					counts[lists[s].ordinals[k]] = 0;
+				}
+			}
+
+			// so volta ao pool depois de zerado; se a busca falhar o array e descartado
+			scratch.offer(counts);
+			return new SearchResult(top.ids(offset), total);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// chamado com o read lock: ids.length so muda com o write lock. O array
+	// acompanha a capacidade e nao o next, para nao trocar a cada put
+	private int[] borrowScratch() {
+		int[] counts = scratch.poll();
+		if (counts == null || counts.length < ids.length) {
+			counts = new int[ids.length];
+		}
+		return counts;
+	}
+
+	private void unlink(long id) {
+		Integer ordinal = ordinals.remove(id);
+		if (ordinal != null) {
+			names[ordinal] = null;
+			removed++;
+		}
+	}
+
+	private void compactIfNeeded() {
+		if (removed < COMPACT_THRESHOLD || removed < next / 2) {
+			return;
+		}
+		long[] liveIds = new long[ordinals.size()];
+		String[] liveNames = new String[ordinals.size()];
+		int live = 0;
+		for (int ordinal = 0; ordinal < next; ordinal++) {
+			if (names[ordinal] != null) {
+				liveIds[live] = ids[ordinal];
+				liveNames[live] = names[ordinal];
+				live++;
+			}
+		}
+		ordinals.clear();
+		postings.clear();
+		ids = new long[Math.max(16, live * 2)];
+		names = new String[ids.length];
+		lengths = new int[ids.length];
+		next = 0;
+		removed = 0;
+		for (int i = 0; i < live; i++) {
+			int ordinal = next++;
+			ids[ordinal] = liveIds[i];
+			names[ordinal] = liveNames[i];
+			lengths[ordinal] = liveNames[i].length();
+			ordinals.put(liveIds[i], ordinal);
+			for (String gram : documentTrigrams(liveNames[i])) {
+				postings.computeIfAbsent(gram, g -> new Postings()).add(ordinal);
+			}
+		}
+	}
+
+	static Set<String> documentTrigrams(String normalized) {
+		Set<String> grams = new LinkedHashSet<>();
+		for (String word : TextNormalizer.words(normalized)) {
+			addTrigrams(grams, "  " + word + " ");
+		}
+		return grams;
+	}
+
+	static List<String> queryTrigrams(String normalized) {
+		Set<String> grams = new LinkedHashSet<>();
+		List<String> words = TextNormalizer.words(normalized);
+		for (int i = 0; i < words.size(); i++) {
+			// a ultima palavra pode estar incompleta, entao fica sem o espaco final
+			boolean last = i == words.size() - 1;
+			addTrigrams(grams, "  " + words.get(i) + (last ? "" : " "));
+		}
+		return new ArrayList<>(grams);
+	}
+
+	private static void addTrigrams(Set<String> grams, String padded) {
+		for (int i = 0; i + 3 <= padded.length(); i++) {
+			grams.add(padded.substring(i, i + 3));
+		}
+	}
+
+	public static class SearchResult {
+
+		private final List<Long> ids;
+		private final int total;
+
+		public SearchResult(List<Long> ids, int total) {
+			this.ids = ids;
+			this.total = total;
+		}
+
+		public List<Long> getIds() {
+			return ids;
+		}
+
+		public int getTotal() {
+			return total;
+		}
+	}
+
+	/**
+	 * Heap de maximo limitado com os melhores resultados vistos. A chave junta
+	 * trigramas em comum, posicao e tamanho do nome num long; a posicao so e
+	 * calculada quando o candidato ainda pode entrar no heap.
+	 */
+	private static final class TopMatches {
+
+		private final int capacity;
+		private final int grams;
+		private final String prefix;
+		private final String wordPrefix;
+
+		private final long[] keys;
+		private final long[] ids;
+		private int size;
+
+		private TopMatches(int capacity, int grams, String query) {
+			this.capacity = capacity;
+			this.grams = grams;
+			this.prefix = query;
+			this.wordPrefix = " " + query;
+			this.keys = new long[capacity];
+			this.ids = new long[capacity];
+		}
+
+		private void offer(long id, String name, int length, int matched) {
+			if (capacity == 0) {
+				return;
+			}
+			if (size == capacity && compare(key(matched, 0, length), id, 0) >= 0) {
+				return;
+			}
+			long key = key(matched, position(name), length);
+			if (size < capacity) {
+				keys[size] = key;
+				ids[size] = id;
+				siftUp(size++);
+			} else if (compare(key, id, 0) < 0) {
+				keys[0] = key;
+				ids[0] = id;
+				siftDown(0);
+			}
+		}
+
+		private List<Long> ids(int offset) {
+			Integer[] order = new Integer[size];
+			for (int i = 0; i < size; i++) {
+				order[i] = i;
+			}
+			Arrays.sort(order, (a, b) -> compare(keys[a], ids[a], b));
+			List<Long> page = new ArrayList<>();
+			for (int i = offset; i < size; i++) {
+				page.add(ids[order[i]]);
+			}
+			return page;
+		}
+
+		private long key(int matched, int position, int length) {
+			return ((long) (grams - matched) << 40) | ((long) position << 32) | length;
+		}
+
+		private int position(String name) {
+			if (name.startsWith(prefix)) {
+				return 0;
+			}
+			return name.contains(wordPrefix) ? 1 : 2;
+		}
+
+		private int compare(long key, long id, int slot) {
+			int byKey = Long.compare(key, keys[slot]);
+			return byKey != 0 ? byKey : Long.compare(id, ids[slot]);
+		}
+
+		private void siftUp(int slot) {
+			while (slot > 0) {
+				int parent = (slot - 1) / 2;
+				if (compare(keys[slot], ids[slot], parent) <= 0) {
+					return;
+				}
+				swap(slot, parent);
+				slot = parent;
+			}
+		}
+
+		private void siftDown(int slot) {
+			while (true) {
+				int child = 2 * slot + 1;
+				if (child >= size) {
+					return;
+				}
+				if (child + 1 < size && compare(keys[child + 1], ids[child + 1], child) > 0) {
+					child++;
+				}
+				if (compare(keys[slot], ids[slot], child) >= 0) {
+					return;
+				}
+				swap(slot, child);
+				slot = child;
+			}
+		}
+
+		private void swap(int a, int b) {
+			long key = keys[a];
+			long id = ids[a];
+			keys[a] = keys[b];
+			ids[a] = ids[b];
+			keys[b] = key;
+			ids[b] = id;
+		}
+	}
+
+	private static final class Postings {
+
+		private static final Postings EMPTY = new Postings();
+
+		private int[] ordinals = new int[4];
+		private int size;
+
+		private void add(int ordinal) {
+			if (size == ordinals.length) {
+				ordinals = Arrays.copyOf(ordinals, size * 2);
+			}
+			ordinals[size++] = ordinal;
+		}
+	}
+}
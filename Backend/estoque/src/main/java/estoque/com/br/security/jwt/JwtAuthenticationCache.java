@@ -0,0 +1,98 @@
+package estoque.com.br.security.jwt;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Cache de tokens ja verificados, mapeando cada token para a {@link Authentication}
+ * montada a partir dele. Cada entrada expira junto com o claim {@code exp} do token
+ * e pode ser invalidada por usuario quando senha ou permissoes mudam. Uma revogacao
+ * feita em outra instancia chega pelo {@link JwtTokenRevocationRegistry}, consultado
+ * a cada acerto.
+ */
+@Component
+public class JwtAuthenticationCache {
+
+    private final Cache<String, CachedAuthentication> cache;
+
+    private final JwtTokenRevocationRegistry revocationRegistry;
+
+    public JwtAuthenticationCache(@Value("${security.jwt.token.cache.maximum-size:10000}") long maximumSize,
+            JwtTokenRevocationRegistry revocationRegistry) {
+        this.revocationRegistry = revocationRegistry;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+    }
+
+    public Authentication get(String token) {
+        CachedAuthentication cached = cache.getIfPresent(token);
+        if (cached == null) {
+            return null;
+        }
+        if (revocationRegistry.isRevoked(cached.authentication.getName(), cached.issuedAt)) {
+            cache.invalidate(token);
+            return null;
+        }
+        return cached.authentication;
+    }
+
+    public void put(String token, Authentication authentication, Date issuedAt, Date expiresAt) {
+        if (expiresAt == null || !expiresAt.after(new Date())) {
+            return;
+        }
+        cache.put(token, new CachedAuthentication(authentication, issuedAt, expiresAt.getTime()));
+    }
+
+    public void evictUser(String username) {
+        if (username == null) {
+            return;
+        }
+        cache.asMap().values().removeIf(cached -> username.equals(cached.authentication.getName()));
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    private static class CachedAuthentication {
+
+        private final Authentication authentication;
+        private final Date issuedAt;
+        private final long expiresAtMillis;
+
+        private CachedAuthentication(Authentication authentication, Date issuedAt, long expiresAtMillis) {
+            this.authentication = authentication;
+            this.issuedAt = issuedAt;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private static class TokenExpiry implements Expiry<String, CachedAuthentication> {
+
+        @Override
+        public long expireAfterCreate(String token, CachedAuthentication value, long currentTime) {
+            long remaining = value.expiresAtMillis - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remaining, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, CachedAuthentication value, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, CachedAuthentication value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
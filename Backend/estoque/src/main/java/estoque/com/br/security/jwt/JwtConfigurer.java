@@ -12,13 +12,17 @@ public class JwtConfigurer extends SecurityConfigurerAdapter<DefaultSecurityFilt
 	@Autowired
 	private JwtTokenProvider tokenProvider;
 
-	public JwtConfigurer(JwtTokenProvider tokenProvider) {
+	@Autowired
+	private JwtAuthenticationCache authenticationCache;
+
+	public JwtConfigurer(JwtTokenProvider tokenProvider, JwtAuthenticationCache authenticationCache) {
 		this.tokenProvider = tokenProvider;
+		this.authenticationCache = authenticationCache;
 	}
 
 	@Override
 	public void configure(HttpSecurity http) throws Exception{
-		JwtTokenFilter customFilter = new JwtTokenFilter(tokenProvider);
+		JwtTokenFilter customFilter = new JwtTokenFilter(tokenProvider, authenticationCache);
 		http.addFilterBefore(customFilter, UsernamePasswordAuthenticationFilter.class);
 	}
 }
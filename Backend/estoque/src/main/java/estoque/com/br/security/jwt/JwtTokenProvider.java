@@ -1,18 +1,22 @@
 package estoque.com.br.security.jwt;
 
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
-import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
@@ -21,6 +25,8 @@ import com.auth0.jwt.interfaces.DecodedJWT;
 
 import estoque.com.br.data.vo.security.TokenVO;
 import estoque.com.br.exceptions.InvalidJwtAuthenticationException;
+import estoque.com.br.metrics.LogLinearHistogram;
+import estoque.com.br.metrics.MetricsRegistry;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
@@ -34,24 +40,63 @@ public class JwtTokenProvider {
     @Value("${security.jwt.token.expire-length:3600000}")
     private long validityInMilliseconds = 3600000;
 
+    @Value("${security.jwt.token.stateless:false}")
+    private boolean stateless = false;
+
+    // fixo na configuracao: tirado do Host da requisicao, quem chamasse
+    // primeiro escolheria o emissor de todos os tokens
+    @Value("${security.jwt.token.issuer:}")
+    private String issuer = "";
+
     private final UserDetailsService userDetailsService;
 
+    private final JwtTokenRevocationRegistry revocationRegistry;
+
     private Algorithm algorithm = null;
 
+    private JWTVerifier verifier = null;
+
+    // fora do Spring (benchmarks) as medidas ficam num histograma avulso
+    private LogLinearHistogram verifyTimes = new LogLinearHistogram();
+
     @Autowired
-    public JwtTokenProvider(@Lazy UserDetailsService userDetailsService) {
+    public JwtTokenProvider(@Lazy UserDetailsService userDetailsService, JwtTokenRevocationRegistry revocationRegistry) {
         this.userDetailsService = userDetailsService;
+        this.revocationRegistry = revocationRegistry;
+    }
+
+    @Autowired(required = false)
+    public void setMetrics(MetricsRegistry metrics) {
+        this.verifyTimes = metrics.timer("estoque_jwt_verify_seconds", "Tempo de verificacao da assinatura do JWT");
     }
 
     @PostConstruct
     protected void init() {
+        if (issuer == null || issuer.isBlank()) {
+            throw new IllegalStateException("security.jwt.token.issuer must be set");
+        }
         secretKey = Base64.getEncoder().encodeToString(secretKey.getBytes());
         algorithm = Algorithm.HMAC256(secretKey.getBytes());
+        verifier = JWT.require(algorithm).build();
     }
 
     public TokenVO createAccessToken(String username, List<String> roles) {
         Date now = new Date();
         Date validity = new Date(now.getTime() + validityInMilliseconds);
+        return createAccessToken(username, roles, now, validity);
+    }
+
+    public List<TokenVO> createAccessTokens(Map<String, List<String>> rolesByUsername) {
+        Date now = new Date();
+        Date validity = new Date(now.getTime() + validityInMilliseconds);
+
+        List<TokenVO> tokens = new ArrayList<>(rolesByUsername.size());
+        rolesByUsername.forEach((username, roles) ->
+            tokens.add(createAccessToken(username, roles, now, validity)));
+        return tokens;
+    }
+
+    private TokenVO createAccessToken(String username, List<String> roles, Date now, Date validity) {
         var accessToken = getAccessToken(username, roles, now, validity);
         var refreshToken = getRefreshToken(username, roles, now);
 
@@ -63,21 +108,22 @@ public class JwtTokenProvider {
             refreshToken = refreshToken.substring("Bearer ".length());
         }
 
-        JWTVerifier verifier = JWT.require(algorithm).build();
-        DecodedJWT decodedJWT = verifier.verify(refreshToken);
+        DecodedJWT decodedJWT = verify(refreshToken);
         String username = decodedJWT.getSubject();
+        if (revocationRegistry.isRevoked(username, decodedJWT.getIssuedAt())) {
+            throw new InvalidJwtAuthenticationException("Expired or invalid JWT token!");
+        }
         List<String> roles = decodedJWT.getClaim("roles").asList(String.class);
         return createAccessToken(username, roles);
     }
 
     private String getAccessToken(String username, List<String> roles, Date now, Date validity) {
-        String issuerUrl = ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString();
         return JWT.create()
                 .withClaim("roles", roles)
                 .withIssuedAt(now)
                 .withExpiresAt(validity)
                 .withSubject(username)
-                .withIssuer(issuerUrl)
+                .withIssuer(issuer)
                 .sign(algorithm)
                 .strip();
     }
@@ -94,14 +140,47 @@ public class JwtTokenProvider {
     }
 
     public Authentication getAuthentication(String token) {
-        DecodedJWT decodedJWT = decodedToken(token);
+        return getAuthentication(decodedToken(token));
+    }
+
+    /**
+     * Monta a autenticacao de um token ja verificado por {@link #verifyToken},
+     * sem verificar a assinatura de novo.
+     */
+    public Authentication getAuthentication(DecodedJWT decodedJWT) {
+        // tambem no modo com banco: a carga do usuario traz as permissoes
+        // atuais, mas nao sabe de uma troca de senha
+        if (revocationRegistry.isRevoked(decodedJWT.getSubject(), decodedJWT.getIssuedAt())) {
+            return null;
+        }
+        if (stateless) {
+            return getStatelessAuthentication(decodedJWT);
+        }
         UserDetails userDetails = this.userDetailsService.loadUserByUsername(decodedJWT.getSubject());
         return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
     }
 
+    private Authentication getStatelessAuthentication(DecodedJWT decodedJWT) {
+        String username = decodedJWT.getSubject();
+        List<String> roles = decodedJWT.getClaim("roles").asList(String.class);
+        List<GrantedAuthority> authorities = roles == null ? List.of() : roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role))
+                .toList();
+        UserDetails userDetails = new User(username, "", authorities);
+        return new UsernamePasswordAuthenticationToken(userDetails, "", authorities);
+    }
+
     private DecodedJWT decodedToken(String token) {
-        JWTVerifier verifier = JWT.require(algorithm).build();
-        return verifier.verify(token);
+        return verify(token);
+    }
+
+    private DecodedJWT verify(String token) {
+        long start = System.nanoTime();
+        try {
+            return verifier.verify(token);
+        } finally {
+            verifyTimes.recordNanos(System.nanoTime() - start);
+        }
     }
 
     public String resolveToken(HttpServletRequest req) {
@@ -114,9 +193,17 @@ public class JwtTokenProvider {
     }
 
     public boolean validateToken(String token) {
+        return verifyToken(token) != null;
+    }
+
+    /**
+     * Verifica a assinatura uma unica vez e devolve o token decodificado, ou
+     * null se ja expirou; dele saem a autenticacao e a validade no cache.
+     */
+    public DecodedJWT verifyToken(String token) {
         DecodedJWT decodedJWT = decodedToken(token);
         try {
-            return decodedJWT.getExpiresAt().after(new Date());
+            return decodedJWT.getExpiresAt().after(new Date()) ? decodedJWT : null;
         } catch (Exception e) {
             throw new InvalidJwtAuthenticationException("Expired or invalid JWT token!");
         }
@@ -0,0 +1,75 @@
+package estoque.com.br.security.jwt;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.function.ToLongFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import estoque.com.br.repositories.UsuarioRepository;
+
+/**
+ * Diz se um token foi revogado pela coluna tokens_revogados_ate do usuario,
+ * gravada pelo UsuarioService na mesma transacao que muda senha, permissoes
+ * ou nome. Por estar no banco a revogacao vale em todas as instancias e
+ * sobrevive a restart. Cada instancia guarda a leitura por
+ * security.jwt.token.revocation.check-interval; a que fez a alteracao
+ * esquece a sua depois do commit, as demais veem a revogacao nesse prazo.
+ */
+@Component
+public class JwtTokenRevocationRegistry {
+
+    // usuario sem linha (excluido ou renomeado): nenhum token dele vale
+    private static final long USUARIO_INEXISTENTE = Long.MAX_VALUE;
+
+    private final ToLongFunction<String> revokedUntil;
+
+    private final Cache<String, Long> revokedAt;
+
+    @Autowired
+    public JwtTokenRevocationRegistry(UsuarioRepository repository,
+            @Value("${security.jwt.token.revocation.check-interval:30s}") Duration checkInterval) {
+        this(username -> {
+            Long seconds = repository.findTokensRevogadosAte(username);
+            return seconds == null ? USUARIO_INEXISTENTE : seconds;
+        }, checkInterval);
+    }
+
+    public JwtTokenRevocationRegistry(ToLongFunction<String> revokedUntil, Duration checkInterval) {
+        this.revokedUntil = revokedUntil;
+        this.revokedAt = Caffeine.newBuilder()
+                .expireAfterWrite(checkInterval)
+                .build();
+    }
+
+    /**
+     * Valor a gravar em tokens_revogados_ate para revogar os tokens emitidos
+     * ate agora.
+     */
+    public static long now() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    // chamado depois do commit que gravou a coluna
+    public void forget(String username) {
+        if (username != null) {
+            revokedAt.invalidate(username);
+        }
+    }
+
+    public boolean isRevoked(String username, Date issuedAt) {
+        if (username == null) {
+            return true;
+        }
+        long revokedAtSeconds = revokedAt.get(username, revokedUntil::applyAsLong);
+        // o iat do JWT so tem segundos: no mesmo segundo nao da para saber se o
+        // token veio antes ou depois da revogacao, entao ele cai junto. Um
+        // login feito nesse mesmo segundo precisa ser repetido
+        return issuedAt == null || issuedAt.getTime() / 1000 <= revokedAtSeconds;
+    }
+}
@@ -0,0 +1,112 @@
+package estoque.com.br.security.password;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm;
+
+import estoque.com.br.metrics.LogLinearHistogram;
+
+/**
+ * PBKDF2 com os parametros gravados junto do hash ({@code iteracoes$hex}).
+ * Hashes antigos, sem prefixo, usam os parametros legados (185000 iteracoes,
+ * salt de 8 bytes). {@link #upgradeEncoding(String)} indica quando o hash
+ * gravado difere da politica atual, para que seja refeito no proximo login.
+ */
+public class AdaptivePbkdf2PasswordEncoder implements PasswordEncoder {
+
+	public static final int LEGACY_ITERATIONS = 185000;
+	public static final int LEGACY_SALT_LENGTH = 8;
+
+	private static final int HASH_WIDTH_BYTES = 32;
+	private static final char SEPARATOR = '$';
+
+	private final int iterations;
+	private final int saltLength;
+
+	private final Map<String, Pbkdf2PasswordEncoder> encoders = new ConcurrentHashMap<>();
+
+	private final LogLinearHistogram encodeTimes;
+	private final LogLinearHistogram matchesTimes;
+
+	public AdaptivePbkdf2PasswordEncoder(int iterations, int saltLength) {
+		this(iterations, saltLength, new LogLinearHistogram(), new LogLinearHistogram());
+	}
+
+	public AdaptivePbkdf2PasswordEncoder(int iterations, int saltLength, LogLinearHistogram encodeTimes,
+			LogLinearHistogram matchesTimes) {
+		this.iterations = iterations;
+		this.saltLength = saltLength;
+		this.encodeTimes = encodeTimes;
+		this.matchesTimes = matchesTimes;
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		long start = System.nanoTime();
+		try {
+			return iterations + String.valueOf(SEPARATOR) + encoder(iterations, saltLength).encode(rawPassword);
+		} finally {
+			encodeTimes.recordNanos(System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		long start = System.nanoTime();
+		try {
+			return verify(rawPassword, encodedPassword);
+		} finally {
+			matchesTimes.recordNanos(System.nanoTime() - start);
+		}
+	}
+
+	private boolean verify(CharSequence rawPassword, String encodedPassword) {
+		if (encodedPassword == null || encodedPassword.isEmpty()) {
+			return false;
+		}
+		int separator = encodedPassword.indexOf(SEPARATOR);
+		if (separator < 0) {
+			return encoder(LEGACY_ITERATIONS, LEGACY_SALT_LENGTH).matches(rawPassword, encodedPassword);
+		}
+		String hash = encodedPassword.substring(separator + 1);
+		int hashIterations = iterationsOf(encodedPassword, separator);
+		int hashSaltLength = saltLengthOf(hash);
+		if (hashIterations <= 0 || hashSaltLength <= 0) {
+			return false;
+		}
+		return encoder(hashIterations, hashSaltLength).matches(rawPassword, hash);
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		if (encodedPassword == null || encodedPassword.isEmpty()) {
+			return false;
+		}
+		int separator = encodedPassword.indexOf(SEPARATOR);
+		if (separator < 0) {
+			return iterations != LEGACY_ITERATIONS || saltLength != LEGACY_SALT_LENGTH;
+		}
+		String hash = encodedPassword.substring(separator + 1);
+		return iterations != iterationsOf(encodedPassword, separator) || saltLength != saltLengthOf(hash);
+	}
+
+	private Pbkdf2PasswordEncoder encoder(int iterations, int saltLength) {
+		return encoders.computeIfAbsent(iterations + ":" + saltLength,
+				key -> new Pbkdf2PasswordEncoder("", saltLength, iterations, SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+	}
+
+	private static int iterationsOf(String encodedPassword, int separator) {
+		try {
+			return Integer.parseInt(encodedPassword.substring(0, separator));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	private static int saltLengthOf(String hexHash) {
+		return hexHash.length() / 2 - HASH_WIDTH_BYTES;
+	}
+}
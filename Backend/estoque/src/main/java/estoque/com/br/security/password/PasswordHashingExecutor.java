@@ -0,0 +1,55 @@
+package estoque.com.br.security.password;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import estoque.com.br.exceptions.ServiceOverloadedException;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pool dedicado para a verificacao de senha (PBKDF2), separado das threads do
+ * Tomcat. Quando o pool e a fila estao cheios a requisicao e recusada na hora
+ * com 503 em vez de ocupar uma thread de request esperando.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+	private final ThreadPoolExecutor executor;
+
+	private final long retryAfterSeconds;
+
+	public PasswordHashingExecutor(
+			@Value("${security.password.hashing.pool-size:0}") int poolSize,
+			@Value("${security.password.hashing.queue-capacity:32}") int queueCapacity,
+			@Value("${security.password.hashing.retry-after:2}") long retryAfterSeconds) {
+		int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+		// continua com threads de plataforma no modo virtual: o PBKDF2 e so CPU e
+		// o pool e o que limita quantas verificacoes rodam juntas
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				new CustomizableThreadFactory("password-hashing-"),
+				new ThreadPoolExecutor.AbortPolicy());
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	public <T> CompletableFuture<T> submit(Supplier<T> task) {
+		try {
+			return CompletableFuture.supplyAsync(task, executor);
+		} catch (RejectedExecutionException e) {
+			throw new ServiceOverloadedException("Too many sign in attempts, try again later!", retryAfterSeconds);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+}
@@ -1,10 +1,14 @@
 package estoque.com.br.services;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
@@ -12,6 +16,7 @@ import estoque.com.br.data.vo.security.AccountCredentialsVO;
 import estoque.com.br.data.vo.security.TokenVO;
 import estoque.com.br.repositories.UsuarioRepository;
 import estoque.com.br.security.jwt.JwtTokenProvider;
+import estoque.com.br.security.password.PasswordHashingExecutor;
 
 @Service
 public class AuthServices {
@@ -25,22 +30,28 @@ public class AuthServices {
 	@Autowired
 	private UsuarioRepository repository;
 
+	@Autowired
+	private PasswordHashingExecutor passwordHashingExecutor;
+
+	@SuppressWarnings("rawtypes")
+	public CompletableFuture<ResponseEntity> signin(AccountCredentialsVO data) {
+		return passwordHashingExecutor.submit(() -> authenticate(data));
+	}
+
 	@SuppressWarnings("rawtypes")
-	public ResponseEntity signin(AccountCredentialsVO data) {
+	private ResponseEntity authenticate(AccountCredentialsVO data) {
 		try {
 			var username = data.getUsername();
 			var password = data.getPassword();
-			authenticationManager.authenticate(
+			var authentication = authenticationManager.authenticate(
 				new UsernamePasswordAuthenticationToken(username, password));
 
-			var user = repository.findByUsername(username);
+			// As permissoes ja vieram do loadUserByUsername, sem uma segunda consulta
+			var roles = authentication.getAuthorities().stream()
+				.map(GrantedAuthority::getAuthority)
+				.collect(Collectors.toList());
 
-			var tokenResponse = new TokenVO();
-			if (user != null) {
-				tokenResponse = tokenProvider.createAccessToken(username, user.getRoles());
-			} else {
-				throw new UsernameNotFoundException("Username " + username + " not found!");
-			}
+			var tokenResponse = tokenProvider.createAccessToken(authentication.getName(), roles);
 			return ResponseEntity.ok(tokenResponse);
 		} catch (Exception e) {
 			throw new BadCredentialsException("Invalid username/password supplied!");
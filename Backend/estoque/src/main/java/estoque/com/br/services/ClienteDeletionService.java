@@ -0,0 +1,218 @@
+package estoque.com.br.services;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import estoque.com.br.data.vo.ClienteDeleteJobVO;
+import estoque.com.br.data.vo.ClienteDeleteJobVO.Status;
+import estoque.com.br.exceptions.ResourceNotFoundException;
+import estoque.com.br.exceptions.ServiceOverloadedException;
+import estoque.com.br.repositories.ClienteRepository;
+import estoque.com.br.repositories.ItemOrcamentoRepository;
+import estoque.com.br.repositories.OrcamentoRepository;
+import estoque.com.br.search.ClienteSuggestIndex;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Exclusao de clientes com DELETEs por conjunto: itens, orcamentos e por fim o
+ * cliente, sem carregar nada no contexto de persistencia. Para clientes muito
+ * grandes ha o modo assincrono, que apaga os orcamentos em blocos, cada bloco
+ * na sua transacao, e publica o progresso num job consultavel pelo id.
+ */
+@Service
+public class ClienteDeletionService {
+
+	private Logger logger = Logger.getLogger(ClienteDeletionService.class.getName());
+
+	@Autowired
+	private ClienteRepository clienteRepository;
+
+	@Autowired
+	private OrcamentoRepository orcamentoRepository;
+
+	@Autowired
+	private ItemOrcamentoRepository itemOrcamentoRepository;
+
+	@Autowired
+	private ClienteSuggestIndex suggestIndex;
+
+	@Autowired
+	private OrcamentoEventoService eventos;
+
+	private final TransactionTemplate transaction;
+
+	private final ThreadPoolExecutor executor;
+
+	private final int chunkSize;
+
+	// jobs terminados continuam consultaveis por um tempo
+	private final Cache<String, ClienteDeleteJobVO> jobs;
+
+	private final Map<Long, ClienteDeleteJobVO> running = new ConcurrentHashMap<>();
+
+	public ClienteDeletionService(PlatformTransactionManager transactionManager,
+			@Value("${cliente.delete.chunk-size:1000}") int chunkSize,
+			@Value("${cliente.delete.queue-capacity:16}") int queueCapacity,
+			@Value("${cliente.delete.job-retention:1h}") Duration jobRetention,
+			@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+		this.transaction = new TransactionTemplate(transactionManager);
+		this.chunkSize = chunkSize;
+		// uma thread so: exclusoes grandes em paralelo so disputariam os mesmos locks
+		this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				virtualThreads ? Thread.ofVirtual().name("cliente-delete-", 1).factory()
+						: new CustomizableThreadFactory("cliente-delete-"),
+				new ThreadPoolExecutor.AbortPolicy());
+		this.jobs = Caffeine.newBuilder().expireAfterWrite(jobRetention).build();
+	}
+
+	/**
+	 * Apaga o cliente e todos os seus orcamentos numa transacao so.
+	 */
+	public void delete(Long clienteId) {
+		transaction.executeWithoutResult(tx -> {
+			if (!clienteRepository.existsById(clienteId)) {
+				throw new ResourceNotFoundException("ID não encontrado!");
+			}
+			deleteCliente(clienteId);
+		});
+		suggestIndex.remove(clienteId);
+	}
+
+	/**
+	 * Agenda a exclusao em blocos. Se ja existe um job rodando para o cliente,
+	 * devolve esse job em vez de criar outro.
+	 */
+	public ClienteDeleteJobVO submit(Long clienteId) {
+		if (!clienteRepository.existsById(clienteId)) {
+			throw new ResourceNotFoundException("ID não encontrado!");
+		}
+
+		var job = new ClienteDeleteJobVO();
+		job.setJobId(UUID.randomUUID().toString());
+		job.setClienteId(clienteId);
+		job.setStatus(Status.RUNNING);
+		job.setStartedAt(new Date());
+
+		var existing = running.putIfAbsent(clienteId, job);
+		if (existing != null) {
+			return snapshot(existing);
+		}
+		jobs.put(job.getJobId(), job);
+		try {
+			executor.execute(() -> run(job));
+		} catch (RejectedExecutionException e) {
+			running.remove(clienteId);
+			jobs.invalidate(job.getJobId());
+			throw new ServiceOverloadedException("Too many client deletions in progress, try again later!", 60);
+		}
+		return snapshot(job);
+	}
+
+	public ClienteDeleteJobVO findJob(String jobId) {
+		var job = jobs.getIfPresent(jobId);
+		if (job == null) {
+			throw new ResourceNotFoundException("Job não encontrado!");
+		}
+		return snapshot(job);
+	}
+
+	private void run(ClienteDeleteJobVO job) {
+		Long clienteId = job.getClienteId();
+		logger.info("Excluindo o cliente " + clienteId + " em blocos de " + chunkSize + " orcamentos");
+		try {
+			// a contagem vai ao banco fora do monitor: com threads virtuais uma
+			// consulta dentro do synchronized prende a thread carregadora
+			long total = orcamentoRepository.countByClienteId(clienteId);
+			synchronized (job) {
+				job.setTotal(total);
+			}
+
+			List<Long> ids;
+			do {
+				ids = transaction.execute(tx -> {
+					var chunk = orcamentoRepository.findIdsByClienteId(clienteId, PageRequest.of(0, chunkSize));
+					if (!chunk.isEmpty()) {
+						eventos.capturar(chunk);
+						itemOrcamentoRepository.deleteByOrcamentoIds(chunk);
+						orcamentoRepository.deleteByIds(chunk);
+					}
+					return chunk;
+				});
+				synchronized (job) {
+					job.setDeleted(job.getDeleted() + ids.size());
+				}
+			} while (ids.size() == chunkSize);
+
+			// o que foi criado durante a exclusao sai junto com o cliente
+			transaction.executeWithoutResult(tx -> deleteCliente(clienteId));
+			suggestIndex.remove(clienteId);
+			finish(job, Status.DONE, null);
+		} catch (RuntimeException e) {
+			logger.log(Level.WARNING, "Falha ao excluir o cliente " + clienteId, e);
+			finish(job, Status.FAILED, e.getMessage());
+		} finally {
+			running.remove(clienteId, job);
+		}
+	}
+
+	private void deleteCliente(Long clienteId) {
+		eventos.capturarPorCliente(clienteId);
+		itemOrcamentoRepository.deleteByClienteId(clienteId);
+		orcamentoRepository.deleteByClienteId(clienteId);
+		clienteRepository.deleteClienteById(clienteId);
+	}
+
+	private void finish(ClienteDeleteJobVO job, Status status, String message) {
+		synchronized (job) {
+			job.setStatus(status);
+			job.setMessage(message);
+			job.setFinishedAt(new Date());
+		}
+		// reinicia o prazo de retencao a partir do fim do job
+		jobs.put(job.getJobId(), job);
+		logger.info("Exclusao do cliente " + job.getClienteId() + " terminou com " + status);
+	}
+
+	// copia para o controller nao serializar o job enquanto a thread o altera
+	private ClienteDeleteJobVO snapshot(ClienteDeleteJobVO job) {
+		synchronized (job) {
+			var copy = new ClienteDeleteJobVO();
+			copy.setJobId(job.getJobId());
+			copy.setClienteId(job.getClienteId());
+			copy.setStatus(job.getStatus());
+			copy.setTotal(job.getTotal());
+			copy.setDeleted(job.getDeleted());
+			copy.setStartedAt(job.getStartedAt());
+			copy.setFinishedAt(job.getFinishedAt());
+			copy.setMessage(job.getMessage());
+			return copy;
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+}
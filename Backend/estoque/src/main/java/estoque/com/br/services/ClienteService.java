@@ -3,41 +3,53 @@ package estoque.com.br.services;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
+import java.util.List;
 import java.util.logging.Logger;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.stereotype.Service;
 
 import estoque.com.br.controllers.ClienteController;
+import estoque.com.br.data.vo.ClienteDeleteJobVO;
+import estoque.com.br.data.vo.ClienteSuggestionVO;
 import estoque.com.br.data.vo.ClienteVO;
 import estoque.com.br.exceptions.RequiredObjectIsNullException;
 import estoque.com.br.exceptions.ResourceNotFoundException;
+import estoque.com.br.mapper.ClienteMapper;
 import estoque.com.br.model.Cliente;
 import estoque.com.br.repositories.ClienteRepository;
-import estoque.com.br.repositories.OrcamentoRepository;
+import estoque.com.br.repositories.KeysetSpecification;
+import estoque.com.br.search.ClienteSuggestIndex;
+import estoque.com.br.util.KeysetCursor;
+import estoque.com.br.util.KeysetPage;
+import estoque.com.br.util.SelfLinkFactory;
 
 @Service
 public class ClienteService {
 
+    private static final int MAX_SUGGESTIONS = 50;
+
     private Logger logger = Logger.getLogger(ClienteService.class.getName());
 
     @Autowired
     ClienteRepository repository;
     
     @Autowired
-    OrcamentoRepository  orcamentoRepository;
+    ClienteDeletionService deletionService;
 
     @Autowired
     PagedResourcesAssembler<ClienteVO> assembler;
 
     @Autowired
-    private ModelMapper modelMapper;
+    ClienteSuggestIndex suggestIndex;
+
 
     public PagedModel<EntityModel<ClienteVO>> findAll(Pageable pageable) {
 
@@ -45,8 +57,9 @@ public class ClienteService {
 
         var clientesPage = repository.findAll(pageable);
 
-        var clientesVOs = clientesPage.map(p -> modelMapper.map(p, ClienteVO.class));
-        clientesVOs.map(p -> p.add(linkTo(methodOn(ClienteController.class).findById(p.getKey())).withSelfRel()));
+        var clientesVOs = clientesPage.map(ClienteMapper::toVO);
+        var selfLinks = SelfLinkFactory.forController(ClienteController.class);
+        clientesVOs.forEach(p -> p.add(selfLinks.selfLink(p.getKey())));
 
         Link findAllLink = linkTo(
                 methodOn(ClienteController.class)
@@ -57,17 +70,31 @@ public class ClienteService {
         return assembler.toModel(clientesVOs, findAllLink);
     }
 
+    public CollectionModel<EntityModel<ClienteVO>> findAllAfter(String after, Integer size, Direction direction) {
+
+        logger.info("Procurando clientes a partir de um cursor");
+
+        var clientes = KeysetSpecification.fetch(repository, "razaoSocial",
+                KeysetCursor.decode(after), direction, size + 1);
+
+        var selfLinks = SelfLinkFactory.forController(ClienteController.class);
+        var sortDirection = direction.name().toLowerCase();
+
+        return KeysetPage.toModel(clientes, size, after,
+                e -> ClienteMapper.toVO(e).add(selfLinks.selfLink(e.getId())),
+                e -> new KeysetCursor(e.getRazaoSocial(), e.getId()),
+                cursor -> linkTo(methodOn(ClienteController.class).findAllAfter(cursor, size, sortDirection)).withSelfRel());
+    }
+
     public PagedModel<EntityModel<ClienteVO>> findClienteByName(String razaoSocial, Pageable pageable) {
 
         logger.info("Procurando cliente por nome");
 
         var clientePage = repository.findClientesByName(razaoSocial, pageable);
 
-        var clienteVosPage = clientePage.map(b -> modelMapper.map(b, ClienteVO.class));
-        clienteVosPage.map(
-                    b -> b.add(
-                        linkTo(methodOn(ClienteController.class)
-                                .findById(b.getKey())).withSelfRel()));
+        var clienteVosPage = clientePage.map(ClienteMapper::toVO);
+        var selfLinks = SelfLinkFactory.forController(ClienteController.class);
+        clienteVosPage.forEach(b -> b.add(selfLinks.selfLink(b.getKey())));
 
         Link link = linkTo(
                 methodOn(ClienteController.class)
@@ -78,13 +105,20 @@ public class ClienteService {
         return assembler.toModel(clienteVosPage, link);
     }
 
+    public List<ClienteSuggestionVO> suggest(String query, Integer limit) {
+
+        logger.info("Sugerindo clientes");
+
+        return suggestIndex.suggest(query, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
     public ClienteVO findById(Long id) {
 
         logger.info("Procurando um cliente");
 
         var entity = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Não foi encontrado esse ID!"));
-        var vo = modelMapper.map(entity, ClienteVO.class);
+        var vo = ClienteMapper.toVO(entity);
         vo.add(linkTo(methodOn(ClienteController.class).findById(id)).withSelfRel());
         return vo;
     }
@@ -96,8 +130,9 @@ public class ClienteService {
         }
 
         logger.info("Criando um cliente");
-        var entity = modelMapper.map(cliente, Cliente.class);
-        var vo = modelMapper.map(repository.save(entity), ClienteVO.class);
+        var entity = repository.save(ClienteMapper.toEntity(cliente));
+        suggestIndex.index(entity);
+        var vo = ClienteMapper.toVO(entity);
         vo.add(linkTo(methodOn(ClienteController.class).findById(vo.getKey())).withSelfRel());
         return vo;
     }
@@ -120,7 +155,9 @@ public class ClienteService {
         entity.setInscricaoEstadual(cliente.getInscricaoEstadual());
         entity.setRazaoSocial(cliente.getRazaoSocial());
 
-        var vo =  modelMapper.map(repository.save(entity), ClienteVO.class);
+        entity = repository.save(entity);
+        suggestIndex.index(entity);
+        var vo =  ClienteMapper.toVO(entity);
         vo.add(linkTo(methodOn(ClienteController.class).findById(vo.getKey())).withSelfRel());
         return vo;
     }
@@ -129,9 +166,17 @@ public class ClienteService {
 
         logger.info("Deletando o cliente");
 
-        var entity = repository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("ID não encontrado!"));
-        orcamentoRepository.deleteByClienteId(entity.getId());
-        repository.delete(entity);
+        deletionService.delete(id);
+    }
+
+    public ClienteDeleteJobVO deleteAsync(Long id) {
+
+        logger.info("Agendando a exclusao do cliente em blocos");
+
+        return deletionService.submit(id);
+    }
+
+    public ClienteDeleteJobVO findDeleteJob(String jobId) {
+        return deletionService.findJob(jobId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,129 @@
+package estoque.com.br.services;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import estoque.com.br.cache.ProdutoCatalogCache;
+import estoque.com.br.exceptions.InsufficientStockException;
+import estoque.com.br.exceptions.ResourceConflictException;
+import estoque.com.br.exceptions.ResourceNotFoundException;
+import estoque.com.br.model.MovimentacaoEstoque;
+import estoque.com.br.model.StatusOrcamento;
+import estoque.com.br.model.TipoMovimentacao;
+import estoque.com.br.repositories.ItemOrcamentoRepository;
+import estoque.com.br.repositories.MovimentacaoEstoqueRepository;
+import estoque.com.br.repositories.OrcamentoRepository;
+import estoque.com.br.repositories.ProdutoRepository;
+
+/**
+ * Reserva de estoque na aprovacao de orcamentos. Tudo acontece numa transacao:
+ * a troca de status e condicional (duas aprovacoes do mesmo orcamento nao
+ * passam juntas), cada produto recebe uma baixa condicional no proprio UPDATE
+ * e cada baixa vira um lancamento no razao. Se algum produto nao tiver saldo a
+ * transacao inteira volta, inclusive o status.
+ *
+ * Nao ha lock em memoria: o lock de linha do banco serializa as baixas de um
+ * mesmo produto e vale entre instancias. As linhas sao travadas em ordem de id
+ * de produto, entao aprovacoes com produtos em comum nao entram em deadlock.
+ */
+@Service
+public class EstoqueService {
+
+	private Logger logger = Logger.getLogger(EstoqueService.class.getName());
+
+	@Autowired
+	private OrcamentoRepository orcamentoRepository;
+
+	@Autowired
+	private ItemOrcamentoRepository itemOrcamentoRepository;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private MovimentacaoEstoqueRepository movimentacaoRepository;
+
+	@Autowired
+	private ProdutoCatalogCache catalog;
+
+	@Autowired
+	private OrcamentoEventoService eventos;
+
+	@Transactional
+	public void aprovar(Long orcamentoId) {
+		logger.info("Aprovando o orcamento " + orcamentoId + " e reservando o estoque");
+		eventos.capturar(List.of(orcamentoId));
+
+		if (orcamentoRepository.updateStatusUnlessIn(orcamentoId, StatusOrcamento.APROVADO, StatusOrcamento.FECHADOS) == 0) {
+			throw statusConflict(orcamentoId, "Orçamento já aprovado ou cancelado!");
+		}
+
+		List<MovimentacaoEstoque> movimentacoes = new ArrayList<>();
+		for (Object[] row : itemOrcamentoRepository.sumQuantidadeByProduto(orcamentoId)) {
+			Long produtoId = (Long) row[0];
+			BigDecimal quantidade = (BigDecimal) row[1];
+			if (quantidade == null || quantidade.signum() <= 0) {
+				continue;
+			}
+			if (produtoRepository.baixarEstoque(produtoId, quantidade) == 0) {
+				throw new InsufficientStockException(produtoId);
+			}
+			movimentacoes.add(new MovimentacaoEstoque(produtoId, orcamentoId, TipoMovimentacao.RESERVA, quantidade.negate()));
+		}
+		registrar(movimentacoes);
+	}
+
+	@Transactional
+	public void cancelar(Long orcamentoId) {
+		logger.info("Cancelando o orcamento " + orcamentoId + " e devolvendo o estoque");
+		eventos.capturar(List.of(orcamentoId));
+
+		if (orcamentoRepository.updateStatusIfEquals(orcamentoId, StatusOrcamento.CANCELADO, StatusOrcamento.APROVADO) == 0) {
+			throw statusConflict(orcamentoId, "Só orçamentos aprovados podem ser cancelados!");
+		}
+
+		List<MovimentacaoEstoque> movimentacoes = new ArrayList<>();
+		for (Object[] row : itemOrcamentoRepository.sumQuantidadeByProduto(orcamentoId)) {
+			Long produtoId = (Long) row[0];
+			BigDecimal quantidade = (BigDecimal) row[1];
+			if (quantidade == null || quantidade.signum() <= 0) {
+				continue;
+			}
+			produtoRepository.devolverEstoque(produtoId, quantidade);
+			movimentacoes.add(new MovimentacaoEstoque(produtoId, orcamentoId, TipoMovimentacao.ESTORNO, quantidade));
+		}
+		registrar(movimentacoes);
+	}
+
+	/**
+	 * Lanca no razao a diferenca de um ajuste manual de quantidade feito pelo
+	 * cadastro de produto.
+	 */
+	public void registrarAjuste(Long produtoId, BigDecimal antes, BigDecimal depois) {
+		if (antes == null || depois == null || antes.compareTo(depois) == 0) {
+			return;
+		}
+		movimentacaoRepository.save(new MovimentacaoEstoque(produtoId, null, TipoMovimentacao.AJUSTE, depois.subtract(antes)));
+	}
+
+	private void registrar(List<MovimentacaoEstoque> movimentacoes) {
+		if (movimentacoes.isEmpty()) {
+			return;
+		}
+		movimentacaoRepository.saveAll(movimentacoes);
+		catalog.invalidateAfterCommit(movimentacoes.stream().map(MovimentacaoEstoque::getProdutoId).toList());
+	}
+
+	private RuntimeException statusConflict(Long orcamentoId, String message) {
+		if (!orcamentoRepository.existsById(orcamentoId)) {
+			return new ResourceNotFoundException("Não foi encontrado esse ID!");
+		}
+		return new ResourceConflictException(message);
+	}
+}
@@ -1,19 +1,28 @@
 package estoque.com.br.services;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import estoque.com.br.data.vo.ItemOrcamentoVO;
 import estoque.com.br.exceptions.RequiredObjectIsNullException;
+import estoque.com.br.exceptions.ResourceConflictException;
 import estoque.com.br.exceptions.ResourceNotFoundException;
-import estoque.com.br.model.ItemOrcamento;
+import estoque.com.br.mapper.ItemOrcamentoMapper;
+import estoque.com.br.model.Orcamento;
+import estoque.com.br.model.StatusOrcamento;
 import estoque.com.br.repositories.ItemOrcamentoRepository;
+import estoque.com.br.repositories.OrcamentoRepository;
 import estoque.com.br.repositories.ProdutoRepository;
+import estoque.com.br.util.OrcamentoTotals;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
 
 @Service
 public class ItemOrcamentoService {
@@ -27,7 +36,14 @@ public class ItemOrcamentoService {
     ProdutoRepository produtoRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    OrcamentoRepository orcamentoRepository;
+
+    @Autowired
+    OrcamentoEventoService eventos;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
 
     public List<ItemOrcamentoVO> findAll() {
 
@@ -35,7 +51,7 @@ public class ItemOrcamentoService {
 
         var itens = repository.findAll();
         return itens.stream()
-                    .map(item -> modelMapper.map(item, ItemOrcamentoVO.class))
+                    .map(ItemOrcamentoMapper::toVO)
                     .collect(Collectors.toList());
     }
 
@@ -45,9 +61,10 @@ public class ItemOrcamentoService {
 
         var entity = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Não foi encontrado esse ID!"));
-        return modelMapper.map(entity, ItemOrcamentoVO.class);
+        return ItemOrcamentoMapper.toVO(entity);
     }
 
+    @Transactional
     public ItemOrcamentoVO create(ItemOrcamentoVO itemOrcamentoVO) {
 
         if (itemOrcamentoVO == null) {
@@ -59,13 +76,22 @@ public class ItemOrcamentoService {
         var produto = produtoRepository.findById(itemOrcamentoVO.getProdutoId())
                 .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado!"));
 
-        var entity = modelMapper.map(itemOrcamentoVO, ItemOrcamento.class);
+        var entity = ItemOrcamentoMapper.toEntity(itemOrcamentoVO);
         entity.setProduto(produto);
-        
-        var vo = modelMapper.map(repository.save(entity), ItemOrcamentoVO.class);
+
+        if (itemOrcamentoVO.getOrcamentoId() != null) {
+            var orcamento = orcamentoRepository.findById(itemOrcamentoVO.getOrcamentoId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Orçamento não encontrado!"));
+            travarAberto(orcamento);
+            entity.setOrcamento(orcamento);
+            ajustarOrcamento(orcamento, BigDecimal.ZERO, OrcamentoTotals.subtotal(entity), 1);
+        }
+
+        var vo = ItemOrcamentoMapper.toVO(repository.save(entity));
         return vo;
     }
 
+    @Transactional
     public ItemOrcamentoVO update(ItemOrcamentoVO itemOrcamentoVO) {
 
         if (itemOrcamentoVO == null) {
@@ -80,20 +106,57 @@ public class ItemOrcamentoService {
         var produto = produtoRepository.findById(itemOrcamentoVO.getProdutoId())
                 .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado!"));
 
+        if (entity.getOrcamento() != null) {
+            travarAberto(entity.getOrcamento());
+            OrcamentoTotals.garantir(entity.getOrcamento());
+        }
+        var antes = OrcamentoTotals.subtotal(entity);
         entity.setProduto(produto);
-        entity.setQuantidade(itemOrcamentoVO.getQuantidade());
-        entity.setPrecoUnitario(itemOrcamentoVO.getPrecoUnitario());
+        entity.setQuantidade(OrcamentoTotals.centavos(itemOrcamentoVO.getQuantidade()));
+        entity.setPrecoUnitario(OrcamentoTotals.centavos(itemOrcamentoVO.getPrecoUnitario()));
+        ajustarOrcamento(entity.getOrcamento(), antes, OrcamentoTotals.subtotal(entity), 0);
 
-        var vo = modelMapper.map(repository.save(entity), ItemOrcamentoVO.class);
+        var vo = ItemOrcamentoMapper.toVO(repository.save(entity));
         return vo;
     }
 
+    @Transactional
     public void delete(Long id) {
 
         logger.info("Deletando item de orçamento");
 
         var entity = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("ID não encontrado!"));
+        if (entity.getOrcamento() != null) {
+            travarAberto(entity.getOrcamento());
+        }
+        ajustarOrcamento(entity.getOrcamento(), OrcamentoTotals.subtotal(entity), BigDecimal.ZERO, -1);
         repository.delete(entity);
     }
+
+    // O orcamento foi lido antes da trava e pode estar velho; a releitura com
+    // lock enxerga a ultima aprovacao mesmo em REPEATABLE READ, entao o status
+    // conferido e o total ajustado sao os atuais
+    private void travarAberto(Orcamento orcamento) {
+        eventos.capturar(List.of(orcamento.getId()));
+        entityManager.refresh(orcamento, LockModeType.PESSIMISTIC_WRITE);
+        verificarAberto(orcamento);
+    }
+
+    // itens de orcamento aprovado ja tem estoque reservado
+    private void verificarAberto(Orcamento orcamento) {
+        if (StatusOrcamento.isFechado(orcamento.getStatus())) {
+            throw new ResourceConflictException("Orçamento aprovado ou cancelado não pode ser alterado!");
+        }
+    }
+
+    // O orcamento e carregado na mesma transacao, entao o novo total vai junto
+    // com a gravacao do item
+    private void ajustarOrcamento(Orcamento orcamento, BigDecimal antes, BigDecimal depois, int itens) {
+        if (orcamento == null) {
+            return;
+        }
+        OrcamentoTotals.garantir(orcamento);
+        OrcamentoTotals.ajustar(orcamento, antes, depois, itens);
+    }
    }
\ No newline at end of file
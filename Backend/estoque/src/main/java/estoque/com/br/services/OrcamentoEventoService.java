@@ -0,0 +1,181 @@
+package estoque.com.br.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import estoque.com.br.data.vo.OrcamentoEventoVO;
+import estoque.com.br.data.vo.ResumoVendaVO;
+import estoque.com.br.model.StatusOrcamento;
+import estoque.com.br.model.TipoEventoOrcamento;
+import estoque.com.br.outbox.OutboxPublisher;
+import estoque.com.br.repositories.ResumoVendaRepository;
+import estoque.com.br.util.ResumoVendas;
+import estoque.com.br.util.ResumoVendas.Linha;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Publica no outbox um evento por orcamento alterado na transacao. Quem altera
+ * orcamentos chama {@link #capturar} antes de mexer neles (ou
+ * {@link #capturarNovos} para os recem criados): o estado de antes e lido na
+ * hora, com os orcamentos travados, e o de depois no beforeCommit. O tipo do
+ * evento sai da comparacao dos dois, e o payload leva a diferenca no resumo
+ * de vendas, que o RelatorioVendasService aplica fora da requisicao.
+ */
+@Service
+public class OrcamentoEventoService {
+
+	// limite de ids por IN nas consultas de captura
+	private static final int BLOCO = 1000;
+
+	@Autowired
+	private ResumoVendaRepository repository;
+
+	@Autowired
+	private OutboxPublisher publisher;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/**
+	 * Registra o estado atual dos orcamentos antes de uma alteracao. Deve ser
+	 * chamado dentro da transacao que altera, antes de qualquer mudanca;
+	 * orcamentos ja capturados na mesma transacao sao ignorados.
+	 */
+	public void capturar(Collection<Long> orcamentoIds) {
+		var pendente = pendente();
+		var novos = pendente.adicionar(orcamentoIds);
+		if (novos.isEmpty()) {
+			return;
+		}
+		for (Linha linha : buscar(novos, ids -> {
+			repository.lockOrcamentos(ids);
+			return repository.findLinhas(ids);
+		})) {
+			pendente.antes.get(linha.orcamentoId()).add(linha);
+		}
+	}
+
+	/**
+	 * Orcamentos criados na transacao corrente: o antes e vazio.
+	 */
+	public void capturarNovos(Collection<Long> orcamentoIds) {
+		pendente().adicionar(orcamentoIds);
+	}
+
+	public void capturarPorCliente(Long clienteId) {
+		capturar(repository.findOrcamentoIdsByClienteId(clienteId));
+	}
+
+	/**
+	 * Troca de tipo de produto muda de linha no resumo todos os orcamentos com
+	 * o produto.
+	 */
+	public void capturarPorProduto(Long produtoId) {
+		capturar(repository.findOrcamentoIdsByProdutoId(produtoId));
+	}
+
+	private List<Linha> buscar(List<Long> ids, Function<List<Long>, List<Object[]>> consulta) {
+		List<Linha> linhas = new ArrayList<>();
+		for (int i = 0; i < ids.size(); i += BLOCO) {
+			for (Object[] row : consulta.apply(ids.subList(i, Math.min(i + BLOCO, ids.size())))) {
+				linhas.add(Linha.of(row));
+			}
+		}
+		return linhas;
+	}
+
+	private Pendente pendente() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			throw new IllegalStateException("Alteracao de orcamento fora de transacao nao gera eventos");
+		}
+		for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			if (synchronization instanceof Pendente pendente) {
+				return pendente;
+			}
+		}
+		var pendente = new Pendente();
+		TransactionSynchronizationManager.registerSynchronization(pendente);
+		return pendente;
+	}
+
+	private static TipoEventoOrcamento tipo(List<Linha> antes, List<Linha> depois, String statusAnterior, String status) {
+		if (antes.isEmpty()) {
+			return TipoEventoOrcamento.ORCAMENTO_CRIADO;
+		}
+		if (depois.isEmpty()) {
+			return TipoEventoOrcamento.ORCAMENTO_EXCLUIDO;
+		}
+		if (!Objects.equals(statusAnterior, status)) {
+			if (StatusOrcamento.APROVADO.equalsIgnoreCase(status)) {
+				return TipoEventoOrcamento.ORCAMENTO_APROVADO;
+			}
+			if (StatusOrcamento.CANCELADO.equalsIgnoreCase(status)) {
+				return TipoEventoOrcamento.ORCAMENTO_CANCELADO;
+			}
+		}
+		return TipoEventoOrcamento.ORCAMENTO_ALTERADO;
+	}
+
+	/**
+	 * Orcamentos capturados numa transacao, com as linhas de antes da alteracao.
+	 */
+	private class Pendente implements TransactionSynchronization {
+
+		private final Map<Long, List<Linha>> antes = new LinkedHashMap<>();
+
+		List<Long> adicionar(Collection<Long> orcamentoIds) {
+			List<Long> novos = new ArrayList<>();
+			for (Long id : orcamentoIds) {
+				if (id != null && !antes.containsKey(id)) {
+					antes.put(id, new ArrayList<>());
+					novos.add(id);
+				}
+			}
+			return novos;
+		}
+
+		@Override
+		public void beforeCommit(boolean readOnly) {
+			if (antes.isEmpty()) {
+				return;
+			}
+			// o depois tem que ver o que ainda esta so no contexto de persistencia
+			entityManager.flush();
+			Map<Long, List<Linha>> depois = new TreeMap<>();
+			for (Linha linha : buscar(new ArrayList<>(antes.keySet()), repository::findLinhas)) {
+				depois.computeIfAbsent(linha.orcamentoId(), id -> new ArrayList<>()).add(linha);
+			}
+
+			// em ordem de id, a mesma em que o dispatcher entrega
+			for (Map.Entry<Long, List<Linha>> entry : new TreeMap<>(antes).entrySet()) {
+				var linhasAntes = entry.getValue();
+				var linhasDepois = depois.getOrDefault(entry.getKey(), List.of());
+				if (linhasAntes.isEmpty() && linhasDepois.isEmpty()) {
+					continue;
+				}
+				var evento = new OrcamentoEventoVO();
+				evento.setOrcamentoId(entry.getKey());
+				evento.setStatusAnterior(linhasAntes.isEmpty() ? null : linhasAntes.get(0).status());
+				evento.setStatus(linhasDepois.isEmpty() ? null : linhasDepois.get(0).status());
+				ResumoVendas.diferenca(ResumoVendas.somar(linhasAntes), ResumoVendas.somar(linhasDepois))
+						.forEach((chave, valores) -> evento.getResumo().add(new ResumoVendaVO(chave.dia(), chave.dimensao(),
+								chave.chave(), chave.status(), valores.orcamentos(), valores.quantidade(), valores.valor())));
+
+				var tipo = tipo(linhasAntes, linhasDepois, evento.getStatusAnterior(), evento.getStatus());
+				publisher.publicar(TipoEventoOrcamento.AGREGADO, entry.getKey(), tipo.name(), evento);
+			}
+		}
+	}
+}
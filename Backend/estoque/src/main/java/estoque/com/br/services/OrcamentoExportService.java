@@ -0,0 +1,217 @@
+package estoque.com.br.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.logging.Logger;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.SelectionQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Exportacao de orcamentos com itens direto de um cursor forward-only do
+ * banco para a resposta, sem carregar entidades nem montar paginas. A consulta
+ * devolve uma linha por item (ordenada por orcamento), entao a memoria usada
+ * nao depende do tamanho da exportacao.
+ */
+@Service
+public class OrcamentoExportService {
+
+	public enum Format { NDJSON, CSV }
+
+	private Logger logger = Logger.getLogger(OrcamentoExportService.class.getName());
+
+	private static final String SELECT = "SELECT o.id, o.dataCriacao, o.dataValidade, o.status, c.id, u.id, o.total,"
+			+ " i.id, p.id, i.quantidade, i.precoUnitario"
+			+ " FROM Orcamento o LEFT JOIN o.cliente c LEFT JOIN o.usuario u"
+			+ " LEFT JOIN o.itens i LEFT JOIN i.produto p";
+
+	private static final String ORDER_BY = " ORDER BY o.id, i.id";
+
+	private static final String CSV_HEADER = "orcamento_id,data_criacao,data_validade,status,cliente_id,vendedor_id,total,"
+			+ "item_id,produto_id,quantidade,preco_unitario";
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	public StreamingResponseBody export(Format format, LocalDate from, LocalDate to, String status) {
+		logger.info("Exportando orcamentos em " + format);
+
+		return out -> {
+			var transaction = new TransactionTemplate(transactionManager);
+			transaction.setReadOnly(true);
+			transaction.executeWithoutResult(tx -> {
+				try (ScrollableResults<Object[]> rows = query(from, to, status).scroll(ScrollMode.FORWARD_ONLY)) {
+					if (format == Format.CSV) {
+						writeCsv(rows, out);
+					} else {
+						writeNdjson(rows, out);
+					}
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		};
+	}
+
+	private SelectionQuery<Object[]> query(LocalDate from, LocalDate to, String status) {
+		var hql = new StringBuilder(SELECT).append(" WHERE 1 = 1");
+		if (from != null) {
+			hql.append(" AND o.dataCriacao >= :from");
+		}
+		if (to != null) {
+			hql.append(" AND o.dataCriacao < :to");
+		}
+		if (status != null) {
+			hql.append(" AND o.status = :status");
+		}
+		hql.append(ORDER_BY);
+
+		var query = entityManager.unwrap(Session.class).createSelectionQuery(hql.toString(), Object[].class);
+		if (from != null) {
+			query.setParameter("from", startOf(from));
+		}
+		if (to != null) {
+			// "to" e inclusivo: vai ate o inicio do dia seguinte
+			query.setParameter("to", startOf(to.plusDays(1)));
+		}
+		if (status != null) {
+			query.setParameter("status", status);
+		}
+		// Integer.MIN_VALUE faz o driver do MySQL trazer as linhas uma a uma
+		return query.setFetchSize(Integer.MIN_VALUE).setReadOnly(true);
+	}
+
+	private void writeNdjson(ScrollableResults<Object[]> rows, OutputStream out) throws IOException {
+		JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+		json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+		Long current = null;
+		while (rows.next()) {
+			Object[] row = rows.get();
+			Long id = (Long) row[0];
+			if (!id.equals(current)) {
+				if (current != null) {
+					endOrcamento(json);
+				}
+				json.writeStartObject();
+				writeNumber(json, "id", id);
+				writeDate(json, "dataCriacao", (Date) row[1]);
+				writeDate(json, "dataValidade", (Date) row[2]);
+				json.writeStringField("status", (String) row[3]);
+				writeNumber(json, "clienteId", (Long) row[4]);
+				writeNumber(json, "vendedorId", (Long) row[5]);
+				writeNumber(json, "total", (BigDecimal) row[6]);
+				json.writeArrayFieldStart("itens");
+				current = id;
+			}
+			if (row[7] != null) {
+				json.writeStartObject();
+				writeNumber(json, "id", (Long) row[7]);
+				writeNumber(json, "produtoId", (Long) row[8]);
+				writeNumber(json, "quantidade", (BigDecimal) row[9]);
+				writeNumber(json, "precoUnitario", (BigDecimal) row[10]);
+				json.writeEndObject();
+			}
+		}
+		if (current != null) {
+			endOrcamento(json);
+		}
+		json.flush();
+	}
+
+	private void endOrcamento(JsonGenerator json) throws IOException {
+		json.writeEndArray();
+		json.writeEndObject();
+		json.writeRaw('\n');
+	}
+
+	private void writeCsv(ScrollableResults<Object[]> rows, OutputStream out) throws IOException {
+		Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		csv.write(CSV_HEADER);
+		csv.write('\n');
+		while (rows.next()) {
+			Object[] row = rows.get();
+			for (int i = 0; i < row.length; i++) {
+				if (i > 0) {
+					csv.write(',');
+				}
+				csv.write(csvValue(row[i]));
+			}
+			csv.write('\n');
+		}
+		csv.flush();
+	}
+
+	private String csvValue(Object value) {
+		if (value == null) {
+			return "";
+		}
+		if (value instanceof Date date) {
+			return date.toInstant().toString();
+		}
+		if (value instanceof BigDecimal decimal) {
+			return decimal.toPlainString();
+		}
+		String text = value.toString();
+		if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+			return '"' + text.replace("\"", "\"\"") + '"';
+		}
+		return text;
+	}
+
+	private void writeNumber(JsonGenerator json, String field, Long value) throws IOException {
+		if (value == null) {
+			json.writeNullField(field);
+		} else {
+			json.writeNumberField(field, value);
+		}
+	}
+
+	private void writeNumber(JsonGenerator json, String field, BigDecimal value) throws IOException {
+		if (value == null) {
+			json.writeNullField(field);
+		} else {
+			json.writeNumberField(field, value);
+		}
+	}
+
+	private void writeDate(JsonGenerator json, String field, Date value) throws IOException {
+		if (value == null) {
+			json.writeNullField(field);
+		} else {
+			json.writeStringField(field, value.toInstant().toString());
+		}
+	}
+
+	private static Date startOf(LocalDate day) {
+		return Date.from(day.atStartOfDay(ZoneOffset.UTC).toInstant());
+	}
+}
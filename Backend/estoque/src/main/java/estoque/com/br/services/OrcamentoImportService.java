@@ -0,0 +1,233 @@
+package estoque.com.br.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import estoque.com.br.cache.ProdutoCatalogCache;
+import estoque.com.br.data.vo.ItemOrcamentoVO;
+import estoque.com.br.data.vo.OrcamentoImportReportVO;
+import estoque.com.br.data.vo.OrcamentoImportResultVO;
+import estoque.com.br.data.vo.OrcamentoImportResultVO.Status;
+import estoque.com.br.data.vo.OrcamentoVO;
+import estoque.com.br.mapper.OrcamentoMapper;
+import estoque.com.br.model.ItemOrcamento;
+import estoque.com.br.model.Orcamento;
+import estoque.com.br.model.Produto;
+import estoque.com.br.model.StatusOrcamento;
+import estoque.com.br.repositories.ClienteRepository;
+import estoque.com.br.repositories.OrcamentoRepository;
+import estoque.com.br.repositories.ProdutoRepository;
+import estoque.com.br.repositories.UsuarioRepository;
+import estoque.com.br.util.OrcamentoTotals;
+
+/**
+ * Importacao em lote de orcamentos vindos do ERP. O corpo e lido em streaming
+ * (array JSON ou NDJSON) e processado em blocos: para cada bloco clientes,
+ * vendedores e produtos sao conferidos com poucas consultas por conjunto de
+ * ids, e os orcamentos validos sao gravados numa transacao so. Se o bloco
+ * falhar no banco, cada registro e regravado sozinho para isolar o culpado.
+ */
+@Service
+public class OrcamentoImportService {
+
+	private Logger logger = Logger.getLogger(OrcamentoImportService.class.getName());
+
+	@Autowired
+	private OrcamentoRepository repository;
+
+	@Autowired
+	private ClienteRepository clienteRepository;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private ProdutoCatalogCache catalog;
+
+	@Autowired
+	private OrcamentoEventoService eventos;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${orcamento.import.chunk-size:500}")
+	private int chunkSize;
+
+	public OrcamentoImportReportVO importar(InputStream body) {
+		logger.info("Importando orcamentos em lote");
+
+		var report = new OrcamentoImportReportVO();
+		var transaction = new TransactionTemplate(transactionManager);
+		List<OrcamentoVO> chunk = new ArrayList<>(chunkSize);
+		int first = 0;
+		String invalid = null;
+
+		// readValues aceita tanto um array na raiz quanto valores separados por linha
+		try (MappingIterator<OrcamentoVO> records = objectMapper.readerFor(OrcamentoVO.class).readValues(body)) {
+			while (records.hasNextValue()) {
+				chunk.add(records.nextValue());
+				if (chunk.size() == chunkSize) {
+					importChunk(first, chunk, report, transaction);
+					first += chunk.size();
+					chunk.clear();
+				}
+			}
+		} catch (IOException e) {
+			invalid = "JSON invalido: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+		}
+
+		if (!chunk.isEmpty()) {
+			importChunk(first, chunk, report, transaction);
+			first += chunk.size();
+		}
+		if (invalid != null) {
+			// os registros anteriores ja foram gravados; a leitura para no erro
+			report.add(new OrcamentoImportResultVO(first, Status.REJECTED, null, invalid));
+		}
+
+		logger.info("Importacao concluida: " + report.getImported() + " importados, "
+				+ report.getRejected() + " rejeitados, " + report.getFailed() + " com falha");
+		return report;
+	}
+
+	private void importChunk(int first, List<OrcamentoVO> chunk, OrcamentoImportReportVO report,
+			TransactionTemplate transaction) {
+		Set<Long> clienteIds = new HashSet<>();
+		Set<Long> usuarioIds = new HashSet<>();
+		Set<Long> produtoIds = new HashSet<>();
+		for (OrcamentoVO vo : chunk) {
+			addIfPresent(clienteIds, vo.getClienteId());
+			addIfPresent(usuarioIds, vo.getVendedorId());
+			if (vo.getItens() != null) {
+				for (ItemOrcamentoVO item : vo.getItens()) {
+					addIfPresent(produtoIds, item.getProdutoId());
+				}
+			}
+		}
+		Set<Long> clientes = existing(clienteIds, clienteRepository::findExistingIds);
+		Set<Long> usuarios = existing(usuarioIds, usuarioRepository::findExistingIds);
+		Map<Long, Produto> produtos = catalog.getAll(produtoIds);
+
+		OrcamentoImportResultVO[] results = new OrcamentoImportResultVO[chunk.size()];
+		List<Integer> valid = new ArrayList<>();
+		List<Orcamento> entities = new ArrayList<>();
+		for (int i = 0; i < chunk.size(); i++) {
+			String error = validate(chunk.get(i), clientes, usuarios, produtos);
+			if (error != null) {
+				results[i] = new OrcamentoImportResultVO(first + i, Status.REJECTED, null, error);
+			} else {
+				valid.add(i);
+				entities.add(toEntity(chunk.get(i)));
+			}
+		}
+
+		try {
+			transaction.executeWithoutResult(tx -> eventos.capturarNovos(
+					repository.saveAll(entities).stream().map(Orcamento::getId).toList()));
+			for (int k = 0; k < valid.size(); k++) {
+				int i = valid.get(k);
+				results[i] = new OrcamentoImportResultVO(first + i, Status.IMPORTED, entities.get(k).getId(), null);
+			}
+		} catch (RuntimeException e) {
+			logger.warning("Falha ao gravar o bloco a partir do registro " + first + ", gravando um a um: " + e.getMessage());
+			for (int i : valid) {
+				results[i] = importOne(first + i, chunk.get(i), transaction);
+			}
+		}
+
+		for (OrcamentoImportResultVO result : results) {
+			report.add(result);
+		}
+	}
+
+	private OrcamentoImportResultVO importOne(int index, OrcamentoVO vo, TransactionTemplate transaction) {
+		var entity = toEntity(vo);
+		try {
+			transaction.executeWithoutResult(tx -> eventos.capturarNovos(List.of(repository.save(entity).getId())));
+			return new OrcamentoImportResultVO(index, Status.IMPORTED, entity.getId(), null);
+		} catch (RuntimeException e) {
+			return new OrcamentoImportResultVO(index, Status.FAILED, null,
+					NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+		}
+	}
+
+	private String validate(OrcamentoVO vo, Set<Long> clientes, Set<Long> usuarios, Map<Long, Produto> produtos) {
+		if (vo == null) {
+			return "Orcamento vazio";
+		}
+		if (StatusOrcamento.isFechado(vo.getStatus())) {
+			return "Status " + vo.getStatus() + " só pelos endpoints de aprovação e cancelamento";
+		}
+		if (vo.getClienteId() != null && !clientes.contains(vo.getClienteId())) {
+			return "Cliente não encontrado: " + vo.getClienteId();
+		}
+		if (vo.getVendedorId() != null && !usuarios.contains(vo.getVendedorId())) {
+			return "Vendedor não encontrado: " + vo.getVendedorId();
+		}
+		if (vo.getItens() != null) {
+			for (ItemOrcamentoVO item : vo.getItens()) {
+				if (item == null || item.getProdutoId() == null) {
+					return "Item sem produto";
+				}
+				if (!produtos.containsKey(item.getProdutoId())) {
+					return "Produto não encontrado: " + item.getProdutoId();
+				}
+			}
+		}
+		return null;
+	}
+
+	// Sempre um registro novo: ids vindos do ERP sao ignorados
+	private Orcamento toEntity(OrcamentoVO vo) {
+		var entity = OrcamentoMapper.toEntity(vo);
+		entity.setId(null);
+		if (entity.getItens() == null) {
+			entity.setItens(new ArrayList<>());
+		}
+		for (ItemOrcamento item : entity.getItens()) {
+			item.setId(null);
+			item.setOrcamento(entity);
+			// o Produto do mapper nao tem versao e seria tratado como novo
+			if (item.getProduto() != null) {
+				item.setProduto(produtoRepository.getReferenceById(item.getProduto().getId()));
+			}
+		}
+		OrcamentoTotals.recalcular(entity);
+		return entity;
+	}
+
+	private static void addIfPresent(Set<Long> ids, Long id) {
+		if (id != null) {
+			ids.add(id);
+		}
+	}
+
+	private static Set<Long> existing(Set<Long> ids, Function<Collection<Long>, List<Long>> finder) {
+		return ids.isEmpty() ? Collections.emptySet() : new HashSet<>(finder.apply(ids));
+	}
+}
@@ -1,14 +1,20 @@
 package estoque.com.br.services;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
@@ -16,16 +22,26 @@ import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import estoque.com.br.cache.ProdutoCatalogCache;
 import estoque.com.br.controllers.OrcamentoController;
 import estoque.com.br.data.vo.ItemOrcamentoVO;
 import estoque.com.br.data.vo.OrcamentoVO;
 import estoque.com.br.exceptions.RequiredObjectIsNullException;
+import estoque.com.br.exceptions.ResourceConflictException;
 import estoque.com.br.exceptions.ResourceNotFoundException;
+import estoque.com.br.mapper.OrcamentoMapper;
 import estoque.com.br.model.ItemOrcamento;
 import estoque.com.br.model.Orcamento;
+import estoque.com.br.model.Produto;
+import estoque.com.br.model.StatusOrcamento;
 import estoque.com.br.repositories.ClienteRepository;
+import estoque.com.br.repositories.KeysetSpecification;
 import estoque.com.br.repositories.OrcamentoRepository;
 import estoque.com.br.repositories.ProdutoRepository;
+import estoque.com.br.util.KeysetCursor;
+import estoque.com.br.util.KeysetPage;
+import estoque.com.br.util.OrcamentoTotals;
+import estoque.com.br.util.SelfLinkFactory;
 
 @Service
 public class OrcamentoService {
@@ -37,24 +53,36 @@ public class OrcamentoService {
     @Autowired
     ProdutoRepository produtoRepository;
 
+    @Autowired
+    ProdutoCatalogCache catalog;
+
     @Autowired
     ClienteRepository clienteRepository;
 
     @Autowired
-    PagedResourcesAssembler<OrcamentoVO> assembler;
+    EstoqueService estoqueService;
 
     @Autowired
-    private ModelMapper modelMapper;
+    OrcamentoEventoService eventos;
+
+    @Autowired
+    PagedResourcesAssembler<OrcamentoVO> assembler;
+
 
     @Transactional
     public PagedModel<EntityModel<OrcamentoVO>> findAll(Pageable pageable) {
         logger.info("Procurando todos os orcamentos");
-        var orcamentosPage = repository.findAll(pageable);
-        var orcamentosVOs = orcamentosPage.map(p -> {
-            OrcamentoVO orcamentoVO = modelMapper.map(p, OrcamentoVO.class);
+        // paginar so os ids e buscar o grafo depois evita uma consulta por
+        // linha (itens, cliente, vendedor) e o LIMIT sobre um JOIN FETCH
+        var idsPage = repository.findPageIds(pageable);
+        var orcamentos = findAllWithItens(idsPage.getContent());
+        var selfLinks = SelfLinkFactory.forController(OrcamentoController.class);
+        var orcamentosVOs = idsPage.map(id -> {
+            var p = orcamentos.get(id);
+            OrcamentoVO orcamentoVO = OrcamentoMapper.toVO(p);
             logger.log(Level.INFO, "Mapping Orcamento to OrcamentoVO: {0}", orcamentoVO);
             orcamentoVO.setItens(new ArrayList<>(orcamentoVO.getItens() != null ? orcamentoVO.getItens() : new ArrayList<>()));
-            orcamentoVO.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(OrcamentoController.class).findById(p.getId())).withSelfRel());
+            orcamentoVO.add(selfLinks.selfLink(p.getId()));
             return orcamentoVO;
         });
         Link findAllLink = WebMvcLinkBuilder.linkTo(
@@ -63,15 +91,43 @@ public class OrcamentoService {
         return assembler.toModel(orcamentosVOs, findAllLink);
     }
 
+    private Map<Long, Orcamento> findAllWithItens(List<Long> ids) {
+        Map<Long, Orcamento> orcamentos = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Orcamento orcamento : repository.findAllWithItensByIdIn(ids)) {
+                orcamentos.put(orcamento.getId(), orcamento);
+            }
+        }
+        return orcamentos;
+    }
+
+    @Transactional
+    public CollectionModel<EntityModel<OrcamentoVO>> findAllAfter(String after, Integer size, Direction direction) {
+
+        logger.info("Procurando orcamentos a partir de um cursor");
+
+        var orcamentos = KeysetSpecification.fetch(repository, "status",
+                KeysetCursor.decode(after), direction, size + 1);
+
+        var selfLinks = SelfLinkFactory.forController(OrcamentoController.class);
+        var sortDirection = direction.name().toLowerCase();
+
+        return KeysetPage.toModel(orcamentos, size, after,
+                e -> OrcamentoMapper.toVO(e).add(selfLinks.selfLink(e.getId())),
+                e -> new KeysetCursor(e.getStatus(), e.getId()),
+                cursor -> WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(OrcamentoController.class).findAllAfter(cursor, size, sortDirection)).withSelfRel());
+    }
+
     @Transactional
     public PagedModel<EntityModel<OrcamentoVO>> findOrcamentoById(Long id, Pageable pageable) {
         logger.info("Procurando orcamento por id");
         var orcamentoPage = repository.findOrcamentosById(id, pageable);
+        var selfLinks = SelfLinkFactory.forController(OrcamentoController.class);
         var orcamentoVosPage = orcamentoPage.map(b -> {
-            OrcamentoVO orcamentoVO = modelMapper.map(b, OrcamentoVO.class);
+            OrcamentoVO orcamentoVO = OrcamentoMapper.toVO(b);
             logger.log(Level.INFO, "Mapping Orcamento to OrcamentoVO: {0}", orcamentoVO);
             orcamentoVO.setItens(new ArrayList<>(orcamentoVO.getItens() != null ? orcamentoVO.getItens() : new ArrayList<>()));
-            orcamentoVO.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(OrcamentoController.class).findById(b.getId())).withSelfRel());
+            orcamentoVO.add(selfLinks.selfLink(b.getId()));
             return orcamentoVO;
         });
         Link link = WebMvcLinkBuilder.linkTo(
@@ -89,7 +145,7 @@ public class OrcamentoService {
             throw new ResourceNotFoundException("Não foi encontrado esse ID!");
         }
 
-        var vo = modelMapper.map(entity, OrcamentoVO.class);
+        var vo = OrcamentoMapper.toVO(entity);
         logger.log(Level.INFO, "Mapping Orcamento to OrcamentoVO: {0}", vo);
         vo.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(OrcamentoController.class).findById(id)).withSelfRel());
         return vo;
@@ -104,15 +160,22 @@ public class OrcamentoService {
         }
         logger.info("Criando um orcamento");
 
+        if (StatusOrcamento.isFechado(orcamento.getStatus())) {
+            throw new ResourceConflictException("Orçamento só pode ser aprovado ou cancelado pelos endpoints próprios!");
+        }
 
-        var entity = modelMapper.map(orcamento, Orcamento.class);
+        var entity = OrcamentoMapper.toEntity(orcamento);
 
 
         for (ItemOrcamento item : entity.getItens()) {
             item.setOrcamento(entity);
+            referenciarProduto(item);
         }
+        OrcamentoTotals.recalcular(entity);
 
-        var vo = modelMapper.map(repository.save(entity), OrcamentoVO.class);
+        var saved = repository.save(entity);
+        eventos.capturarNovos(List.of(saved.getId()));
+        var vo = OrcamentoMapper.toVO(saved);
 
 
         vo.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(OrcamentoController.class).findById(vo.getKey())).withSelfRel());
@@ -127,53 +190,126 @@ public class OrcamentoService {
         }
         logger.info("Alterando o orcamento");
 
-        var produtos = produtoRepository.findAllById(
+        // trava o orcamento antes de qualquer leitura, como aprovar e cancelar:
+        // uma aprovacao em andamento termina antes e o status lido abaixo ja e
+        // o dela. Em REPEATABLE READ a primeira leitura sem lock fixa o retrato,
+        // por isso a trava vem primeiro
+        if (orcamento.getKey() == null) {
+            throw new ResourceNotFoundException("ID Não encontrado!");
+        }
+        eventos.capturar(List.of(orcamento.getKey()));
+
+        // o catalogo so vai ao banco pelos produtos que ainda nao estao em cache;
+        // item sem produto fica fora da busca e e rejeitado em mergeItens
+        var produtos = catalog.getAll(
             orcamento.getItens().stream()
                 .map(ItemOrcamentoVO::getProdutoId)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList())
         );
         
         var cliente = clienteRepository.findById(orcamento.getClienteId())
             .orElseThrow(() -> new ResourceNotFoundException("Cliente não encontrado!"));
 
-        var entity = repository.findById(orcamento.getKey())
-            .orElseThrow(() -> new ResourceNotFoundException("ID Não encontrado!"));
+        var entity = repository.findByIdWithItens(orcamento.getKey());
+        if (entity == null) {
+            throw new ResourceNotFoundException("ID Não encontrado!");
+        }
+        // aprovado ja tem estoque reservado pelos itens atuais
+        if (StatusOrcamento.isFechado(entity.getStatus()) || StatusOrcamento.isFechado(orcamento.getStatus())) {
+            throw new ResourceConflictException("Orçamento aprovado ou cancelado não pode ser alterado!");
+        }
 
         entity.setCliente(cliente);
         entity.setDataValidade(orcamento.getDataValidade());
         entity.setStatus(orcamento.getStatus());
-        entity.setTotal(orcamento.getTotal());
 
-        entity.getItens().clear();
-        
-        if (!orcamento.getItens().isEmpty()) {
-            for (ItemOrcamentoVO vo : orcamento.getItens()) {
-                ItemOrcamento item = new ItemOrcamento();
-                item.setProduto(
-                    produtos.stream()
-                        .filter(p -> p.getId().equals(vo.getProdutoId()))
-                        .findFirst()
-                        .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado!"))
-                );
-                item.setQuantidade(vo.getQuantidade());
-                item.setPrecoUnitario(vo.getPrecoUnitario());
-                item.setOrcamento(entity);
-                entity.getItens().add(item);
-            }
-        }
+        mergeItens(entity, orcamento.getItens(), produtos);
 
-        var vo = modelMapper.map(repository.save(entity), OrcamentoVO.class);
+        var vo = OrcamentoMapper.toVO(repository.save(entity));
         vo.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(OrcamentoController.class).findById(vo.getKey())).withSelfRel());
         return vo;
     }
 
 
 
+    /**
+     * Aprova o orcamento reservando o estoque de todos os itens de uma vez.
+     */
+    public OrcamentoVO aprovar(Long id) {
+        estoqueService.aprovar(id);
+        return findById(id);
+    }
+
+    /**
+     * Cancela um orcamento aprovado e devolve o estoque reservado.
+     */
+    public OrcamentoVO cancelar(Long id) {
+        estoqueService.cancelar(id);
+        return findById(id);
+    }
+
+    /**
+     * Aplica os itens recebidos sobre os itens gravados, casando pelo id: so
+     * os itens alterados geram UPDATE, os novos INSERT e os que sumiram DELETE
+     * (orphanRemoval). Item com id que nao pertence ao orcamento entra como novo.
+     * Total e quantidade de itens sao ajustados pela diferenca de cada linha.
+     */
+    private void mergeItens(Orcamento entity, List<ItemOrcamentoVO> itens, Map<Long, Produto> produtos) {
+        OrcamentoTotals.garantir(entity);
+
+        Map<Long, ItemOrcamento> existentes = new HashMap<>();
+        for (ItemOrcamento item : entity.getItens()) {
+            existentes.put(item.getId(), item);
+        }
+
+        List<ItemOrcamento> novos = new ArrayList<>();
+        for (ItemOrcamentoVO vo : itens) {
+            if (vo.getProdutoId() == null || !produtos.containsKey(vo.getProdutoId())) {
+                throw new ResourceNotFoundException("Produto não encontrado!");
+            }
+            var item = vo.getKey() != null ? existentes.remove(vo.getKey()) : null;
+            var antes = OrcamentoTotals.subtotal(item);
+            int incluido = 0;
+            if (item == null) {
+                item = new ItemOrcamento();
+                item.setOrcamento(entity);
+                novos.add(item);
+                incluido = 1;
+            }
+            if (item.getProduto() == null || !item.getProduto().getId().equals(vo.getProdutoId())) {
+                item.setProduto(produtoRepository.getReferenceById(vo.getProdutoId()));
+            }
+            var quantidade = OrcamentoTotals.centavos(vo.getQuantidade());
+            if (item.getQuantidade() == null || quantidade == null
+                    || item.getQuantidade().compareTo(quantidade) != 0) {
+                item.setQuantidade(quantidade);
+            }
+            item.setPrecoUnitario(OrcamentoTotals.centavos(vo.getPrecoUnitario()));
+            OrcamentoTotals.ajustar(entity, antes, OrcamentoTotals.subtotal(item), incluido);
+        }
+
+        for (ItemOrcamento removido : existentes.values()) {
+            OrcamentoTotals.ajustar(entity, OrcamentoTotals.subtotal(removido), BigDecimal.ZERO, -1);
+        }
+        entity.getItens().removeIf(item -> existentes.containsKey(item.getId()));
+        entity.getItens().addAll(novos);
+    }
+
+    // o Produto montado pelo mapper so tem o id e nenhuma versao, e o Hibernate
+    // o trataria como entidade nova; a referencia nao vai ao banco
+    private void referenciarProduto(ItemOrcamento item) {
+        if (item.getProduto() != null && item.getProduto().getId() != null) {
+            item.setProduto(produtoRepository.getReferenceById(item.getProduto().getId()));
+        }
+    }
+
     @Transactional
     public void delete(Long id) {
         logger.info("Deletando o orcamento");
         var entity = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("ID não encontrado!"));
+        eventos.capturar(List.of(id));
         repository.delete(entity);
     }
 }
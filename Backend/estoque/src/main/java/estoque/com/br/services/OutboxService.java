@@ -0,0 +1,65 @@
+package estoque.com.br.services;
+
+import java.util.Date;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import estoque.com.br.data.vo.EventoOutboxVO;
+import estoque.com.br.exceptions.ResourceNotFoundException;
+import estoque.com.br.model.EventoOutbox;
+import estoque.com.br.model.StatusEvento;
+import estoque.com.br.outbox.OutboxDispatcher;
+import estoque.com.br.repositories.EventoOutboxRepository;
+
+/**
+ * Consulta e reprocessamento da fila de mortos do outbox.
+ */
+@Service
+public class OutboxService {
+
+	private Logger logger = Logger.getLogger(OutboxService.class.getName());
+
+	@Autowired
+	private EventoOutboxRepository repository;
+
+	@Autowired
+	private OutboxDispatcher dispatcher;
+
+	public List<EventoOutboxVO> findMortos(int limit) {
+		logger.info("Procurando eventos mortos do outbox");
+		return repository.findByStatusOrderByIdDesc(StatusEvento.MORTO, PageRequest.of(0, limit)).stream()
+				.map(OutboxService::toVO)
+				.toList();
+	}
+
+	/**
+	 * Devolve um evento morto para a fila com as tentativas zeradas.
+	 */
+	@Transactional
+	public void reprocessar(Long id) {
+		logger.info("Reprocessando o evento " + id + " do outbox");
+		if (repository.reprocessar(id, new Date()) == 0) {
+			throw new ResourceNotFoundException("Evento morto não encontrado!");
+		}
+		dispatcher.acordar();
+	}
+
+	private static EventoOutboxVO toVO(EventoOutbox evento) {
+		var vo = new EventoOutboxVO();
+		vo.setId(evento.getId());
+		vo.setAgregadoTipo(evento.getAgregadoTipo());
+		vo.setAgregadoId(evento.getAgregadoId());
+		vo.setTipo(evento.getTipo());
+		vo.setStatus(evento.getStatus());
+		vo.setTentativas(evento.getTentativas());
+		vo.setUltimoErro(evento.getUltimoErro());
+		vo.setDataCriacao(evento.getDataCriacao());
+		vo.setPayload(evento.getPayload());
+		return vo;
+	}
+}
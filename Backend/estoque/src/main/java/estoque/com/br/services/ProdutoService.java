@@ -3,23 +3,39 @@ package estoque.com.br.services;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import estoque.com.br.cache.ProdutoCatalogCache;
 import estoque.com.br.controllers.ProdutoController;
 import estoque.com.br.data.vo.ProdutoVO;
 import estoque.com.br.exceptions.RequiredObjectIsNullException;
+import estoque.com.br.exceptions.ResourceConflictException;
 import estoque.com.br.exceptions.ResourceNotFoundException;
+import estoque.com.br.mapper.ProdutoMapper;
 import estoque.com.br.model.Produto;
+import estoque.com.br.repositories.KeysetSpecification;
 import estoque.com.br.repositories.ProdutoRepository;
+import estoque.com.br.search.ProdutoSearchIndex;
+import estoque.com.br.util.KeysetCursor;
+import estoque.com.br.util.KeysetPage;
+import estoque.com.br.util.SelfLinkFactory;
 
 @Service
 public class ProdutoService {
@@ -33,7 +49,17 @@ public class ProdutoService {
     PagedResourcesAssembler<ProdutoVO> assembler;
 
     @Autowired
-    private ModelMapper modelMapper;
+    ProdutoSearchIndex searchIndex;
+
+    @Autowired
+    ProdutoCatalogCache catalog;
+
+    @Autowired
+    EstoqueService estoqueService;
+
+    @Autowired
+    OrcamentoEventoService eventos;
+
 
     public PagedModel<EntityModel<ProdutoVO>> findAll(Pageable pageable) {
 
@@ -41,8 +67,9 @@ public class ProdutoService {
 
         var produtosPage = repository.findAll(pageable);
 
-        var produtosVOs = produtosPage.map(p -> modelMapper.map(p, ProdutoVO.class));
-        produtosVOs.map(p -> p.add(linkTo(methodOn(ProdutoController.class).findById(p.getKey())).withSelfRel()));
+        var produtosVOs = produtosPage.map(ProdutoMapper::toVO);
+        var selfLinks = SelfLinkFactory.forController(ProdutoController.class);
+        produtosVOs.forEach(p -> p.add(selfLinks.selfLink(p.getKey())));
 
         Link findAllLink = linkTo(
                 methodOn(ProdutoController.class)
@@ -53,17 +80,41 @@ public class ProdutoService {
         return assembler.toModel(produtosVOs, findAllLink);
     }
 
+    public CollectionModel<EntityModel<ProdutoVO>> findAllAfter(String after, Integer size, Direction direction) {
+
+        logger.info("Procurando produtos a partir de um cursor");
+
+        var produtos = KeysetSpecification.fetch(repository, "nomeProduto",
+                KeysetCursor.decode(after), direction, size + 1);
+
+        var selfLinks = SelfLinkFactory.forController(ProdutoController.class);
+        var sortDirection = direction.name().toLowerCase();
+
+        return KeysetPage.toModel(produtos, size, after,
+                e -> ProdutoMapper.toVO(e).add(selfLinks.selfLink(e.getId())),
+                e -> new KeysetCursor(e.getNomeProduto(), e.getId()),
+                cursor -> linkTo(methodOn(ProdutoController.class).findAllAfter(cursor, size, sortDirection)).withSelfRel());
+    }
+
     public PagedModel<EntityModel<ProdutoVO>> findProdutoByName(String nomeProduto, Pageable pageable) {
 
         logger.info("Procurando produto por nome");
 
-        var produtoPage = repository.findProdutosByName(nomeProduto, pageable);
+        var result = searchIndex.search(nomeProduto, pageable.getOffset(), pageable.getPageSize());
+
+        // o indice devolve os ids ja ordenados por relevancia; o banco so carrega a pagina
+        var produtos = repository.findAllById(result.getIds()).stream()
+                .collect(Collectors.toMap(Produto::getId, Function.identity()));
+        var produtoVos = result.getIds().stream()
+                .map(produtos::get)
+                .filter(Objects::nonNull)
+                .map(ProdutoMapper::toVO)
+                .toList();
+        var produtoVosPage = new PageImpl<>(produtoVos,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()), result.getTotal());
 
-        var produtoVosPage = produtoPage.map(b -> modelMapper.map(b, ProdutoVO.class));
-        produtoVosPage.map(
-                    b -> b.add(
-                        linkTo(methodOn(ProdutoController.class)
-                                .findById(b.getKey())).withSelfRel()));
+        var selfLinks = SelfLinkFactory.forController(ProdutoController.class);
+        produtoVosPage.forEach(b -> b.add(selfLinks.selfLink(b.getKey())));
 
         Link link = linkTo(
                 methodOn(ProdutoController.class)
@@ -78,9 +129,11 @@ public class ProdutoService {
 
         logger.info("Procurando um produto");
 
-        var entity = repository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Não foi encontrado esse ID!"));
-        var vo = modelMapper.map(entity, ProdutoVO.class);
+        var entity = catalog.get(id);
+        if (entity == null) {
+            throw new ResourceNotFoundException("Não foi encontrado esse ID!");
+        }
+        var vo = ProdutoMapper.toVO(entity);
         vo.add(linkTo(methodOn(ProdutoController.class).findById(id)).withSelfRel());
         return vo;
     }
@@ -92,24 +145,48 @@ public class ProdutoService {
         }
 
         logger.info("Criando um produto");
-        var entity = modelMapper.map(produto, Produto.class);
-        var vo = modelMapper.map(repository.save(entity), ProdutoVO.class);
+        var novo = ProdutoMapper.toEntity(produto);
+        novo.setVersion(null);
+        var entity = repository.save(novo);
+        searchIndex.index(entity);
+        var vo = ProdutoMapper.toVO(entity);
         vo.add(linkTo(methodOn(ProdutoController.class).findById(vo.getKey())).withSelfRel());
         return vo;
     }
 
+    /**
+     * Com version no corpo, o update so passa se ninguem alterou o produto
+     * depois dessa leitura (reservas de estoque incluidas); sem version vale a
+     * versao lida aqui, o que ainda protege contra escrita concorrente.
+     */
+    @Transactional
     public ProdutoVO update(Long id, ProdutoVO produtoVO) {
         Produto produto = repository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com id: " + id));
 
+        if (produtoVO.getVersion() != null && !produtoVO.getVersion().equals(produto.getVersion())) {
+            throw new ResourceConflictException("Produto alterado por outra operação, recarregue e tente de novo!");
+        }
+
+        // troca de tipo move o historico do produto de linha no resumo de vendas
+        if (produto.getTipoProduto() != produtoVO.getTipoProduto()) {
+            eventos.capturarPorProduto(id);
+        }
+        var quantidadeAnterior = produto.getQuantidadeProduto();
         produto.setQuantidadeProduto(produtoVO.getQuantidadeProduto());
         produto.setNomeProduto(produtoVO.getNomeProduto());
         produto.setTipoProduto(produtoVO.getTipoProduto());
         produto.setValor(produtoVO.getValor());
-        
-        repository.save(produto);
+        estoqueService.registrarAjuste(id, quantidadeAnterior, produto.getQuantidadeProduto());
+
+        // flush aqui para o conflito de versao aparecer antes de mexer no cache e no indice
+        repository.saveAndFlush(produto);
+        catalog.invalidateAfterCommit(List.of(id));
+        searchIndex.indexAfterCommit(produto);
 
-        return new ProdutoVO();
+        var vo = ProdutoMapper.toVO(produto);
+        vo.add(linkTo(methodOn(ProdutoController.class).findById(id)).withSelfRel());
+        return vo;
     }
 
     public void delete(Long id) {
@@ -119,5 +196,7 @@ public class ProdutoService {
         var entity = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("ID não encontrado!"));
         repository.delete(entity);
+        catalog.invalidate(id);
+        searchIndex.remove(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package estoque.com.br.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import estoque.com.br.data.vo.OrcamentoEventoVO;
+import estoque.com.br.data.vo.ResumoVendaVO;
+import estoque.com.br.exceptions.InvalidPeriodException;
+import estoque.com.br.exceptions.ResourceConflictException;
+import estoque.com.br.model.DimensaoRelatorio;
+import estoque.com.br.model.EventoOutbox;
+import estoque.com.br.model.TipoEventoOrcamento;
+import estoque.com.br.outbox.OutboxConsumer;
+import estoque.com.br.repositories.ResumoVendaRepository;
+import estoque.com.br.util.ResumoVendas;
+import estoque.com.br.util.ResumoVendas.Linha;
+
+/**
+ * Resumo diario de vendas por cliente, vendedor, produto e tipo de produto,
+ * mantido por diferencas. Cada evento de orcamento do outbox traz o que o
+ * orcamento mudou no resumo, e a soma e gravada na mesma transacao que marca
+ * o evento como processado, entao cada diferenca entra uma vez so.
+ */
+@Service
+public class RelatorioVendasService implements OutboxConsumer {
+
+	private Logger logger = Logger.getLogger(RelatorioVendasService.class.getName());
+
+	@Autowired
+	private ResumoVendaRepository repository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	// cada dia e uma transacao que le os orcamentos do dia inteiro
+	@Value("${relatorio.reconstruir.max-dias:366}")
+	private long maxDias;
+
+	private final TransactionTemplate transaction;
+
+	public RelatorioVendasService(PlatformTransactionManager transactionManager) {
+		this.transaction = new TransactionTemplate(transactionManager);
+	}
+
+	public List<ResumoVendaVO> findResumo(DimensaoRelatorio dimensao, LocalDate de, LocalDate ate, String chave,
+			String status) {
+		logger.info("Procurando o resumo de vendas por " + dimensao);
+		return repository.findResumo(dimensao, de, ate, chave, status).stream()
+				.map(r -> new ResumoVendaVO(r.getDia(), r.getDimensao(), r.getChave(), r.getStatus(),
+						r.getOrcamentos(), r.getQuantidade(), r.getValor()))
+				.toList();
+	}
+
+	@Override
+	public boolean aceita(String tipo) {
+		return TipoEventoOrcamento.isEvento(tipo);
+	}
+
+	@Override
+	public void consumir(EventoOutbox evento) {
+		OrcamentoEventoVO payload;
+		try {
+			payload = objectMapper.readValue(evento.getPayload(), OrcamentoEventoVO.class);
+		} catch (JsonProcessingException e) {
+			throw new IllegalArgumentException("Payload invalido no evento " + evento.getId(), e);
+		}
+		// as linhas ja vem em ordem de chave primaria
+		for (ResumoVendaVO linha : payload.getResumo()) {
+			repository.somar(linha.getDimensao().name(), linha.getDia(), linha.getChave(), linha.getStatus(),
+					linha.getOrcamentos(), linha.getQuantidade(), linha.getValor());
+		}
+	}
+
+	/**
+	 * Recalcula o resumo dos dias do periodo a partir dos orcamentos, um dia
+	 * por transacao. Periodo invertido ou com mais de
+	 * relatorio.reconstruir.max-dias dias e recusado.
+	 *
+	 * Cada dia trava os seus orcamentos antes de ler: alteracoes concorrentes
+	 * esperam e publicam o evento depois, sobre o resumo ja refeito. Evento
+	 * ainda pendente de orcamento do periodo seria somado de novo depois da
+	 * reconstrucao, entao nesse caso a chamada e recusada com 409; os dias ja
+	 * refeitos ficam como estao e a chamada pode ser repetida.
+	 */
+	public void reconstruir(LocalDate de, LocalDate ate) {
+		if (de.isAfter(ate)) {
+			throw new InvalidPeriodException("Start date must not be after end date!");
+		}
+		if (ChronoUnit.DAYS.between(de, ate) + 1 > maxDias) {
+			throw new InvalidPeriodException("Period must not exceed " + maxDias + " days!");
+		}
+		logger.info("Reconstruindo o resumo de vendas de " + de + " a " + ate);
+		// falha logo, antes de refazer qualquer dia
+		verificarSemEventosPendentes(de.atStartOfDay(), ate.plusDays(1).atStartOfDay());
+		for (LocalDate dia = de; !dia.isAfter(ate); dia = dia.plusDays(1)) {
+			var inicio = dia.atStartOfDay();
+			var fim = dia.plusDays(1).atStartOfDay();
+			var alvo = dia;
+			transaction.executeWithoutResult(tx -> {
+				// a trava vem antes de qualquer leitura, para o retrato do dia
+				// ja incluir o que fez commit enquanto ela era esperada
+				repository.lockOrcamentosByPeriodo(inicio, fim);
+				verificarSemEventosPendentes(inicio, fim);
+				var linhas = repository.findLinhasByPeriodo(inicio, fim);
+				repository.deleteByDia(alvo);
+				var resumo = ResumoVendas.diferenca(Map.of(), ResumoVendas.somar(linhas.stream().map(Linha::of).toList()));
+				resumo.forEach((chave, valores) -> repository.somar(chave.dimensao().name(), chave.dia(), chave.chave(),
+						chave.status(), valores.orcamentos(), valores.quantidade(), valores.valor()));
+			});
+		}
+	}
+
+	private void verificarSemEventosPendentes(LocalDateTime inicio, LocalDateTime fim) {
+		if (repository.countEventosPendentesByPeriodo(inicio, fim) > 0) {
+			throw new ResourceConflictException("Há eventos de orçamento pendentes no período, tente de novo em instantes!");
+		}
+	}
+}
@@ -4,36 +4,50 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
 import estoque.com.br.controllers.UsuarioController;
 import estoque.com.br.data.vo.UsuarioVO;
 import estoque.com.br.exceptions.ResourceNotFoundException;
+import estoque.com.br.mapper.UsuarioMapper;
 import estoque.com.br.model.Permission;
 import estoque.com.br.model.Usuario;
+import estoque.com.br.repositories.KeysetSpecification;
 import estoque.com.br.repositories.PermissionRepository;
 import estoque.com.br.repositories.UsuarioRepository;
+import estoque.com.br.security.jwt.JwtAuthenticationCache;
+import estoque.com.br.security.jwt.JwtTokenRevocationRegistry;
+import estoque.com.br.util.KeysetCursor;
+import estoque.com.br.util.KeysetPage;
+import estoque.com.br.util.SelfLinkFactory;
 
 @Service
-public class UsuarioService implements UserDetailsService {
+public class UsuarioService implements UserDetailsService, UserDetailsPasswordService {
 
     private Logger logger = Logger.getLogger(UsuarioService.class.getName());
 
@@ -49,8 +63,12 @@ public class UsuarioService implements UserDetailsService {
     @Autowired
     PagedResourcesAssembler<UsuarioVO> assembler;
     
+
+    @Autowired
+    private JwtAuthenticationCache authenticationCache;
+
     @Autowired
-    private ModelMapper modelMapper;
+    private JwtTokenRevocationRegistry revocationRegistry;
 
 
     public UsuarioService(UsuarioRepository repository, PasswordEncoder passwordEncoder) {
@@ -62,6 +80,9 @@ public class UsuarioService implements UserDetailsService {
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         logger.info("Finding one user by name " + username + "!");
         Usuario user = repository.findByUsername(username);
+        if (user == null) {
+            throw new UsernameNotFoundException("Username " + username + " not found!");
+        }
         
         List<GrantedAuthority> authorities = user.getPermissions().stream()
             .map(permission -> new SimpleGrantedAuthority(permission.getDescription()))
@@ -80,14 +101,26 @@ public class UsuarioService implements UserDetailsService {
         );
     }
     
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        logger.info("Atualizando o hash da senha de " + user.getUsername() + " para a política atual");
+        Usuario usuario = repository.findByUsername(user.getUsername());
+        if (usuario != null) {
+            usuario.setPassword(newPassword);
+            repository.save(usuario);
+        }
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+
     public PagedModel<EntityModel<UsuarioVO>> findAll(Pageable pageable){
     	
     	logger.info("Procurando todos os usuários");
     	
     	var usuariosPage = repository.findAll(pageable);
     	
-    	var usuariosVOs = usuariosPage.map(p -> modelMapper.map(p, UsuarioVO.class));
-    	usuariosVOs.map(p -> p.add(linkTo(methodOn(UsuarioController.class).findById(p.getKey())).withSelfRel()));
+    	var usuariosVOs = usuariosPage.map(UsuarioMapper::toVO);
+    	var selfLinks = SelfLinkFactory.forController(UsuarioController.class);
+    	usuariosVOs.forEach(p -> p.add(selfLinks.selfLink(p.getKey())));
     	
     	Link findAllLink = linkTo(
     			methodOn(UsuarioController.class)
@@ -98,6 +131,22 @@ public class UsuarioService implements UserDetailsService {
     	return assembler.toModel(usuariosVOs, findAllLink);
     }
 
+    public CollectionModel<EntityModel<UsuarioVO>> findAllAfter(String after, Integer size, Direction direction) {
+
+        logger.info("Procurando usuarios a partir de um cursor");
+
+        var usuarios = KeysetSpecification.fetch(repository, "userName",
+                KeysetCursor.decode(after), direction, size + 1);
+
+        var selfLinks = SelfLinkFactory.forController(UsuarioController.class);
+        var sortDirection = direction.name().toLowerCase();
+
+        return KeysetPage.toModel(usuarios, size, after,
+                e -> UsuarioMapper.toVO(e).add(selfLinks.selfLink(e.getId())),
+                e -> new KeysetCursor(e.getUserName(), e.getId()),
+                cursor -> linkTo(methodOn(UsuarioController.class).findAllAfter(cursor, size, sortDirection)).withSelfRel());
+    }
+
     public PagedModel<EntityModel<UsuarioVO>> findUsuarioByUserName(String userName, Pageable pageable) {
         logger.info("Procurando usuario por nome");
 
@@ -107,11 +156,9 @@ public class UsuarioService implements UserDetailsService {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado");
         }
 
-        var usuarioVosPage = usuarioPage.map(b -> modelMapper.map(b, UsuarioVO.class));
-        usuarioVosPage.map(
-                b -> b.add(
-                        linkTo(methodOn(UsuarioController.class)
-                                .findById(b.getKey())).withSelfRel()));
+        var usuarioVosPage = usuarioPage.map(UsuarioMapper::toVO);
+        var selfLinks = SelfLinkFactory.forController(UsuarioController.class);
+        usuarioVosPage.forEach(b -> b.add(selfLinks.selfLink(b.getKey())));
 
         Link link = linkTo(
                 methodOn(UsuarioController.class)
@@ -131,14 +178,14 @@ public class UsuarioService implements UserDetailsService {
     	var entity = repository.findById(id)
     			.orElseThrow(() -> new ResourceNotFoundException("Não foi encontrado esse ID!"));
     	
-    	var vo = modelMapper.map(entity, UsuarioVO.class);
+    	var vo = UsuarioMapper.toVO(entity);
     	
     	return vo.add(linkTo(methodOn(UsuarioController.class).findById(id)).withSelfRel());
     }
     
     public UsuarioVO criarUsuario(Usuario usuario, Pageable pageable) {
         
-        Usuario usuarioExistente = repository.findByUserName(usuario.getUserName(), pageable).getContent().stream().findFirst().orElse(null);
+        Usuario usuarioExistente = repository.findByUsername(usuario.getUserName());
         if(usuarioExistente != null) {
             throw new IllegalArgumentException("Usuário já existe");
         }
@@ -156,19 +203,25 @@ public class UsuarioService implements UserDetailsService {
         Usuario usuarioSalvo = repository.save(usuario);
 
         // Mapeia o usuário salvo para UsuarioVO e adiciona o link self-relacional
-        UsuarioVO usuarioVO = modelMapper.map(usuarioSalvo, UsuarioVO.class);
+        UsuarioVO usuarioVO = UsuarioMapper.toVO(usuarioSalvo);
         usuarioVO.add(linkTo(methodOn(UsuarioController.class).findById(usuarioVO.getKey())).withSelfRel());
 
         return usuarioVO;
     }
 
+    @Transactional
     public UsuarioVO update(Long id, Usuario usuarioAtualizado) {
         Usuario usuarioExistente = repository.findById(id)
             .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
 
+        String userNameAnterior = usuarioExistente.getUserName();
+        List<String> rolesAnteriores = usuarioExistente.getRoles();
+        boolean senhaAlterada = false;
+
         // Verifica se uma nova senha foi fornecida e, se sim, criptografa
         if (usuarioAtualizado.getPassword() != null && !usuarioAtualizado.getPassword().isEmpty()) {
             usuarioExistente.setPassword(passwordEncoder.encode(usuarioAtualizado.getPassword()));
+            senhaAlterada = true;
         }
 
         // Atualiza outros campos do usuário
@@ -185,10 +238,18 @@ public class UsuarioService implements UserDetailsService {
         }
         usuarioExistente.setPermissions(permissions);
 
+        // Tokens já emitidos deixam de valer quando senha, permissões ou nome mudam;
+        // a revogação é gravada junto com a alteração
+        if (senhaAlterada || !rolesAnteriores.equals(usuarioExistente.getRoles())
+                || !Objects.equals(userNameAnterior, usuarioExistente.getUserName())) {
+            usuarioExistente.setTokensRevogadosAte(JwtTokenRevocationRegistry.now());
+            revogarTokensAposCommit(userNameAnterior, usuarioExistente.getUserName());
+        }
+
         Usuario usuarioAtualizadoSalvo = repository.save(usuarioExistente);
 
         // Mapeia o usuário atualizado para UsuarioVO e adiciona o link self-relacional
-        UsuarioVO usuarioVO = modelMapper.map(usuarioAtualizadoSalvo, UsuarioVO.class);
+        UsuarioVO usuarioVO = UsuarioMapper.toVO(usuarioAtualizadoSalvo);
         usuarioVO.add(linkTo(methodOn(UsuarioController.class).findById(id)).withSelfRel());
 
         return usuarioVO;
@@ -196,6 +257,7 @@ public class UsuarioService implements UserDetailsService {
 
 
     
+    @Transactional
     public void delete(Long id) {
     	
     	logger.info("Deletando um usuario");
@@ -203,5 +265,21 @@ public class UsuarioService implements UserDetailsService {
     	var entity = repository.findById(id)
     			.orElseThrow(() -> new ResourceNotFoundException("ID não encontrado!"));
     	repository.delete(entity);
+    	// sem a linha do usuario nenhum token dele vale, em qualquer instancia
+    	revogarTokensAposCommit(entity.getUserName());
+    }
+
+    // esta instancia descarta o que tem em cache assim que o commit acontece;
+    // as demais leem a coluna de novo em ate check-interval
+    private void revogarTokensAposCommit(String... userNames) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (String userName : userNames) {
+                    authenticationCache.evictUser(userName);
+                    revocationRegistry.forget(userName);
+                }
+            }
+        });
     }
 }
@@ -0,0 +1,85 @@
+package estoque.com.br.threads;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import estoque.com.br.exceptions.ServiceOverloadedException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Limite de requisicoes em andamento para o modo de threads virtuais. Com o
+ * pool do Tomcat quem limitava a concorrencia era o numero de threads; com
+ * threads virtuais cada conexao vira uma thread e milhares delas chegam juntas
+ * no Hikari, esperam o connection-timeout inteiro e caem com 500. Aqui a
+ * requisicao espera uma vaga por pouco tempo e, sem vaga, volta 503 com
+ * Retry-After antes de pedir conexao.
+ *
+ * Fica antes da cadeia do Spring Security, entao a carga do usuario do JWT
+ * no banco tambem passa pelo limite. A resposta 503 e montada pelo
+ * {@link HandlerExceptionResolver} do MVC, no mesmo formato dos controllers.
+ *
+ * A vaga e liberada quando a thread do container sai da cadeia: no fim da
+ * requisicao ou quando ela vira assincrona (exportacao), cujo streaming roda
+ * no executor de tarefas, que tem o proprio limite. O redispatch assincrono
+ * nao passa por aqui de novo.
+ */
+public class ConnectionAdmissionFilter extends OncePerRequestFilter {
+
+	private final Semaphore permits;
+
+	private final int limit;
+
+	private final long waitNanos;
+
+	private final long retryAfterSeconds;
+
+	private final HandlerExceptionResolver exceptionResolver;
+
+	public ConnectionAdmissionFilter(int limit, Duration wait, long retryAfterSeconds,
+			HandlerExceptionResolver exceptionResolver) {
+		this.permits = new Semaphore(limit, true);
+		this.limit = limit;
+		this.waitNanos = wait.toNanos();
+		this.retryAfterSeconds = retryAfterSeconds;
+		this.exceptionResolver = exceptionResolver;
+	}
+
+	@Override
+	protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+			@NonNull FilterChain chain) throws ServletException, IOException {
+		boolean admitted;
+		try {
+			admitted = permits.tryAcquire(waitNanos, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			admitted = false;
+		}
+		if (!admitted) {
+			exceptionResolver.resolveException(request, response, null,
+					new ServiceOverloadedException("Too many requests in progress, try again later!", retryAfterSeconds));
+			return;
+		}
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			permits.release();
+		}
+	}
+
+	public int getLimit() {
+		return limit;
+	}
+
+	public int getInFlight() {
+		return limit - permits.availablePermits();
+	}
+}
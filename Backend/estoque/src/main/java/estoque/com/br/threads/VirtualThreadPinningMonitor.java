@@ -0,0 +1,104 @@
+package estoque.com.br.threads;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Acompanha pelo JFR os eventos jdk.VirtualThreadPinned: uma thread virtual que
+ * bloqueia dentro de synchronized (no nosso codigo ou no driver JDBC) segura a
+ * thread carregadora, e com poucas carregadoras isso vira fila no servidor
+ * inteiro. Cada ponto de pinning e identificado pelo primeiro frame nosso ou
+ * do driver; a primeira ocorrencia vai para o log com a pilha e as seguintes
+ * so contam.
+ */
+public class VirtualThreadPinningMonitor {
+
+	private static final String EVENT = "jdk.VirtualThreadPinned";
+
+	private static final List<String> PACKAGES = List.of("estoque.com.br.", "com.mysql.", "com.zaxxer.hikari.");
+
+	private static final int LOGGED_FRAMES = 12;
+
+	private Logger logger = Logger.getLogger(VirtualThreadPinningMonitor.class.getName());
+
+	private final Duration threshold;
+
+	private final Map<String, LongAdder> sites = new ConcurrentHashMap<>();
+
+	private RecordingStream stream;
+
+	public VirtualThreadPinningMonitor(Duration threshold) {
+		this.threshold = threshold;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void start() {
+		if (stream != null) {
+			return;
+		}
+		stream = new RecordingStream();
+		stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+		stream.onEvent(EVENT, this::record);
+		stream.startAsync();
+		logger.info("Monitorando pinning de threads virtuais acima de " + threshold.toMillis() + "ms");
+	}
+
+	/**
+	 * Ocorrencias por ponto de pinning desde a subida.
+	 */
+	public Map<String, Long> getSites() {
+		return sites.entrySet().stream()
+				.collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().sum(), (a, b) -> a, TreeMap::new));
+	}
+
+	private void record(RecordedEvent event) {
+		var frames = event.getStackTrace() == null ? List.<RecordedFrame>of() : event.getStackTrace().getFrames();
+		String site = site(frames);
+		var counter = sites.computeIfAbsent(site, key -> new LongAdder());
+		counter.increment();
+		if (counter.sum() == 1) {
+			logger.warning("Thread virtual presa por " + event.getDuration().toMillis() + "ms em " + site + "\n"
+					+ frames.stream().limit(LOGGED_FRAMES).map(VirtualThreadPinningMonitor::frame)
+							.collect(Collectors.joining("\n\tat ", "\tat ", "")));
+		} else if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Thread virtual presa por " + event.getDuration().toMillis() + "ms em " + site);
+		}
+	}
+
+	private static String site(List<RecordedFrame> frames) {
+		for (RecordedFrame frame : frames) {
+			String type = frame.getMethod().getType().getName();
+			if (PACKAGES.stream().anyMatch(type::startsWith)) {
+				return frame(frame);
+			}
+		}
+		return frames.isEmpty() ? "desconhecido" : frame(frames.get(0));
+	}
+
+	private static String frame(RecordedFrame frame) {
+		return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+	}
+
+	@PreDestroy
+	public synchronized void shutdown() {
+		if (stream != null) {
+			stream.close();
+			stream = null;
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package estoque.com.br.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import estoque.com.br.exceptions.InvalidCursorException;
+
+/**
+ * Posicao opaca da paginacao por cursor: o valor da chave de ordenacao e o id
+ * da ultima linha entregue. Trafega em base64 url-safe no parametro after.
+ */
+public final class KeysetCursor {
+
+	private static final char NULL_VALUE = 'N';
+	private static final char VALUE = 'V';
+	private static final char SEPARATOR = ':';
+
+	private final String sortValue;
+	private final Long id;
+
+	public KeysetCursor(String sortValue, Long id) {
+		this.sortValue = sortValue;
+		this.id = id;
+	}
+
+	public String getSortValue() {
+		return sortValue;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String encode() {
+		String raw = sortValue == null
+				? NULL_VALUE + String.valueOf(SEPARATOR) + id
+				: VALUE + String.valueOf(SEPARATOR) + id + SEPARATOR + sortValue;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Retorna null para o cursor vazio, que representa o inicio da listagem.
+	 */
+	public static KeysetCursor decode(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return null;
+		}
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			if (raw.length() < 3 || raw.charAt(1) != SEPARATOR) {
+				throw new InvalidCursorException();
+			}
+			if (raw.charAt(0) == NULL_VALUE) {
+				return new KeysetCursor(null, Long.valueOf(raw.substring(2)));
+			}
+			if (raw.charAt(0) != VALUE) {
+				throw new InvalidCursorException();
+			}
+			int separator = raw.indexOf(SEPARATOR, 2);
+			if (separator < 0) {
+				throw new InvalidCursorException();
+			}
+			return new KeysetCursor(raw.substring(separator + 1), Long.valueOf(raw.substring(2, separator)));
+		} catch (IllegalArgumentException e) {
+			throw new InvalidCursorException();
+		}
+	}
+}
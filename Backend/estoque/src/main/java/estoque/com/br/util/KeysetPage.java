@@ -0,0 +1,38 @@
+package estoque.com.br.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+
+/**
+ * Monta a resposta da paginacao por cursor. As linhas devem ser buscadas com
+ * limite size + 1: a linha excedente so indica que existe proxima pagina.
+ * linkTo recebe um cursor e devolve o link self da listagem a partir dele.
+ */
+public final class KeysetPage {
+
+	private KeysetPage() {}
+
+	public static <E, V> CollectionModel<EntityModel<V>> toModel(List<E> rows, int size, String after,
+			Function<E, V> mapper, Function<E, KeysetCursor> cursorOf, Function<String, Link> linkTo) {
+		boolean hasNext = rows.size() > size;
+		List<E> page = hasNext ? rows.subList(0, size) : rows;
+
+		List<EntityModel<V>> content = new ArrayList<>(page.size());
+		for (E row : page) {
+			content.add(EntityModel.of(mapper.apply(row)));
+		}
+
+		var model = CollectionModel.of(content, linkTo.apply(after == null ? "" : after));
+		if (hasNext) {
+			String next = cursorOf.apply(page.get(page.size() - 1)).encode();
+			model.add(linkTo.apply(next).withRel(IanaLinkRelations.NEXT));
+		}
+		return model;
+	}
+}
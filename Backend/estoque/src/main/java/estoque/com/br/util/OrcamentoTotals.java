@@ -0,0 +1,79 @@
+package estoque.com.br.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import estoque.com.br.model.ItemOrcamento;
+import estoque.com.br.model.Orcamento;
+
+/**
+ * Total do orcamento calculado no servidor com BigDecimal. Cada linha e
+ * arredondada para centavos (quantidade x preco unitario) e o total e a soma
+ * das linhas, entao ajustes incrementais dao o mesmo resultado que somar tudo
+ * de novo.
+ */
+public final class OrcamentoTotals {
+
+	private static final int CENTAVOS = 2;
+
+	private OrcamentoTotals() {}
+
+	/**
+	 * Arredonda quantidade ou preco para a escala das colunas DECIMAL(10,2),
+	 * como o MySQL faria ao gravar, para o subtotal usar o valor persistido.
+	 */
+	public static BigDecimal centavos(BigDecimal valor) {
+		return valor != null ? valor.setScale(CENTAVOS, RoundingMode.HALF_EVEN) : null;
+	}
+
+	public static BigDecimal centavos(Double valor) {
+		return valor != null ? centavos(BigDecimal.valueOf(valor)) : null;
+	}
+
+	public static BigDecimal subtotal(ItemOrcamento item) {
+		if (item == null) {
+			return BigDecimal.ZERO.setScale(CENTAVOS);
+		}
+		return subtotal(item.getQuantidade(), item.getPrecoUnitario());
+	}
+
+	public static BigDecimal subtotal(BigDecimal quantidade, BigDecimal precoUnitario) {
+		if (quantidade == null || precoUnitario == null) {
+			return BigDecimal.ZERO.setScale(CENTAVOS);
+		}
+		return quantidade.multiply(precoUnitario).setScale(CENTAVOS, RoundingMode.HALF_EVEN);
+	}
+
+	/**
+	 * Recalcula total e quantidade somando os itens atuais. Deve ser chamado
+	 * antes de alterar os itens quando o orcamento ainda nao tem os agregados.
+	 */
+	public static void garantir(Orcamento orcamento) {
+		if (orcamento.getTotal() == null || orcamento.getQuantidadeItens() == null) {
+			recalcular(orcamento);
+		}
+	}
+
+	public static void recalcular(Orcamento orcamento) {
+		BigDecimal total = BigDecimal.ZERO.setScale(CENTAVOS);
+		int quantidade = 0;
+		if (orcamento.getItens() != null) {
+			for (ItemOrcamento item : orcamento.getItens()) {
+				total = total.add(subtotal(item));
+				quantidade++;
+			}
+		}
+		orcamento.setTotal(total);
+		orcamento.setQuantidadeItens(quantidade);
+	}
+
+	/**
+	 * Aplica a diferenca de um item alterado, incluido ou removido: {@code antes}
+	 * e {@code depois} sao os subtotais da linha e {@code itens} a variacao na
+	 * quantidade de linhas.
+	 */
+	public static void ajustar(Orcamento orcamento, BigDecimal antes, BigDecimal depois, int itens) {
+		orcamento.setTotal(orcamento.getTotal().subtract(antes).add(depois).setScale(CENTAVOS, RoundingMode.HALF_EVEN));
+		orcamento.setQuantidadeItens(orcamento.getQuantidadeItens() + itens);
+	}
+}
@@ -0,0 +1,140 @@
+package estoque.com.br.util;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import estoque.com.br.model.DimensaoRelatorio;
+
+/**
+ * Contribuicao de orcamentos para o resumo diario de vendas. Cada orcamento
+ * soma um em {@code orcamentos} em cada linha que toca, e cada item soma a
+ * quantidade e o subtotal (arredondado como em {@link OrcamentoTotals}). Como
+ * tudo e soma, o resumo e mantido aplicando a diferenca entre o antes e o
+ * depois dos orcamentos alterados.
+ */
+public final class ResumoVendas {
+
+	private static final Comparator<Chave> ORDEM = Comparator.comparing(Chave::dimensao)
+			.thenComparing(Chave::dia)
+			.thenComparing(Chave::chave)
+			.thenComparing(Chave::status);
+
+	private ResumoVendas() {}
+
+	/**
+	 * Mesma ordem da chave primaria de resumo_vendas.
+	 */
+	public record Chave(DimensaoRelatorio dimensao, LocalDate dia, String chave, String status)
+			implements Comparable<Chave> {
+
+		@Override
+		public int compareTo(Chave other) {
+			return ORDEM.compare(this, other);
+		}
+	}
+
+	public record Valores(int orcamentos, BigDecimal quantidade, BigDecimal valor) {
+
+		public static final Valores ZERO = new Valores(0, BigDecimal.ZERO, BigDecimal.ZERO);
+
+		public Valores mais(Valores other) {
+			return new Valores(orcamentos + other.orcamentos, quantidade.add(other.quantidade), valor.add(other.valor));
+		}
+
+		public Valores menos(Valores other) {
+			return new Valores(orcamentos - other.orcamentos, quantidade.subtract(other.quantidade),
+					valor.subtract(other.valor));
+		}
+
+		public boolean isZero() {
+			return orcamentos == 0 && quantidade.signum() == 0 && valor.signum() == 0;
+		}
+	}
+
+	/**
+	 * Um item de orcamento com o que o resumo precisa do orcamento e do
+	 * produto. Orcamento sem itens vem numa linha so, com produto nulo.
+	 */
+	public record Linha(Long orcamentoId, LocalDate dia, String status, Long clienteId, Long usuarioId,
+			Long produtoId, String tipoProduto, BigDecimal quantidade, BigDecimal precoUnitario) {
+
+		/**
+		 * Converte uma linha das consultas nativas do ResumoVendaRepository.
+		 */
+		public static Linha of(Object[] row) {
+			return new Linha(toLong(row[0]), toLocalDate(row[1]), (String) row[2], toLong(row[3]), toLong(row[4]),
+					toLong(row[5]), (String) row[6], (BigDecimal) row[7], (BigDecimal) row[8]);
+		}
+	}
+
+	public static Map<Chave, Valores> somar(List<Linha> linhas) {
+		Map<Long, Map<Chave, Valores>> porOrcamento = new LinkedHashMap<>();
+		for (Linha linha : linhas) {
+			// sem data nao ha dia onde lancar
+			if (linha.dia() == null) {
+				continue;
+			}
+			var orcamento = porOrcamento.computeIfAbsent(linha.orcamentoId(), id -> new HashMap<>());
+			var status = linha.status() != null ? linha.status() : "";
+			var quantidade = linha.quantidade() != null ? linha.quantidade() : BigDecimal.ZERO;
+			var item = new Valores(0, quantidade, OrcamentoTotals.subtotal(linha.quantidade(), linha.precoUnitario()));
+			if (linha.produtoId() == null) {
+				item = Valores.ZERO;
+			}
+
+			lancar(orcamento, DimensaoRelatorio.CLIENTE, linha.clienteId(), linha, status, item);
+			lancar(orcamento, DimensaoRelatorio.VENDEDOR, linha.usuarioId(), linha, status, item);
+			lancar(orcamento, DimensaoRelatorio.PRODUTO, linha.produtoId(), linha, status, item);
+			if (linha.produtoId() != null && linha.tipoProduto() != null) {
+				lancar(orcamento, DimensaoRelatorio.TIPO_PRODUTO, linha.tipoProduto().toUpperCase(Locale.ROOT), linha,
+						status, item);
+			}
+		}
+
+		Map<Chave, Valores> total = new HashMap<>();
+		for (Map<Chave, Valores> orcamento : porOrcamento.values()) {
+			orcamento.forEach((chave, valores) -> total.merge(chave,
+					new Valores(1, valores.quantidade(), valores.valor()), Valores::mais));
+		}
+		return total;
+	}
+
+	/**
+	 * O que precisa ser somado ao resumo para ir de {@code antes} para
+	 * {@code depois}, sem as linhas que nao mudam, na ordem da chave primaria.
+	 */
+	public static Map<Chave, Valores> diferenca(Map<Chave, Valores> antes, Map<Chave, Valores> depois) {
+		Map<Chave, Valores> diferenca = new TreeMap<>();
+		depois.forEach((chave, valores) -> diferenca.merge(chave, valores, Valores::mais));
+		antes.forEach((chave, valores) -> diferenca.merge(chave, Valores.ZERO.menos(valores), Valores::mais));
+		diferenca.values().removeIf(Valores::isZero);
+		return diferenca;
+	}
+
+	private static void lancar(Map<Chave, Valores> orcamento, DimensaoRelatorio dimensao, Object chave, Linha linha,
+			String status, Valores item) {
+		if (chave == null) {
+			return;
+		}
+		orcamento.merge(new Chave(dimensao, linha.dia(), chave.toString(), status), item, Valores::mais);
+	}
+
+	private static Long toLong(Object value) {
+		return value != null ? ((Number) value).longValue() : null;
+	}
+
+	private static LocalDate toLocalDate(Object value) {
+		if (value instanceof Date date) {
+			return date.toLocalDate();
+		}
+		return (LocalDate) value;
+	}
+}
@@ -0,0 +1,40 @@
+package estoque.com.br.util;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+import org.springframework.hateoas.Link;
+
+import estoque.com.br.metrics.RequestMetrics;
+import estoque.com.br.metrics.RequestMetrics.Phase;
+
+/**
+ * Gera os links self ({@code /{id}}) de uma pagina resolvendo a URI base do
+ * controller uma unica vez, em vez de um linkTo(methodOn(...)) por item.
+ * Deve ser criado dentro da requisicao, pois a URI base depende do host dela.
+ */
+public final class SelfLinkFactory {
+
+	private final String baseUri;
+
+	private SelfLinkFactory(String baseUri) {
+		this.baseUri = baseUri.endsWith("/") ? baseUri : baseUri + "/";
+	}
+
+	public static SelfLinkFactory forController(Class<?> controller) {
+		long inicio = RequestMetrics.start(Phase.LINKS);
+		try {
+			return new SelfLinkFactory(linkTo(controller).toUri().toString());
+		} finally {
+			RequestMetrics.stop(Phase.LINKS, inicio);
+		}
+	}
+
+	public Link selfLink(Object id) {
+		long inicio = RequestMetrics.start(Phase.LINKS);
+		try {
+			return Link.of(baseUri + id).withSelfRel();
+		} finally {
+			RequestMetrics.stop(Phase.LINKS, inicio);
+		}
+	}
+}
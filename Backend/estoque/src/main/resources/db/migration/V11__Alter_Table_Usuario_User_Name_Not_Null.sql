@@ -0,0 +1 @@
+ALTER TABLE `usuarios` MODIFY `user_name` varchar(255) NOT NULL;
@@ -0,0 +1,12 @@
+CREATE TABLE `id_generators` (
+    `sequence_name` VARCHAR(64) NOT NULL PRIMARY KEY,
+    `next_val` BIGINT NOT NULL
+);
+
+-- O otimizador pooled entrega os ids (next_val - 49 .. next_val) no primeiro
+-- bloco, entao o valor inicial fica 50 acima do maior id ja gravado.
+INSERT INTO `id_generators` (`sequence_name`, `next_val`)
+    SELECT 'orcamentos', COALESCE(MAX(`id`), 0) + 50 FROM `orcamentos`;
+
+INSERT INTO `id_generators` (`sequence_name`, `next_val`)
+    SELECT 'itens_orcamento', COALESCE(MAX(`id`), 0) + 50 FROM `itens_orcamento`;
@@ -0,0 +1,11 @@
+ALTER TABLE `orcamentos` ADD COLUMN `quantidade_itens` INT NOT NULL DEFAULT 0;
+
+UPDATE `orcamentos` o
+    SET o.`quantidade_itens` = (SELECT COUNT(*) FROM `itens_orcamento` i WHERE i.`orcamento_id` = o.`id`);
+
+-- Totais ja informados pelo cliente sao mantidos; so os vazios sao calculados
+-- a partir dos itens, com cada linha arredondada para centavos.
+UPDATE `orcamentos` o
+    SET o.`total` = (SELECT COALESCE(SUM(ROUND(i.`quantidade` * i.`preco_unitario`, 2)), 0)
+                     FROM `itens_orcamento` i WHERE i.`orcamento_id` = o.`id`)
+    WHERE o.`total` IS NULL;
@@ -0,0 +1,24 @@
+-- Indices para as consultas mais usadas. No InnoDB todo indice secundario ja
+-- carrega a chave primaria, mas o id fica explicito onde ele faz parte da
+-- ordenacao (paginacao por offset e por cursor ordenam por coluna + id).
+-- Os indices criados pelo MySQL para as FKs sao substituidos pelos nomeados
+-- abaixo assim que existe outro indice que comeca pela mesma coluna.
+
+-- listagem de orcamentos, ordenada por status (OrcamentoController.findAll)
+CREATE INDEX `idx_orcamentos_status_id` ON `orcamentos` (`status`, `id`);
+
+-- exportacao filtrada por periodo, com ou sem status
+CREATE INDEX `idx_orcamentos_data_criacao` ON `orcamentos` (`data_criacao`);
+CREATE INDEX `idx_orcamentos_status_data_criacao` ON `orcamentos` (`status`, `data_criacao`);
+
+-- deleteByClienteId e orcamentos por vendedor
+CREATE INDEX `idx_orcamentos_cliente_id` ON `orcamentos` (`cliente_id`);
+CREATE INDEX `idx_orcamentos_usuario_id` ON `orcamentos` (`usuario_id`);
+
+-- itens do orcamento na ordem em que foram gravados (fetch join e exportacao)
+CREATE INDEX `idx_itens_orcamento_orcamento_id` ON `itens_orcamento` (`orcamento_id`, `id`);
+CREATE INDEX `idx_itens_orcamento_produto_id` ON `itens_orcamento` (`produto_id`);
+
+-- listagens ordenadas por nome
+CREATE INDEX `idx_clientes_razao_social` ON `clientes` (`razao_social`, `id`);
+CREATE INDEX `idx_produtos_nome_produto` ON `produtos` (`nome_produto`, `id`);
@@ -0,0 +1,15 @@
+-- versao para o lock otimista do Produto; reservas tambem incrementam
+ALTER TABLE `produtos` ADD COLUMN `version` BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE `movimentacoes_estoque` (
+    `id` BIGINT AUTO_INCREMENT PRIMARY KEY,
+    `produto_id` BIGINT NOT NULL,
+    `orcamento_id` BIGINT,
+    `tipo` VARCHAR(10) NOT NULL,
+    `quantidade` DECIMAL(10, 3) NOT NULL,
+    `data_movimentacao` datetime(6) NOT NULL,
+    CONSTRAINT `fk_movimentacao_produto` FOREIGN KEY (`produto_id`) REFERENCES `produtos`(`id`) ON DELETE CASCADE,
+    CONSTRAINT `fk_movimentacao_orcamento` FOREIGN KEY (`orcamento_id`) REFERENCES `orcamentos`(`id`) ON DELETE SET NULL
+);
+
+CREATE INDEX `idx_movimentacoes_estoque_produto_id` ON `movimentacoes_estoque` (`produto_id`, `id`);
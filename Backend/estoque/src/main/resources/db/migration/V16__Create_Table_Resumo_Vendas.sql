@@ -0,0 +1,57 @@
+-- Resumo diario de vendas mantido pelo RelatorioVendasService. A chave e o id
+-- do cliente, do vendedor ou do produto, ou o tipo de produto em maiusculas;
+-- orcamento sem status entra com status vazio.
+CREATE TABLE `resumo_vendas` (
+    `dimensao` VARCHAR(15) NOT NULL,
+    `dia` DATE NOT NULL,
+    `chave` VARCHAR(20) NOT NULL,
+    `status` VARCHAR(20) NOT NULL,
+    `orcamentos` INT NOT NULL,
+    `quantidade` DECIMAL(16, 2) NOT NULL,
+    `valor` DECIMAL(16, 2) NOT NULL,
+    PRIMARY KEY (`dimensao`, `dia`, `chave`, `status`)
+);
+
+-- historico de uma chave so (um cliente, um produto) sem varrer a dimensao
+CREATE INDEX `idx_resumo_vendas_chave` ON `resumo_vendas` (`dimensao`, `chave`, `dia`);
+
+-- Carga inicial com os orcamentos existentes, linhas arredondadas para
+-- centavos como no V13.
+INSERT INTO `resumo_vendas` (`dimensao`, `dia`, `chave`, `status`, `orcamentos`, `quantidade`, `valor`)
+SELECT 'CLIENTE', CAST(o.`data_criacao` AS DATE), CAST(o.`cliente_id` AS CHAR), COALESCE(o.`status`, ''),
+       COUNT(DISTINCT o.`id`),
+       COALESCE(SUM(CASE WHEN i.`produto_id` IS NOT NULL THEN i.`quantidade` END), 0),
+       COALESCE(SUM(CASE WHEN i.`produto_id` IS NOT NULL THEN ROUND(i.`quantidade` * i.`preco_unitario`, 2) END), 0)
+FROM `orcamentos` o
+LEFT JOIN `itens_orcamento` i ON i.`orcamento_id` = o.`id`
+WHERE o.`data_criacao` IS NOT NULL AND o.`cliente_id` IS NOT NULL
+GROUP BY CAST(o.`data_criacao` AS DATE), o.`cliente_id`, COALESCE(o.`status`, '');
+
+INSERT INTO `resumo_vendas` (`dimensao`, `dia`, `chave`, `status`, `orcamentos`, `quantidade`, `valor`)
+SELECT 'VENDEDOR', CAST(o.`data_criacao` AS DATE), CAST(o.`usuario_id` AS CHAR), COALESCE(o.`status`, ''),
+       COUNT(DISTINCT o.`id`),
+       COALESCE(SUM(CASE WHEN i.`produto_id` IS NOT NULL THEN i.`quantidade` END), 0),
+       COALESCE(SUM(CASE WHEN i.`produto_id` IS NOT NULL THEN ROUND(i.`quantidade` * i.`preco_unitario`, 2) END), 0)
+FROM `orcamentos` o
+LEFT JOIN `itens_orcamento` i ON i.`orcamento_id` = o.`id`
+WHERE o.`data_criacao` IS NOT NULL AND o.`usuario_id` IS NOT NULL
+GROUP BY CAST(o.`data_criacao` AS DATE), o.`usuario_id`, COALESCE(o.`status`, '');
+
+INSERT INTO `resumo_vendas` (`dimensao`, `dia`, `chave`, `status`, `orcamentos`, `quantidade`, `valor`)
+SELECT 'PRODUTO', CAST(o.`data_criacao` AS DATE), CAST(i.`produto_id` AS CHAR), COALESCE(o.`status`, ''),
+       COUNT(DISTINCT o.`id`), COALESCE(SUM(i.`quantidade`), 0),
+       COALESCE(SUM(ROUND(i.`quantidade` * i.`preco_unitario`, 2)), 0)
+FROM `orcamentos` o
+JOIN `itens_orcamento` i ON i.`orcamento_id` = o.`id`
+WHERE o.`data_criacao` IS NOT NULL AND i.`produto_id` IS NOT NULL
+GROUP BY CAST(o.`data_criacao` AS DATE), i.`produto_id`, COALESCE(o.`status`, '');
+
+INSERT INTO `resumo_vendas` (`dimensao`, `dia`, `chave`, `status`, `orcamentos`, `quantidade`, `valor`)
+SELECT 'TIPO_PRODUTO', CAST(o.`data_criacao` AS DATE), UPPER(p.`tipo_produto`), COALESCE(o.`status`, ''),
+       COUNT(DISTINCT o.`id`), COALESCE(SUM(i.`quantidade`), 0),
+       COALESCE(SUM(ROUND(i.`quantidade` * i.`preco_unitario`, 2)), 0)
+FROM `orcamentos` o
+JOIN `itens_orcamento` i ON i.`orcamento_id` = o.`id`
+JOIN `produtos` p ON p.`id` = i.`produto_id`
+WHERE o.`data_criacao` IS NOT NULL
+GROUP BY CAST(o.`data_criacao` AS DATE), UPPER(p.`tipo_produto`), COALESCE(o.`status`, '');
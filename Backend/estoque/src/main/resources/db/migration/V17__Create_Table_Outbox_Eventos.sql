@@ -0,0 +1,19 @@
+CREATE TABLE `outbox_eventos` (
+    `id` BIGINT AUTO_INCREMENT PRIMARY KEY,
+    `agregado_tipo` VARCHAR(30) NOT NULL,
+    `agregado_id` BIGINT NOT NULL,
+    `tipo` VARCHAR(40) NOT NULL,
+    `payload` TEXT,
+    `status` VARCHAR(10) NOT NULL,
+    `tentativas` INT NOT NULL DEFAULT 0,
+    `proxima_tentativa` datetime(6) NOT NULL,
+    `ultimo_erro` VARCHAR(1000),
+    `data_criacao` datetime(6) NOT NULL,
+    `data_processamento` datetime(6)
+);
+
+-- fila de prontos do dispatcher e verificacao de evento anterior do mesmo agregado
+CREATE INDEX `idx_outbox_eventos_status` ON `outbox_eventos` (`status`, `proxima_tentativa`, `id`);
+CREATE INDEX `idx_outbox_eventos_agregado` ON `outbox_eventos` (`agregado_tipo`, `agregado_id`, `status`, `id`);
+-- limpeza dos processados
+CREATE INDEX `idx_outbox_eventos_processamento` ON `outbox_eventos` (`status`, `data_processamento`);
@@ -0,0 +1,3 @@
+-- segundo (epoch) ate o qual os tokens emitidos para o usuario nao valem mais;
+-- 0 enquanto nada foi revogado
+ALTER TABLE `usuarios` ADD COLUMN `tokens_revogados_ate` BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,90 @@
+package estoque.com.br.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import estoque.com.br.model.Cliente;
+import estoque.com.br.model.ItemOrcamento;
+import estoque.com.br.model.Orcamento;
+import estoque.com.br.model.Produto;
+import estoque.com.br.model.TipoProduto;
+import estoque.com.br.model.Usuario;
+
+/**
+ * Dados sinteticos para os benchmarks, sem banco nem contexto Spring.
+ */
+public final class BenchmarkFixtures {
+
+	public static final int ITENS_POR_ORCAMENTO = 5;
+
+	private BenchmarkFixtures() {}
+
+	public static List<Cliente> clientes(int quantidade) {
+		List<Cliente> clientes = new ArrayList<>(quantidade);
+		for (long id = 1; id <= quantidade; id++) {
+			clientes.add(cliente(id));
+		}
+		return clientes;
+	}
+
+	public static List<Produto> produtos(int quantidade) {
+		List<Produto> produtos = new ArrayList<>(quantidade);
+		for (long id = 1; id <= quantidade; id++) {
+			produtos.add(produto(id));
+		}
+		return produtos;
+	}
+
+	public static List<Orcamento> orcamentos(int quantidade) {
+		Usuario vendedor = new Usuario();
+		vendedor.setId(1L);
+		vendedor.setUserName("vendedor");
+
+		List<Orcamento> orcamentos = new ArrayList<>(quantidade);
+		for (long id = 1; id <= quantidade; id++) {
+			Orcamento orcamento = new Orcamento();
+			orcamento.setId(id);
+			orcamento.setDataCriacao(new Date(1700000000000L + id));
+			orcamento.setDataValidade(new Date(1702592000000L + id));
+			orcamento.setStatus("PENDENTE");
+			orcamento.setCliente(cliente(id));
+			orcamento.setUsuario(vendedor);
+			orcamento.setTotal(BigDecimal.valueOf(ITENS_POR_ORCAMENTO * 12.5));
+			for (int i = 0; i < ITENS_POR_ORCAMENTO; i++) {
+				ItemOrcamento item = new ItemOrcamento();
+				item.setId(id * 100 + i);
+				item.setOrcamento(orcamento);
+				item.setProduto(produto(i + 1));
+				item.setQuantidade(BigDecimal.valueOf(i + 1));
+				item.setPrecoUnitario(BigDecimal.valueOf(12.5));
+				orcamento.getItens().add(item);
+			}
+			orcamentos.add(orcamento);
+		}
+		return orcamentos;
+	}
+
+	private static Cliente cliente(long id) {
+		Cliente cliente = new Cliente();
+		cliente.setId(id);
+		cliente.setRazaoSocial("Cliente Sintetico " + id + " LTDA");
+		cliente.setInscricaoEstadual("123456789");
+		cliente.setCnpj("12.345.678/0001-90");
+		cliente.setEndereco("Rua dos Benchmarks, " + id);
+		cliente.setEmail("cliente" + id + "@teste.com.br");
+		cliente.setTelefone("11999990000");
+		return cliente;
+	}
+
+	private static Produto produto(long id) {
+		Produto produto = new Produto();
+		produto.setId(id);
+		produto.setNomeProduto("Produto " + id);
+		produto.setTipoProduto(TipoProduto.values()[0]);
+		produto.setQuantidadeProduto(new BigDecimal("100.000"));
+		produto.setValor(12.5);
+		return produto;
+	}
+}
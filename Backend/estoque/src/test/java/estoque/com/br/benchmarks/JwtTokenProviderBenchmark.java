@@ -0,0 +1,91 @@
+package estoque.com.br.benchmarks;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import estoque.com.br.data.vo.security.TokenVO;
+import estoque.com.br.security.jwt.JwtTokenProvider;
+import estoque.com.br.security.jwt.JwtTokenRevocationRegistry;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtTokenProviderBenchmark {
+
+	private static final List<String> ROLES = List.of("ROLE_ADMIN", "ROLE_VENDEDOR");
+
+	private JwtTokenProvider provider;
+
+	private String accessToken;
+
+	private Map<String, List<String>> shiftChange;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		provider = new JwtTokenProvider(null, new JwtTokenRevocationRegistry(username -> 0L, Duration.ofSeconds(30)));
+		ReflectionTestUtils.setField(provider, "secretKey", "53ccr37");
+		ReflectionTestUtils.setField(provider, "issuer", "http://localhost:8080");
+		ReflectionTestUtils.setField(provider, "stateless", true);
+		ReflectionTestUtils.invokeMethod(provider, "init");
+
+		accessToken = provider.createAccessToken("paulo", ROLES).getAccessToken();
+
+		shiftChange = new LinkedHashMap<>();
+		for (int i = 0; i < 1000; i++) {
+			shiftChange.put("vendedor" + i, ROLES);
+		}
+	}
+
+	@Benchmark
+	public TokenVO sign() {
+		return provider.createAccessToken("paulo", ROLES);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(1000)
+	public List<TokenVO> signBatchOf1000() {
+		return provider.createAccessTokens(shiftChange);
+	}
+
+	@Benchmark
+	public boolean verify() {
+		return provider.validateToken(accessToken);
+	}
+
+	@Benchmark
+	public Authentication verifyAndAuthenticate() {
+		return provider.getAuthentication(accessToken);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(JwtTokenProviderBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,87 @@
+package estoque.com.br.benchmarks;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import estoque.com.br.controllers.OrcamentoController;
+import estoque.com.br.util.SelfLinkFactory;
+
+/**
+ * Custo do linkTo(methodOn(...)) feito para cada item de uma pagina, comparado
+ * ao SelfLinkFactory. O estado e por thread porque o RequestContextHolder
+ * tambem e.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinkBuildingBenchmark {
+
+	@Param({"20", "100", "1000"})
+	private int pageSize;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orcamento/v1");
+		request.setServerName("localhost");
+		request.setServerPort(8080);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Benchmark
+	public List<Link> selfLinkPerItem() {
+		List<Link> links = new ArrayList<>(pageSize);
+		for (long id = 1; id <= pageSize; id++) {
+			links.add(linkTo(methodOn(OrcamentoController.class).findById(id)).withSelfRel());
+		}
+		return links;
+	}
+
+	@Benchmark
+	public List<Link> selfLinkFactory() {
+		List<Link> links = new ArrayList<>(pageSize);
+		SelfLinkFactory selfLinks = SelfLinkFactory.forController(OrcamentoController.class);
+		for (long id = 1; id <= pageSize; id++) {
+			links.add(selfLinks.selfLink(id));
+		}
+		return links;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(LinkBuildingBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
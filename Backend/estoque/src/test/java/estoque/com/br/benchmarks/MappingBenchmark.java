@@ -0,0 +1,103 @@
+package estoque.com.br.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import estoque.com.br.data.vo.ClienteVO;
+import estoque.com.br.data.vo.OrcamentoVO;
+import estoque.com.br.mapper.ClienteMapper;
+import estoque.com.br.mapper.DozerMapper;
+import estoque.com.br.mapper.ModelMapperConfig;
+import estoque.com.br.mapper.OrcamentoMapper;
+import estoque.com.br.model.Cliente;
+import estoque.com.br.model.Orcamento;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+	@Param({"20", "100"})
+	private int pageSize;
+
+	private ModelMapper modelMapper;
+
+	private List<Orcamento> orcamentos;
+
+	private List<Cliente> clientes;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		modelMapper = new ModelMapperConfig().modelMapper();
+		orcamentos = BenchmarkFixtures.orcamentos(pageSize);
+		clientes = BenchmarkFixtures.clientes(pageSize);
+	}
+
+	@Benchmark
+	public List<OrcamentoVO> orcamentoPageModelMapper() {
+		List<OrcamentoVO> vos = new ArrayList<>(orcamentos.size());
+		for (Orcamento orcamento : orcamentos) {
+			vos.add(modelMapper.map(orcamento, OrcamentoVO.class));
+		}
+		return vos;
+	}
+
+	@Benchmark
+	public List<OrcamentoVO> orcamentoPageHandWritten() {
+		List<OrcamentoVO> vos = new ArrayList<>(orcamentos.size());
+		for (Orcamento orcamento : orcamentos) {
+			vos.add(OrcamentoMapper.toVO(orcamento));
+		}
+		return vos;
+	}
+
+	@Benchmark
+	public List<ClienteVO> clientePageModelMapper() {
+		List<ClienteVO> vos = new ArrayList<>(clientes.size());
+		for (Cliente cliente : clientes) {
+			vos.add(modelMapper.map(cliente, ClienteVO.class));
+		}
+		return vos;
+	}
+
+	@Benchmark
+	public List<ClienteVO> clientePageHandWritten() {
+		List<ClienteVO> vos = new ArrayList<>(clientes.size());
+		for (Cliente cliente : clientes) {
+			vos.add(ClienteMapper.toVO(cliente));
+		}
+		return vos;
+	}
+
+	@Benchmark
+	public List<ClienteVO> clientePageDozerParseListObjects() {
+		return DozerMapper.parseListObjects(clientes, ClienteVO.class);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(MappingBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
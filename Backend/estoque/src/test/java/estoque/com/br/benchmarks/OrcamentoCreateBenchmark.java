@@ -0,0 +1,121 @@
+package estoque.com.br.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import estoque.com.br.Application;
+import estoque.com.br.data.vo.ItemOrcamentoVO;
+import estoque.com.br.data.vo.OrcamentoVO;
+import estoque.com.br.model.Cliente;
+import estoque.com.br.model.Produto;
+import estoque.com.br.repositories.ClienteRepository;
+import estoque.com.br.repositories.OrcamentoRepository;
+import estoque.com.br.repositories.ProdutoRepository;
+import estoque.com.br.services.OrcamentoService;
+
+/**
+ * OrcamentoService.create de ponta a ponta, contra o banco configurado. Sobe
+ * o contexto Spring numa porta livre, cria um cliente e 50 produtos e apaga
+ * tudo no fim. Para nao usar o banco do application.yml passe outro na linha
+ * de comando, por exemplo
+ * {@code -Djmh.args="OrcamentoCreate -jvmArgsAppend -Dspring.datasource.url=jdbc:mysql://localhost:3306/projeto_estoque"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrcamentoCreateBenchmark {
+
+	private static final int PRODUTOS = 50;
+
+	@Param({"10", "100", "1000"})
+	private int itens;
+
+	private ConfigurableApplicationContext context;
+	private OrcamentoService service;
+	private OrcamentoRepository orcamentoRepository;
+
+	private Cliente cliente;
+	private final List<Produto> produtos = new ArrayList<>();
+	private final List<Long> criados = new ArrayList<>();
+
+	@Setup(Level.Trial)
+	public void setup() {
+		// o contexto web e necessario pelos PagedResourcesAssembler dos services
+		context = SpringApplication.run(Application.class, "--server.port=0", "--spring.jpa.show-sql=false");
+		service = context.getBean(OrcamentoService.class);
+		orcamentoRepository = context.getBean(OrcamentoRepository.class);
+
+		Cliente novo = BenchmarkFixtures.clientes(1).get(0);
+		novo.setId(null);
+		cliente = context.getBean(ClienteRepository.class).save(novo);
+
+		ProdutoRepository produtoRepository = context.getBean(ProdutoRepository.class);
+		for (Produto produto : BenchmarkFixtures.produtos(PRODUTOS)) {
+			produto.setId(null);
+			produtos.add(produtoRepository.save(produto));
+		}
+	}
+
+	@TearDown(Level.Iteration)
+	public void deleteCriados() {
+		orcamentoRepository.deleteAllById(criados);
+		criados.clear();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.getBean(ProdutoRepository.class).deleteAll(produtos);
+		context.getBean(ClienteRepository.class).delete(cliente);
+		context.close();
+	}
+
+	@Benchmark
+	public OrcamentoVO create() {
+		OrcamentoVO orcamento = new OrcamentoVO();
+		orcamento.setStatus("PENDENTE");
+		orcamento.setClienteId(cliente.getId());
+		orcamento.setTotal(itens * 12.5);
+		List<ItemOrcamentoVO> lista = new ArrayList<>(itens);
+		for (int i = 0; i < itens; i++) {
+			ItemOrcamentoVO item = new ItemOrcamentoVO();
+			item.setProdutoId(produtos.get(i % PRODUTOS).getId());
+			item.setQuantidade(BigDecimal.ONE);
+			item.setPrecoUnitario(12.5);
+			lista.add(item);
+		}
+		orcamento.setItens(lista);
+		OrcamentoVO criado = service.create(orcamento);
+		criados.add(criado.getKey());
+		return criado;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(OrcamentoCreateBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
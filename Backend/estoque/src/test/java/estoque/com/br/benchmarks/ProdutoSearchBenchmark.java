@@ -0,0 +1,75 @@
+package estoque.com.br.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import estoque.com.br.search.TrigramIndex;
+
+/**
+ * Busca por nome no TrigramIndex com nomes sinteticos. As consultas simulam o
+ * balcao digitando: uma letra, um prefixo, um nome completo e um com erro.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProdutoSearchBenchmark {
+
+	private static final List<String> PRODUTOS = List.of("Arroz", "Feijão", "Açúcar", "Café", "Farinha", "Macarrão",
+			"Óleo", "Sal", "Leite", "Biscoito", "Sabão", "Detergente", "Molho", "Extrato", "Azeite", "Vinagre");
+	private static final List<String> MARCAS = List.of("Tio João", "Camil", "União", "Pilão", "Dona Benta", "Renata",
+			"Liza", "Cisne", "Itambé", "Piraquê", "Ypê", "Omo", "Quero", "Elefante", "Gallo", "Castelo");
+	private static final List<String> VARIANTES = List.of("Integral", "Tipo 1", "Carioca", "Refinado", "Tradicional",
+			"Extra Forte", "Com Ovos", "Soja", "Grosso", "Desnatado", "Recheado", "Neutro", "Tomate", "Light");
+	private static final List<String> EMBALAGENS = List.of("500g", "1kg", "2kg", "5kg", "900ml", "1L", "200g", "340g");
+
+	@Param({"500000"})
+	private int produtos;
+
+	@Param({"a", "arr", "arroz tio joao", "feijao carioka"})
+	private String query;
+
+	private TrigramIndex index;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Random random = new Random(42);
+		index = new TrigramIndex();
+		for (long id = 1; id <= produtos; id++) {
+			index.put(id, PRODUTOS.get(random.nextInt(PRODUTOS.size())) + " "
+					+ MARCAS.get(random.nextInt(MARCAS.size())) + " "
+					+ VARIANTES.get(random.nextInt(VARIANTES.size())) + " "
+					+ EMBALAGENS.get(random.nextInt(EMBALAGENS.size())) + " " + id);
+		}
+	}
+
+	@Benchmark
+	public TrigramIndex.SearchResult firstPage() {
+		return index.search(query, 0.6, 0, 12);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(ProdutoSearchBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
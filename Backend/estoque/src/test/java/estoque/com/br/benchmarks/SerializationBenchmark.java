@@ -0,0 +1,117 @@
+package estoque.com.br.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.hateoas.server.mvc.TypeConstrainedMappingJackson2HttpMessageConverter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import estoque.com.br.data.vo.OrcamentoVO;
+import estoque.com.br.mapper.OrcamentoMapper;
+import estoque.com.br.model.Orcamento;
+import estoque.com.br.serialization.converter.YamlJackson2HttpMesageConverter;
+
+/**
+ * Serializacao de uma pagina de orcamentos pelos mesmos conversores que a
+ * aplicacao registra para JSON (HAL), XML e YAML.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+	private static final MediaType APPLICATION_YML = MediaType.valueOf("application/x-yaml");
+
+	@Param({"20", "100"})
+	private int pageSize;
+
+	private PagedModel<EntityModel<OrcamentoVO>> page;
+
+	private TypeConstrainedMappingJackson2HttpMessageConverter json;
+
+	private MappingJackson2XmlHttpMessageConverter xml;
+
+	private YamlJackson2HttpMesageConverter yaml;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		List<EntityModel<OrcamentoVO>> content = new ArrayList<>(pageSize);
+		for (Orcamento orcamento : BenchmarkFixtures.orcamentos(pageSize)) {
+			OrcamentoVO vo = OrcamentoMapper.toVO(orcamento);
+			vo.add(Link.of("http://localhost:8080/api/orcamento/v1/" + vo.getKey()).withSelfRel());
+			content.add(EntityModel.of(vo));
+		}
+		page = PagedModel.of(content, new PagedModel.PageMetadata(pageSize, 0, pageSize * 10L),
+				Link.of("http://localhost:8080/api/orcamento/v1?page=0&size=" + pageSize).withSelfRel());
+
+		ObjectMapper halMapper = new ObjectMapper();
+		halMapper.registerModule(new Jackson2HalModule());
+		halMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+				new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+		json = new TypeConstrainedMappingJackson2HttpMessageConverter(RepresentationModel.class,
+				List.of(MediaTypes.HAL_JSON, MediaType.APPLICATION_JSON), halMapper);
+		xml = new MappingJackson2XmlHttpMessageConverter();
+		yaml = new YamlJackson2HttpMesageConverter();
+	}
+
+	@Benchmark
+	public byte[] json() throws IOException {
+		return write(json, MediaType.APPLICATION_JSON);
+	}
+
+	@Benchmark
+	public byte[] xml() throws IOException {
+		return write(xml, MediaType.APPLICATION_XML);
+	}
+
+	@Benchmark
+	public byte[] yaml() throws IOException {
+		return write(yaml, APPLICATION_YML);
+	}
+
+	private byte[] write(AbstractGenericHttpMessageConverter<Object> converter, MediaType mediaType) throws IOException {
+		MockHttpOutputMessage output = new MockHttpOutputMessage();
+		converter.write(page, PagedModel.class, mediaType, output);
+		return output.getBodyAsBytes();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(SerializationBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
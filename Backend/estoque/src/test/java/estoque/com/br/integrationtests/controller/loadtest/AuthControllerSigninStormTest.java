@@ -0,0 +1,122 @@
+package estoque.com.br.integrationtests.controller.loadtest;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import estoque.com.br.configs.TestConfigs;
+import estoque.com.br.integrationtests.vo.AccountCredentialsVO;
+import estoque.com.br.integrationtests.vo.TokenVO;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
+@EnabledIfSystemProperty(named = "loadtests", matches = "true")
+public class AuthControllerSigninStormTest {
+
+	private static final int STORM_CLIENTS = 200;
+	private static final int PROBES = 100;
+
+	private static final String BASE_URL = "http://localhost:" + TestConfigs.SERVER_PORT;
+
+	@Test
+	public void testOtherEndpointsKeepLatencyDuringSigninStorm() throws Exception {
+		String accessToken = given()
+				.basePath("/auth/signin")
+					.port(TestConfigs.SERVER_PORT)
+					.contentType(TestConfigs.CONTENT_TYPE_JSON)
+				.body(new AccountCredentialsVO("paulo", "teste123"))
+					.when()
+				.post()
+					.then()
+						.statusCode(200)
+							.extract()
+							.body()
+								.as(TokenVO.class)
+						.getAccessToken();
+
+		HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+		long baselineP95 = p95(probe(client, accessToken));
+
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicInteger signedIn = new AtomicInteger();
+		AtomicInteger overloaded = new AtomicInteger();
+		AtomicInteger unexpected = new AtomicInteger();
+
+		ExecutorService storm = Executors.newFixedThreadPool(STORM_CLIENTS);
+		HttpRequest signin = HttpRequest.newBuilder(URI.create(BASE_URL + "/auth/signin"))
+				.header("Content-Type", TestConfigs.CONTENT_TYPE_JSON)
+				.POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"paulo\",\"password\":\"teste123\"}"))
+				.build();
+		for (int i = 0; i < STORM_CLIENTS; i++) {
+			storm.submit(() -> {
+				while (running.get()) {
+					try {
+						int status = client.send(signin, HttpResponse.BodyHandlers.discarding()).statusCode();
+						if (status == 200) {
+							signedIn.incrementAndGet();
+						} else if (status == 503) {
+							overloaded.incrementAndGet();
+						} else {
+							unexpected.incrementAndGet();
+						}
+					} catch (Exception e) {
+						unexpected.incrementAndGet();
+					}
+				}
+				return null;
+			});
+		}
+
+		Thread.sleep(1000);
+		long stormP95 = p95(probe(client, accessToken));
+
+		running.set(false);
+		storm.shutdown();
+		storm.awaitTermination(1, TimeUnit.MINUTES);
+
+		assertEquals(0, unexpected.get());
+		assertTrue(signedIn.get() > 0);
+		assertTrue(overloaded.get() > 0);
+		assertTrue("p95 during storm " + stormP95 + "ms vs baseline " + baselineP95 + "ms",
+				stormP95 <= baselineP95 * 3 + 100);
+	}
+
+	private List<Long> probe(HttpClient client, String accessToken) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(BASE_URL + "/api/produto/v1?size=1"))
+				.header(TestConfigs.HEADER_PARAM_AUTHORIZATION, "Bearer " + accessToken)
+				.GET()
+				.build();
+		List<Long> latencies = new ArrayList<>();
+		for (int i = 0; i < PROBES; i++) {
+			long start = System.nanoTime();
+			int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+			latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+			assertEquals(200, status);
+		}
+		return latencies;
+	}
+
+	private long p95(List<Long> latencies) {
+		List<Long> sorted = new ArrayList<>(latencies);
+		Collections.sort(sorted);
+		return sorted.get((int) Math.ceil(sorted.size() * 0.95) - 1);
+	}
+}
@@ -0,0 +1,174 @@
+package estoque.com.br.integrationtests.controller.loadtest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MySQLContainer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import estoque.com.br.Application;
+import estoque.com.br.configs.TestConfigs;
+import estoque.com.br.integrationtests.vo.TokenVO;
+
+/**
+ * Sobe a aplicacao duas vezes, com o pool de threads do Tomcat e com threads
+ * virtuais, e mede o p99 da listagem de produtos com 2000 clientes simultaneos.
+ * No modo virtual o excesso pode voltar 503 do limite de conexoes; isso conta
+ * a parte e nao entra na latencia.
+ *
+ * As duas subidas usam o mesmo MySQL do Testcontainers, como o
+ * AbstractIntegrationTest; o usuario paulo vem das migracoes e os produtos
+ * sao inseridos na primeira subida. Roda com -Dloadtests=true.
+ */
+@EnabledIfSystemProperty(named = "loadtests", matches = "true")
+public class VirtualThreadLatencyTest {
+
+	private static final int CLIENTS = 2000;
+	private static final int REQUESTS_PER_CLIENT = 10;
+	private static final int WARMUP = 500;
+	private static final int PRODUTOS = 200;
+
+	private static final MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0.32");
+
+	@BeforeAll
+	public static void startDatabase() {
+		mysql.start();
+	}
+
+	@AfterAll
+	public static void stopDatabase() {
+		mysql.stop();
+	}
+
+	@Test
+	public void testVirtualThreadsP99WithTwoThousandClients() throws Exception {
+		Result platform = run(false, TestConfigs.SERVER_PORT);
+		Result virtual = run(true, TestConfigs.SERVER_PORT + 1);
+
+		String resumo = "plataforma " + platform + ", virtual " + virtual;
+
+		assertEquals(resumo, 0, platform.unexpected());
+		assertEquals(resumo, 0, virtual.unexpected());
+		assertEquals(resumo, 0, platform.overloaded());
+		assertTrue("503 demais no modo virtual: " + resumo,
+				virtual.overloaded() <= CLIENTS * REQUESTS_PER_CLIENT / 100);
+		assertTrue("p99 virtual acima do da plataforma: " + resumo, virtual.p99() <= platform.p99() + 50);
+	}
+
+	private Result run(boolean virtualThreads, int port) throws Exception {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+				.properties("server.port=" + port,
+						"spring.datasource.url=" + mysql.getJdbcUrl(),
+						"spring.datasource.username=" + mysql.getUsername(),
+						"spring.datasource.password=" + mysql.getPassword(),
+						"spring.threads.virtual.enabled=" + virtualThreads,
+						"server.tomcat.max-connections=" + (CLIENTS * 2),
+						"outbox.dispatcher.enabled=false")
+				.run()) {
+			seedProdutos(context.getBean(JdbcTemplate.class));
+			String baseUrl = "http://localhost:" + port;
+			HttpClient client = HttpClient.newBuilder()
+					.version(HttpClient.Version.HTTP_1_1)
+					.connectTimeout(Duration.ofSeconds(30))
+					.build();
+			HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/produto/v1?size=20"))
+					.header(TestConfigs.HEADER_PARAM_AUTHORIZATION, "Bearer " + signin(client, baseUrl))
+					.GET()
+					.build();
+
+			for (int i = 0; i < WARMUP; i++) {
+				client.send(request, HttpResponse.BodyHandlers.discarding());
+			}
+
+			ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+			AtomicInteger overloaded = new AtomicInteger();
+			AtomicInteger unexpected = new AtomicInteger();
+			CountDownLatch largada = new CountDownLatch(1);
+			try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+				for (int c = 0; c < CLIENTS; c++) {
+					clients.submit(() -> {
+						largada.await();
+						for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+							long start = System.nanoTime();
+							try {
+								int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+								if (status == 200) {
+									latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+								} else if (status == 503) {
+									overloaded.incrementAndGet();
+								} else {
+									unexpected.incrementAndGet();
+								}
+							} catch (Exception e) {
+								unexpected.incrementAndGet();
+							}
+						}
+						return null;
+					});
+				}
+				largada.countDown();
+			}
+			return new Result(p99(new ArrayList<>(latencies)), latencies.size(), overloaded.get(), unexpected.get());
+		}
+	}
+
+	// a tabela vem vazia das migracoes; so a primeira subida insere
+	private void seedProdutos(JdbcTemplate jdbc) {
+		if (jdbc.queryForObject("SELECT COUNT(*) FROM produtos", Integer.class) > 0) {
+			return;
+		}
+		List<Object[]> produtos = new ArrayList<>();
+		for (int i = 0; i < PRODUTOS; i++) {
+			produtos.add(new Object[] { "Produto " + i, 100, 10 });
+		}
+		jdbc.batchUpdate("INSERT INTO produtos (nome_produto, tipo_produto, quantidade_produto, valor_produto)"
+				+ " VALUES (?, 'UN', ?, ?)", produtos);
+	}
+
+	private String signin(HttpClient client, String baseUrl) throws Exception {
+		HttpRequest signin = HttpRequest.newBuilder(URI.create(baseUrl + "/auth/signin"))
+				.header("Content-Type", TestConfigs.CONTENT_TYPE_JSON)
+				.POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"paulo\",\"password\":\"teste123\"}"))
+				.build();
+		HttpResponse<String> response = client.send(signin, HttpResponse.BodyHandlers.ofString());
+		assertEquals(200, response.statusCode());
+		return new ObjectMapper().readValue(response.body(), TokenVO.class).getAccessToken();
+	}
+
+	private long p99(List<Long> latencies) {
+		assertTrue(latencies.size() > 0);
+		Collections.sort(latencies);
+		return latencies.get((int) Math.ceil(latencies.size() * 0.99) - 1);
+	}
+
+	private record Result(long p99, int ok, int overloaded, int unexpected) {
+
+		@Override
+		public String toString() {
+			return "p99 " + p99 + "ms (" + ok + " ok, " + overloaded + " 503, " + unexpected + " outros)";
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package estoque.com.br.integrationtests.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import estoque.com.br.integrationtests.testcontainers.AbstractIntegrationTest;
+import estoque.com.br.services.OrcamentoService;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * A listagem de orcamentos tem que fazer o mesmo numero de consultas qualquer
+ * que seja o tamanho da pagina: contagem, ids da pagina, o grafo dos
+ * orcamentos e as permissoes dos vendedores em lote.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class OrcamentoPageStatementCountTest extends AbstractIntegrationTest {
+
+	private static final int MAX_STATEMENTS = 4;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private OrcamentoService service;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@BeforeAll
+	public void seed() {
+		List<Object[]> clientes = new ArrayList<>();
+		List<Object[]> vendedores = new ArrayList<>();
+		List<Object[]> produtos = new ArrayList<>();
+		for (int i = 1; i <= 20; i++) {
+			clientes.add(new Object[] { "Pagina Cliente " + i, "123456789", String.format("%014d", i), "Rua " + i,
+					"11999999999", "pagina" + i + "@teste.com" });
+			vendedores.add(new Object[] { "pagina" + i, "Vendedor " + i });
+			produtos.add(new Object[] { "Pagina Produto " + i, "UN", 10, 2.5 });
+		}
+		jdbc.batchUpdate("INSERT INTO clientes (razao_social, inscricao_estadual, cnpj, endereco, telefone, email)"
+				+ " VALUES (?, ?, ?, ?, ?, ?)", clientes);
+		jdbc.batchUpdate("INSERT INTO usuarios (user_name, full_name) VALUES (?, ?)", vendedores);
+		jdbc.batchUpdate("INSERT INTO produtos (nome_produto, tipo_produto, quantidade_produto, valor_produto)"
+				+ " VALUES (?, ?, ?, ?)", produtos);
+
+		long cliente = jdbc.queryForObject("SELECT MIN(id) FROM clientes WHERE razao_social LIKE 'Pagina%'", Long.class);
+		long vendedor = jdbc.queryForObject("SELECT MIN(id) FROM usuarios WHERE user_name LIKE 'pagina%'", Long.class);
+		long produto = jdbc.queryForObject("SELECT MIN(id) FROM produtos WHERE nome_produto LIKE 'Pagina%'", Long.class);
+		long primeiro = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) + 1000 FROM orcamentos", Long.class);
+		long primeiroItem = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) + 1000 FROM itens_orcamento", Long.class);
+
+		List<Object[]> orcamentos = new ArrayList<>();
+		List<Object[]> itens = new ArrayList<>();
+		for (int i = 0; i < 60; i++) {
+			long id = primeiro + i;
+			orcamentos.add(new Object[] { id, "PENDENTE", cliente + i % 20, vendedor + i % 20, 7.5, 3 });
+			for (int k = 0; k < 3; k++) {
+				itens.add(new Object[] { primeiroItem + i * 3 + k, id, produto + (i + k) % 20, 1, 2.5 });
+			}
+		}
+		jdbc.batchUpdate("INSERT INTO orcamentos (id, status, cliente_id, usuario_id, total, quantidade_itens)"
+				+ " VALUES (?, ?, ?, ?, ?, ?)", orcamentos);
+		jdbc.batchUpdate("INSERT INTO itens_orcamento (id, orcamento_id, produto_id, quantidade, preco_unitario)"
+				+ " VALUES (?, ?, ?, ?, ?)", itens);
+	}
+
+	@Test
+	public void testStatementCountDoesNotGrowWithPageSize() {
+		long small = statementsFor(5);
+		long large = statementsFor(50);
+
+		assertEquals(small, large);
+		assertTrue(large <= MAX_STATEMENTS, "Consultas por pagina: " + large);
+	}
+
+	private long statementsFor(int size) {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		var page = service.findAll(PageRequest.of(0, size, Sort.by(Sort.Direction.ASC, "status")));
+		assertEquals(size, page.getContent().size());
+		page.getContent().forEach(model -> assertEquals(3, model.getContent().getItens().size()));
+
+		return statistics.getPrepareStatementCount();
+	}
+}
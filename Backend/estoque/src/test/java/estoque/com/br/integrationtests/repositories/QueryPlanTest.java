@@ -0,0 +1,173 @@
+package estoque.com.br.integrationtests.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import estoque.com.br.integrationtests.testcontainers.AbstractIntegrationTest;
+
+/**
+ * Confere com EXPLAIN que as consultas quentes dos repositorios usam indice.
+ * As tabelas recebem alguns milhares de linhas antes, porque com tabelas quase
+ * vazias o MySQL prefere varrer tudo. O SQL segue o que o Hibernate gera para
+ * cada consulta; se uma delas mudar, o SQL daqui tem que mudar junto.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class QueryPlanTest extends AbstractIntegrationTest {
+
+	private static final int CLIENTES = 2000;
+	private static final int PRODUTOS = 2000;
+	private static final int VENDEDORES = 200;
+	private static final int ORCAMENTOS = 5000;
+	private static final String[] STATUS = { "PENDENTE", "APROVADO", "RECUSADO", "EXPIRADO" };
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	// ids que existem com certeza; com id inexistente o EXPLAIN responde
+	// "no matching row in const table" sem mostrar indice
+	private long vendedor;
+	private long orcamento;
+
+	@BeforeAll
+	public void seed() {
+		List<Object[]> clientes = new ArrayList<>();
+		for (int i = 1; i <= CLIENTES; i++) {
+			clientes.add(new Object[] { "Cliente " + i, "123456789", String.format("%014d", i), "Rua " + i,
+					"1199999" + i % 10000, "cliente" + i + "@teste.com" });
+		}
+		jdbc.batchUpdate("INSERT INTO clientes (razao_social, inscricao_estadual, cnpj, endereco, telefone, email)"
+				+ " VALUES (?, ?, ?, ?, ?, ?)", clientes);
+
+		List<Object[]> produtos = new ArrayList<>();
+		for (int i = 1; i <= PRODUTOS; i++) {
+			produtos.add(new Object[] { "Produto " + i, "UN", 10, 2.5 });
+		}
+		jdbc.batchUpdate("INSERT INTO produtos (nome_produto, tipo_produto, quantidade_produto, valor_produto)"
+				+ " VALUES (?, ?, ?, ?)", produtos);
+
+		List<Object[]> vendedores = new ArrayList<>();
+		for (int i = 1; i <= VENDEDORES; i++) {
+			vendedores.add(new Object[] { "vendedor" + i, "Vendedor " + i });
+		}
+		jdbc.batchUpdate("INSERT INTO usuarios (user_name, full_name) VALUES (?, ?)", vendedores);
+
+		long primeiroCliente = jdbc.queryForObject("SELECT MIN(id) FROM clientes", Long.class);
+		long primeiroProduto = jdbc.queryForObject("SELECT MIN(id) FROM produtos", Long.class);
+		long primeiroVendedor = jdbc.queryForObject("SELECT MIN(id) FROM usuarios WHERE user_name LIKE 'vendedor%'",
+				Long.class);
+		long primeiroOrcamento = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM orcamentos", Long.class);
+
+		LocalDateTime inicio = LocalDateTime.of(2010, 1, 1, 0, 0);
+		List<Object[]> orcamentos = new ArrayList<>();
+		List<Object[]> itens = new ArrayList<>();
+		for (int i = 0; i < ORCAMENTOS; i++) {
+			long id = primeiroOrcamento + i;
+			Timestamp criacao = Timestamp.valueOf(inicio.plusDays(i));
+			orcamentos.add(new Object[] { id, criacao, Timestamp.valueOf(inicio.plusDays(i + 30)),
+					STATUS[i % STATUS.length], primeiroCliente + i % CLIENTES, primeiroVendedor + i % VENDEDORES, 5.0, 2 });
+			for (int k = 0; k < 2; k++) {
+				itens.add(new Object[] { id, primeiroProduto + (i + k) % PRODUTOS, 1, 2.5 });
+			}
+		}
+		jdbc.batchUpdate("INSERT INTO orcamentos (id, data_criacao, data_validade, status, cliente_id, usuario_id,"
+				+ " total, quantidade_itens) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", orcamentos);
+		jdbc.batchUpdate("INSERT INTO itens_orcamento (orcamento_id, produto_id, quantidade, preco_unitario)"
+				+ " VALUES (?, ?, ?, ?)", itens);
+
+		vendedor = primeiroVendedor;
+		orcamento = primeiroOrcamento;
+		jdbc.execute("ANALYZE TABLE clientes, produtos, orcamentos, itens_orcamento, usuarios");
+	}
+
+	@Test
+	public void testOrcamentoPageOrderedByStatus() {
+		assertIndexedWithoutFilesort("SELECT o.* FROM orcamentos o ORDER BY o.status, o.id LIMIT 12 OFFSET 24");
+	}
+
+	@Test
+	public void testOrcamentoKeysetPage() {
+		assertIndexedWithoutFilesort("SELECT o.* FROM orcamentos o"
+				+ " WHERE o.status > 'APROVADO' OR (o.status = 'APROVADO' AND o.id > 100)"
+				+ " ORDER BY o.status, o.id LIMIT 12");
+	}
+
+	@Test
+	public void testOrcamentosByCliente() {
+		assertIndexed("SELECT o.id FROM orcamentos o WHERE o.cliente_id = 10");
+	}
+
+	@Test
+	public void testOrcamentosByVendedor() {
+		assertIndexed("SELECT o.id FROM orcamentos o WHERE o.usuario_id = " + vendedor);
+	}
+
+	@Test
+	public void testExportByPeriod() {
+		assertIndexed("SELECT o.id, i.id FROM orcamentos o LEFT JOIN itens_orcamento i ON i.orcamento_id = o.id"
+				+ " WHERE o.data_criacao >= '2012-01-01' AND o.data_criacao < '2012-02-01' ORDER BY o.id, i.id");
+	}
+
+	@Test
+	public void testExportByPeriodAndStatus() {
+		assertIndexed("SELECT o.id FROM orcamentos o WHERE o.data_criacao >= '2012-01-01'"
+				+ " AND o.data_criacao < '2012-02-01' AND o.status = 'PENDENTE' ORDER BY o.id");
+	}
+
+	@Test
+	public void testOrcamentoWithItens() {
+		assertIndexed("SELECT o.*, i.*, p.* FROM orcamentos o LEFT JOIN itens_orcamento i ON i.orcamento_id = o.id"
+				+ " LEFT JOIN produtos p ON p.id = i.produto_id WHERE o.id = " + orcamento);
+	}
+
+	@Test
+	public void testItensByProduto() {
+		assertIndexed("SELECT i.id FROM itens_orcamento i WHERE i.produto_id = 10");
+	}
+
+	@Test
+	public void testClientePageOrderedByRazaoSocial() {
+		assertIndexedWithoutFilesort("SELECT c.* FROM clientes c ORDER BY c.razao_social, c.id LIMIT 12");
+	}
+
+	@Test
+	public void testProdutoPageOrderedByNome() {
+		assertIndexedWithoutFilesort("SELECT p.* FROM produtos p ORDER BY p.nome_produto, p.id LIMIT 12");
+	}
+
+	@Test
+	public void testUsuarioByUserName() {
+		assertIndexed("SELECT u.* FROM usuarios u LEFT JOIN user_permission up ON up.id_usuario = u.id"
+				+ " LEFT JOIN permission p ON p.id = up.id_permission WHERE u.user_name = 'paulo'");
+	}
+
+	private void assertIndexedWithoutFilesort(String sql) {
+		for (Map<String, Object> row : assertIndexed(sql)) {
+			String extra = String.valueOf(row.get("Extra"));
+			assertFalse(extra.contains("Using filesort"), "Ordenacao fora do indice em: " + sql + " -> " + row);
+		}
+	}
+
+	private List<Map<String, Object>> assertIndexed(String sql) {
+		List<Map<String, Object>> plan = jdbc.queryForList("EXPLAIN " + sql);
+		for (Map<String, Object> row : plan) {
+			assertNotEquals("ALL", row.get("type"), "Full scan em: " + sql + " -> " + row);
+			assertNotNull(row.get("key"), "Nenhum indice usado em: " + sql + " -> " + row);
+		}
+		return plan;
+	}
+}
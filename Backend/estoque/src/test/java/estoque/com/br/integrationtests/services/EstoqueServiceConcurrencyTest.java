@@ -0,0 +1,202 @@
+package estoque.com.br.integrationtests.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import estoque.com.br.data.vo.ItemOrcamentoVO;
+import estoque.com.br.data.vo.OrcamentoVO;
+import estoque.com.br.exceptions.InsufficientStockException;
+import estoque.com.br.exceptions.ResourceConflictException;
+import estoque.com.br.integrationtests.testcontainers.AbstractIntegrationTest;
+import estoque.com.br.services.EstoqueService;
+import estoque.com.br.services.OrcamentoService;
+
+/**
+ * Centenas de aprovacoes concorrentes disputando o mesmo produto: so podem
+ * passar tantas quanto o saldo permite, o estoque nunca fica negativo e o
+ * razao bate com o saldo final. Alteracoes correndo junto com a aprovacao nao
+ * podem devolver o orcamento a PENDENTE nem reservar o estoque duas vezes.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class EstoqueServiceConcurrencyTest extends AbstractIntegrationTest {
+
+	private static final int ORCAMENTOS = 300;
+	private static final int ESTOQUE_DISPUTADO = 120;
+	private static final int ESTOQUE_FOLGADO = 10000;
+	private static final int THREADS = 64;
+	private static final int CORRIDAS = 50;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private EstoqueService service;
+
+	@Autowired
+	private OrcamentoService orcamentoService;
+
+	@Test
+	public void testConcurrentApprovalsNeverOversell() throws Exception {
+		long disputado = insertProduto("Produto Disputado", ESTOQUE_DISPUTADO);
+		long folgado = insertProduto("Produto Folgado", ESTOQUE_FOLGADO);
+
+		long primeiro = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) + 1000 FROM orcamentos", Long.class);
+		long primeiroItem = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) + 1000 FROM itens_orcamento", Long.class);
+		List<Object[]> orcamentos = new ArrayList<>();
+		List<Object[]> itens = new ArrayList<>();
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < ORCAMENTOS; i++) {
+			long id = primeiro + i;
+			ids.add(id);
+			orcamentos.add(new Object[] { id, "PENDENTE" });
+			// metade grava os itens na ordem inversa; a baixa tem que travar
+			// os produtos sempre na mesma ordem mesmo assim
+			long a = i % 2 == 0 ? disputado : folgado;
+			long b = i % 2 == 0 ? folgado : disputado;
+			itens.add(new Object[] { primeiroItem + i * 2, id, a, 1, 10 });
+			itens.add(new Object[] { primeiroItem + i * 2 + 1, id, b, 1, 10 });
+		}
+		jdbc.batchUpdate("INSERT INTO orcamentos (id, status, quantidade_itens) VALUES (?, ?, 2)", orcamentos);
+		jdbc.batchUpdate("INSERT INTO itens_orcamento (id, orcamento_id, produto_id, quantidade, preco_unitario)"
+				+ " VALUES (?, ?, ?, ?, ?)", itens);
+		Collections.shuffle(ids);
+
+		AtomicInteger aprovados = new AtomicInteger();
+		AtomicInteger semEstoque = new AtomicInteger();
+		ConcurrentLinkedQueue<Throwable> erros = new ConcurrentLinkedQueue<>();
+		CountDownLatch largada = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		for (Long id : ids) {
+			executor.execute(() -> {
+				try {
+					largada.await();
+					service.aprovar(id);
+					aprovados.incrementAndGet();
+				} catch (InsufficientStockException e) {
+					semEstoque.incrementAndGet();
+				} catch (Throwable e) {
+					erros.add(e);
+				}
+			});
+		}
+		largada.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+
+		assertTrue(erros.isEmpty(), "Erros inesperados: " + erros);
+		assertEquals(ESTOQUE_DISPUTADO, aprovados.get());
+		assertEquals(ORCAMENTOS - ESTOQUE_DISPUTADO, semEstoque.get());
+
+		assertEquals(0, quantidade(disputado).signum());
+		assertEquals(0, BigDecimal.valueOf(ESTOQUE_FOLGADO - ESTOQUE_DISPUTADO).compareTo(quantidade(folgado)));
+		assertEquals(ESTOQUE_DISPUTADO, jdbc.queryForObject(
+				"SELECT COUNT(*) FROM orcamentos WHERE id >= ? AND status = 'APROVADO'", Integer.class, primeiro));
+		// orcamento recusado por falta de estoque nao deixa baixa nem status para tras
+		assertEquals(0, BigDecimal.valueOf(-ESTOQUE_DISPUTADO).compareTo(ledger(folgado)));
+		assertEquals(0, BigDecimal.valueOf(-ESTOQUE_DISPUTADO).compareTo(ledger(disputado)));
+	}
+
+	@Test
+	public void testUpdateRacingApprovalNeverReservesTwice() throws Exception {
+		long produto = insertProduto("Produto Corrida", ESTOQUE_FOLGADO);
+		jdbc.update("INSERT INTO clientes (razao_social, inscricao_estadual, cnpj, endereco, telefone, email)"
+				+ " VALUES ('Cliente Corrida', '123456789', '00000000000201', 'Rua 1', '11999999999', 'corrida@teste.com')");
+		long cliente = jdbc.queryForObject("SELECT MAX(id) FROM clientes WHERE razao_social = 'Cliente Corrida'", Long.class);
+		long primeiro = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) + 1000 FROM orcamentos", Long.class);
+		long primeiroItem = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) + 1000 FROM itens_orcamento", Long.class);
+
+		ConcurrentLinkedQueue<Throwable> erros = new ConcurrentLinkedQueue<>();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		for (int i = 0; i < CORRIDAS; i++) {
+			long id = primeiro + i;
+			long itemId = primeiroItem + i;
+			jdbc.update("INSERT INTO orcamentos (id, cliente_id, status, quantidade_itens) VALUES (?, ?, 'PENDENTE', 1)",
+					id, cliente);
+			jdbc.update("INSERT INTO itens_orcamento (id, orcamento_id, produto_id, quantidade, preco_unitario)"
+					+ " VALUES (?, ?, ?, 1, 10)", itemId, id, produto);
+
+			CountDownLatch largada = new CountDownLatch(1);
+			var alteracao = executor.submit(() -> {
+				largada.await();
+				try {
+					orcamentoService.update(orcamento(id, cliente, itemId, produto));
+				} catch (ResourceConflictException e) {
+					// a aprovacao chegou antes
+				}
+				return null;
+			});
+			var aprovacao = executor.submit(() -> {
+				largada.await();
+				service.aprovar(id);
+				return null;
+			});
+			largada.countDown();
+			for (var tarefa : List.of(alteracao, aprovacao)) {
+				try {
+					tarefa.get(1, TimeUnit.MINUTES);
+				} catch (ExecutionException e) {
+					erros.add(e.getCause());
+				}
+			}
+		}
+		executor.shutdown();
+		assertTrue(erros.isEmpty(), "Erros inesperados: " + erros);
+
+		// nenhuma alteracao pode ter trazido um orcamento aprovado de volta a PENDENTE
+		assertEquals(CORRIDAS, jdbc.queryForObject(
+				"SELECT COUNT(*) FROM orcamentos WHERE id >= ? AND status = 'APROVADO'", Integer.class, primeiro));
+		for (int i = 0; i < CORRIDAS; i++) {
+			long id = primeiro + i;
+			assertThrows(ResourceConflictException.class, () -> service.aprovar(id));
+		}
+		assertEquals(0, BigDecimal.valueOf(ESTOQUE_FOLGADO - CORRIDAS).compareTo(quantidade(produto)));
+		assertEquals(0, BigDecimal.valueOf(-CORRIDAS).compareTo(ledger(produto)));
+	}
+
+	private OrcamentoVO orcamento(long id, long cliente, long itemId, long produto) {
+		var item = new ItemOrcamentoVO();
+		item.setKey(itemId);
+		item.setProdutoId(produto);
+		item.setQuantidade(BigDecimal.ONE);
+		item.setPrecoUnitario(10.0);
+		var vo = new OrcamentoVO();
+		vo.setKey(id);
+		vo.setClienteId(cliente);
+		vo.setStatus("PENDENTE");
+		vo.setItens(new ArrayList<>(List.of(item)));
+		return vo;
+	}
+
+	private long insertProduto(String nome, int quantidade) {
+		jdbc.update("INSERT INTO produtos (nome_produto, tipo_produto, quantidade_produto, valor_produto)"
+				+ " VALUES (?, 'UN', ?, 10)", nome, quantidade);
+		return jdbc.queryForObject("SELECT MAX(id) FROM produtos WHERE nome_produto = ?", Long.class, nome);
+	}
+
+	private BigDecimal quantidade(long produtoId) {
+		return jdbc.queryForObject("SELECT quantidade_produto FROM produtos WHERE id = ?", BigDecimal.class, produtoId);
+	}
+
+	private BigDecimal ledger(long produtoId) {
+		return jdbc.queryForObject("SELECT COALESCE(SUM(quantidade), 0) FROM movimentacoes_estoque WHERE produto_id = ?",
+				BigDecimal.class, produtoId);
+	}
+}
@@ -0,0 +1,114 @@
+package estoque.com.br.integrationtests.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import estoque.com.br.integrationtests.testcontainers.AbstractIntegrationTest;
+import estoque.com.br.model.EventoOutbox;
+import estoque.com.br.model.StatusEvento;
+import estoque.com.br.outbox.OutboxConsumer;
+import estoque.com.br.outbox.OutboxPublisher;
+import estoque.com.br.repositories.EventoOutboxRepository;
+
+/**
+ * Entrega em ordem por agregado mesmo com falhas: o evento que falha segura
+ * os seguintes do mesmo agregado ate passar, e o que nunca passa vira MORTO
+ * sem segurar os outros agregados.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"outbox.dispatcher.poll-interval=50ms", "outbox.dispatcher.initial-backoff=20ms",
+		"outbox.dispatcher.max-attempts=3" })
+public class OutboxDispatcherTest extends AbstractIntegrationTest {
+
+	private static final String TIPO = "TESTE_ORDEM";
+
+	@Autowired
+	private OutboxPublisher publisher;
+
+	@Autowired
+	private EventoOutboxRepository repository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ConsumidorDeTeste consumidor;
+
+	@Test
+	public void testOrderPerAggregateWithRetryAndDeadLetter() throws InterruptedException {
+		var transaction = new TransactionTemplate(transactionManager);
+		transaction.executeWithoutResult(tx -> {
+			for (int i = 0; i < 5; i++) {
+				for (long agregado = 1; agregado <= 20; agregado++) {
+					// o primeiro evento do agregado 7 falha duas vezes antes de passar
+					String payload = agregado == 7 && i == 0 ? "falhar:2" : agregado == 13 && i == 2 ? "falhar:99" : "ok";
+					publisher.publicar("TESTE", agregado, TIPO, Map.of("seq", i, "acao", payload));
+				}
+			}
+		});
+
+		long limite = System.currentTimeMillis() + 30000;
+		while (repository.countByStatus(StatusEvento.PENDENTE) > 0) {
+			assertTrue(System.currentTimeMillis() < limite, "Outbox nao esvaziou");
+			Thread.sleep(50);
+		}
+
+		for (long agregado = 1; agregado <= 20; agregado++) {
+			var entregues = consumidor.entregues.getOrDefault(agregado, List.of());
+			var esperado = agregado == 13 ? List.of(0, 1, 3, 4) : List.of(0, 1, 2, 3, 4);
+			assertEquals(esperado, entregues, "Agregado " + agregado);
+		}
+		var mortos = repository.findByStatusOrderByIdDesc(StatusEvento.MORTO, PageRequest.of(0, 10));
+		assertEquals(1, mortos.size());
+		assertEquals(13L, mortos.get(0).getAgregadoId());
+		assertEquals(3, mortos.get(0).getTentativas());
+	}
+
+	@TestConfiguration
+	static class Config {
+
+		@Bean
+		ConsumidorDeTeste consumidorDeTeste() {
+			return new ConsumidorDeTeste();
+		}
+	}
+
+	static class ConsumidorDeTeste implements OutboxConsumer {
+
+		final Map<Long, List<Integer>> entregues = new ConcurrentHashMap<>();
+		private final Map<Long, AtomicInteger> falhas = new ConcurrentHashMap<>();
+
+		@Override
+		public boolean aceita(String tipo) {
+			return TIPO.equals(tipo);
+		}
+
+		@Override
+		public void consumir(EventoOutbox evento) {
+			String payload = evento.getPayload();
+			int seq = Integer.parseInt(payload.replaceAll(".*\"seq\":(\\d+).*", "$1"));
+			if (payload.contains("falhar:")) {
+				int vezes = Integer.parseInt(payload.replaceAll(".*falhar:(\\d+).*", "$1"));
+				if (falhas.computeIfAbsent(evento.getId(), id -> new AtomicInteger()).incrementAndGet() <= vezes) {
+					throw new IllegalStateException("Falha de teste no evento " + evento.getId());
+				}
+			}
+			entregues.computeIfAbsent(evento.getAgregadoId(), id -> new CopyOnWriteArrayList<>()).add(seq);
+		}
+	}
+}
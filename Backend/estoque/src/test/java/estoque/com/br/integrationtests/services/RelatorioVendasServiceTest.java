@@ -0,0 +1,171 @@
+package estoque.com.br.integrationtests.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import estoque.com.br.data.vo.ItemOrcamentoVO;
+import estoque.com.br.data.vo.OrcamentoVO;
+import estoque.com.br.data.vo.ResumoVendaVO;
+import estoque.com.br.exceptions.InvalidPeriodException;
+import estoque.com.br.exceptions.ResourceConflictException;
+import estoque.com.br.integrationtests.testcontainers.AbstractIntegrationTest;
+import estoque.com.br.model.DimensaoRelatorio;
+import estoque.com.br.model.StatusEvento;
+import estoque.com.br.repositories.EventoOutboxRepository;
+import estoque.com.br.services.OrcamentoService;
+import estoque.com.br.services.RelatorioVendasService;
+
+/**
+ * O resumo mantido pelos eventos de orcamento do outbox tem que ser igual ao
+ * resumo recalculado do zero a partir dos orcamentos.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class RelatorioVendasServiceTest extends AbstractIntegrationTest {
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private OrcamentoService orcamentoService;
+
+	@Autowired
+	private RelatorioVendasService service;
+
+	@Autowired
+	private EventoOutboxRepository outbox;
+
+	@Test
+	public void testIncrementalSummaryMatchesRebuild() throws InterruptedException {
+		long clienteA = insertCliente("Relatorio Cliente A", "00000000000101");
+		long clienteB = insertCliente("Relatorio Cliente B", "00000000000102");
+		jdbc.update("INSERT INTO usuarios (user_name, full_name) VALUES ('relatorio', 'Vendedor Relatorio')");
+		long vendedor = jdbc.queryForObject("SELECT id FROM usuarios WHERE user_name = 'relatorio'", Long.class);
+		// o mesmo tipo em caixas diferentes cai na mesma linha
+		long produto1 = insertProduto("Relatorio Produto 1", "CX");
+		long produto2 = insertProduto("Relatorio Produto 2", "cx");
+
+		var primeiro = orcamentoService.create(orcamento(clienteA, vendedor,
+				item(null, produto1, "2", 10.0), item(null, produto2, "1", 3.0)));
+
+		var segundo = orcamentoService.create(orcamento(clienteA, vendedor, item(null, produto1, "7", 10.0)));
+		orcamentoService.delete(segundo.getKey());
+
+		var itemProduto1 = primeiro.getItens().stream()
+				.filter(i -> i.getProdutoId() == produto1).findFirst().orElseThrow();
+		var alterado = orcamento(clienteB, vendedor,
+				item(itemProduto1.getKey(), produto1, "5", 10.0), item(null, produto2, "1.5", 3.33));
+		alterado.setKey(primeiro.getKey());
+		orcamentoService.update(alterado);
+
+		orcamentoService.aprovar(primeiro.getKey());
+		aguardarOutbox();
+
+		var de = LocalDate.now().minusDays(1);
+		var ate = LocalDate.now().plusDays(1);
+		List<ResumoVendaVO> incremental = resumo(de, ate, clienteA, clienteB, vendedor, produto1, produto2);
+
+		assertEquals(1, service.findResumo(DimensaoRelatorio.CLIENTE, de, ate, String.valueOf(clienteB), "APROVADO").size());
+		assertTrue(service.findResumo(DimensaoRelatorio.CLIENTE, de, ate, String.valueOf(clienteA), null).isEmpty());
+		var tipo = service.findResumo(DimensaoRelatorio.TIPO_PRODUTO, de, ate, "CX", "APROVADO");
+		assertEquals(1, tipo.size());
+		assertEquals(1, tipo.get(0).getOrcamentos());
+		assertEquals(0, new BigDecimal("6.5").compareTo(tipo.get(0).getQuantidade()));
+		// 5 x 10.00 + 1.5 x 3.33 (4.995 arredondado para 5.00)
+		assertEquals(0, new BigDecimal("55.00").compareTo(tipo.get(0).getValor()));
+
+		service.reconstruir(de, ate);
+		assertEquals(incremental, resumo(de, ate, clienteA, clienteB, vendedor, produto1, produto2));
+	}
+
+	@Test
+	public void testReconstruirRejectsInvertedOrTooLongPeriods() {
+		var hoje = LocalDate.now();
+		assertThrows(InvalidPeriodException.class, () -> service.reconstruir(hoje, hoje.minusDays(1)));
+		assertThrows(InvalidPeriodException.class, () -> service.reconstruir(hoje.minusDays(366), hoje));
+	}
+
+	@Test
+	public void testReconstruirRefusesWhilePeriodHasPendingEvents() throws InterruptedException {
+		long cliente = insertCliente("Relatorio Cliente Pendente", "00000000000103");
+		long produto = insertProduto("Relatorio Produto Pendente", "UN");
+		jdbc.update("INSERT INTO usuarios (user_name, full_name) VALUES ('relatorio-pendente', 'Vendedor Pendente')");
+		long vendedor = jdbc.queryForObject("SELECT id FROM usuarios WHERE user_name = 'relatorio-pendente'", Long.class);
+		var criado = orcamentoService.create(orcamento(cliente, vendedor, item(null, produto, "1", 10.0)));
+		aguardarOutbox();
+
+		// evento que o dispatcher so pegaria daqui a um dia
+		jdbc.update("INSERT INTO outbox_eventos (agregado_tipo, agregado_id, tipo, payload, status, tentativas,"
+				+ " proxima_tentativa, data_criacao) VALUES ('ORCAMENTO', ?, 'ORCAMENTO_ALTERADO', '{}', 'PENDENTE', 0,"
+				+ " ?, ?)", criado.getKey(), LocalDateTime.now().plusDays(1), LocalDateTime.now());
+		try {
+			var hoje = LocalDate.now();
+			assertThrows(ResourceConflictException.class, () -> service.reconstruir(hoje, hoje));
+			// fora do periodo do orcamento pendente a reconstrucao segue
+			service.reconstruir(hoje.minusDays(3), hoje.minusDays(2));
+		} finally {
+			jdbc.update("DELETE FROM outbox_eventos WHERE status = 'PENDENTE' AND agregado_id = ?", criado.getKey());
+		}
+	}
+
+	private void aguardarOutbox() throws InterruptedException {
+		long limite = System.currentTimeMillis() + 30000;
+		while (outbox.countByStatus(StatusEvento.PENDENTE) > 0) {
+			assertTrue(System.currentTimeMillis() < limite, "Outbox nao esvaziou");
+			Thread.sleep(50);
+		}
+		assertEquals(0, outbox.countByStatus(StatusEvento.MORTO));
+	}
+
+	private List<ResumoVendaVO> resumo(LocalDate de, LocalDate ate, long clienteA, long clienteB, long vendedor,
+			long produto1, long produto2) {
+		List<ResumoVendaVO> linhas = new ArrayList<>();
+		linhas.addAll(service.findResumo(DimensaoRelatorio.CLIENTE, de, ate, String.valueOf(clienteA), null));
+		linhas.addAll(service.findResumo(DimensaoRelatorio.CLIENTE, de, ate, String.valueOf(clienteB), null));
+		linhas.addAll(service.findResumo(DimensaoRelatorio.VENDEDOR, de, ate, String.valueOf(vendedor), null));
+		linhas.addAll(service.findResumo(DimensaoRelatorio.PRODUTO, de, ate, String.valueOf(produto1), null));
+		linhas.addAll(service.findResumo(DimensaoRelatorio.PRODUTO, de, ate, String.valueOf(produto2), null));
+		return linhas;
+	}
+
+	private OrcamentoVO orcamento(long clienteId, long vendedorId, ItemOrcamentoVO... itens) {
+		var vo = new OrcamentoVO();
+		vo.setStatus("PENDENTE");
+		vo.setClienteId(clienteId);
+		vo.setVendedorId(vendedorId);
+		vo.setItens(new ArrayList<>(List.of(itens)));
+		return vo;
+	}
+
+	private ItemOrcamentoVO item(Long id, long produtoId, String quantidade, double preco) {
+		var vo = new ItemOrcamentoVO();
+		vo.setKey(id);
+		vo.setProdutoId(produtoId);
+		vo.setQuantidade(new BigDecimal(quantidade));
+		vo.setPrecoUnitario(preco);
+		return vo;
+	}
+
+	private long insertCliente(String razaoSocial, String cnpj) {
+		jdbc.update("INSERT INTO clientes (razao_social, inscricao_estadual, cnpj, endereco, telefone, email)"
+				+ " VALUES (?, '123456789', ?, 'Rua 1', '11999999999', 'relatorio@teste.com')", razaoSocial, cnpj);
+		return jdbc.queryForObject("SELECT MAX(id) FROM clientes WHERE razao_social = ?", Long.class, razaoSocial);
+	}
+
+	private long insertProduto(String nome, String tipo) {
+		jdbc.update("INSERT INTO produtos (nome_produto, tipo_produto, quantidade_produto, valor_produto)"
+				+ " VALUES (?, ?, 100, 10)", nome, tipo);
+		return jdbc.queryForObject("SELECT MAX(id) FROM produtos WHERE nome_produto = ?", Long.class, nome);
+	}
+}
@@ -0,0 +1,83 @@
+package estoque.com.br.integrationtests.services;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+import estoque.com.br.integrationtests.testcontainers.AbstractIntegrationTest;
+import estoque.com.br.model.Usuario;
+import estoque.com.br.repositories.UsuarioRepository;
+import estoque.com.br.security.jwt.JwtTokenProvider;
+import estoque.com.br.security.jwt.JwtTokenRevocationRegistry;
+import estoque.com.br.services.UsuarioService;
+
+/**
+ * A revogacao fica no banco: uma instancia que nunca viu a alteracao (outra
+ * maquina ou depois de um restart) tambem recusa os tokens antigos.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"security.jwt.token.stateless=true" })
+public class UsuarioTokenRevocationTest extends AbstractIntegrationTest {
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private UsuarioService usuarioService;
+
+	@Autowired
+	private UsuarioRepository repository;
+
+	@Autowired
+	private JwtTokenProvider tokenProvider;
+
+	@Test
+	public void testRevocationIsSeenByAnotherInstanceAndSurvivesDelete() throws InterruptedException {
+		jdbc.update("INSERT INTO usuarios (user_name, full_name) VALUES ('revogacao', 'Usuario Revogacao')");
+		long id = jdbc.queryForObject("SELECT id FROM usuarios WHERE user_name = 'revogacao'", Long.class);
+
+		DecodedJWT antigo = token("revogacao");
+		assertNotNull(tokenProvider.getAuthentication(antigo));
+		assertFalse(outraInstancia().isRevoked("revogacao", antigo.getIssuedAt()));
+
+		var alterado = new Usuario();
+		alterado.setUserName("revogacao");
+		alterado.setFullName("Usuario Revogacao");
+		alterado.setPassword("nova-senha");
+		alterado.setPermissions(new ArrayList<>());
+		usuarioService.update(id, alterado);
+
+		assertNull(tokenProvider.getAuthentication(antigo));
+		assertTrue(outraInstancia().isRevoked("revogacao", antigo.getIssuedAt()));
+
+		// o iat tem segundos; um login no segundo seguinte volta a valer
+		Thread.sleep(1100);
+		DecodedJWT novo = token("revogacao");
+		assertNotNull(tokenProvider.getAuthentication(novo));
+		assertFalse(outraInstancia().isRevoked("revogacao", novo.getIssuedAt()));
+
+		usuarioService.delete(id);
+		assertNull(tokenProvider.getAuthentication(novo));
+		assertTrue(outraInstancia().isRevoked("revogacao", novo.getIssuedAt()));
+	}
+
+	private DecodedJWT token(String username) {
+		return tokenProvider.verifyToken(tokenProvider.createAccessToken(username, List.of("ROLE_VENDEDOR")).getAccessToken());
+	}
+
+	private JwtTokenRevocationRegistry outraInstancia() {
+		return new JwtTokenRevocationRegistry(repository, Duration.ofSeconds(30));
+	}
+}
@@ -0,0 +1,85 @@
+package estoque.com.br.unittests.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import estoque.com.br.cache.ProdutoCatalogCache;
+import estoque.com.br.model.Produto;
+import estoque.com.br.repositories.ProdutoRepository;
+
+public class ProdutoCatalogCacheTest {
+
+	private ProdutoRepository repository;
+	private ProdutoCatalogCache catalog;
+
+	@BeforeEach
+	public void setup() {
+		repository = mock(ProdutoRepository.class);
+		when(repository.findById(any())).thenAnswer(call -> Optional.ofNullable(produto(call.getArgument(0))));
+		when(repository.findAllById(any())).thenAnswer(call -> {
+			Collection<Long> ids = call.getArgument(0);
+			return ids.stream().map(this::produto).filter(p -> p != null).toList();
+		});
+		catalog = new ProdutoCatalogCache(repository, 100, Duration.ofMinutes(10));
+	}
+
+	@Test
+	public void testGetLoadsOnce() {
+		assertEquals("Produto 1", catalog.get(1L).getNomeProduto());
+		assertEquals("Produto 1", catalog.get(1L).getNomeProduto());
+		verify(repository, times(1)).findById(1L);
+		assertEquals(1, catalog.stats().hitCount());
+		assertEquals(1, catalog.stats().missCount());
+	}
+
+	@Test
+	public void testGetAllFetchesOnlyMissingIds() {
+		catalog.get(1L);
+		var produtos = catalog.getAll(List.of(1L, 2L, 3L));
+		assertEquals(Set.of(1L, 2L, 3L), produtos.keySet());
+		verify(repository).findAllById(List.of(2L, 3L));
+
+		catalog.getAll(List.of(1L, 2L, 3L));
+		verify(repository, times(1)).findAllById(any());
+	}
+
+	@Test
+	public void testMissingProdutoIsNotCached() {
+		assertNull(catalog.get(404L));
+		assertEquals(Set.of(1L), catalog.getAll(List.of(1L, 404L)).keySet());
+		assertNull(catalog.get(404L));
+		verify(repository, times(2)).findById(404L);
+	}
+
+	@Test
+	public void testInvalidateReloads() {
+		catalog.get(1L);
+		catalog.invalidate(1L);
+		catalog.get(1L);
+		verify(repository, times(2)).findById(1L);
+	}
+
+	private Produto produto(Long id) {
+		if (id >= 404L) {
+			return null;
+		}
+		Produto produto = new Produto();
+		produto.setId(id);
+		produto.setNomeProduto("Produto " + id);
+		return produto;
+	}
+}
@@ -0,0 +1,212 @@
+package estoque.com.br.unittests.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import estoque.com.br.data.vo.ClienteVO;
+import estoque.com.br.data.vo.ItemOrcamentoVO;
+import estoque.com.br.data.vo.OrcamentoVO;
+import estoque.com.br.data.vo.PermissionVO;
+import estoque.com.br.data.vo.ProdutoVO;
+import estoque.com.br.data.vo.UsuarioVO;
+import estoque.com.br.mapper.ClienteMapper;
+import estoque.com.br.mapper.ItemOrcamentoMapper;
+import estoque.com.br.mapper.ModelMapperConfig;
+import estoque.com.br.mapper.OrcamentoMapper;
+import estoque.com.br.mapper.PermissionMapper;
+import estoque.com.br.mapper.ProdutoMapper;
+import estoque.com.br.mapper.UsuarioMapper;
+import estoque.com.br.model.Cliente;
+import estoque.com.br.model.ItemOrcamento;
+import estoque.com.br.model.Orcamento;
+import estoque.com.br.model.Permission;
+import estoque.com.br.model.Produto;
+import estoque.com.br.model.TipoProduto;
+import estoque.com.br.model.Usuario;
+
+public class MapperEquivalenceTest {
+
+	private ModelMapper modelMapper;
+
+	@BeforeEach
+	public void setUp() {
+		modelMapper = new ModelMapperConfig().modelMapper();
+	}
+
+	@Test
+	public void clienteToVO() {
+		Cliente entity = mockCliente(1);
+		assertThat(ClienteMapper.toVO(entity)).usingRecursiveComparison()
+				.isEqualTo(modelMapper.map(entity, ClienteVO.class));
+	}
+
+	@Test
+	public void clienteToEntity() {
+		ClienteVO vo = ClienteMapper.toVO(mockCliente(2));
+		assertThat(ClienteMapper.toEntity(vo)).usingRecursiveComparison()
+				.isEqualTo(modelMapper.map(vo, Cliente.class));
+	}
+
+	@Test
+	public void produtoToVO() {
+		Produto entity = mockProduto(3);
+		assertThat(ProdutoMapper.toVO(entity)).usingRecursiveComparison()
+				.isEqualTo(modelMapper.map(entity, ProdutoVO.class));
+	}
+
+	@Test
+	public void produtoToEntity() {
+		ProdutoVO vo = ProdutoMapper.toVO(mockProduto(4));
+		assertThat(ProdutoMapper.toEntity(vo)).usingRecursiveComparison()
+				.isEqualTo(modelMapper.map(vo, Produto.class));
+	}
+
+	@Test
+	public void permissionBothWays() {
+		Permission entity = mockPermission(1);
+		assertThat(PermissionMapper.toVO(entity)).usingRecursiveComparison()
+				.isEqualTo(modelMapper.map(entity, PermissionVO.class));
+
+		PermissionVO vo = PermissionMapper.toVO(entity);
+		assertThat(PermissionMapper.toEntity(vo)).usingRecursiveComparison()
+				.isEqualTo(modelMapper.map(vo, Permission.class));
+	}
+
+	@Test
+	public void usuarioToVO() {
+		Usuario entity = mockUsuario(7);
+		assertThat(UsuarioMapper.toVO(entity)).usingRecursiveComparison()
+				.isEqualTo(modelMapper.map(entity, UsuarioVO.class));
+	}
+
+	@Test
+	public void usuarioWithoutPermissionsToVO() {
+		Usuario entity = mockUsuario(8);
+		entity.setPermissions(null);
+		assertThat(UsuarioMapper.toVO(entity)).usingRecursiveComparison()
+				.isEqualTo(modelMapper.map(entity, UsuarioVO.class));
+	}
+
+	@Test
+	public void itemOrcamentoBothWays() {
+		ItemOrcamento entity = mockOrcamento(1, 1).getItens().get(0);
+		assertThat(ItemOrcamentoMapper.toVO(entity)).usingRecursiveComparison()
+				.isEqualTo(modelMapper.map(entity, ItemOrcamentoVO.class));
+
+		// toEntity arredonda quantidade e preco para centavos; o valor e o mesmo
+		ItemOrcamentoVO vo = ItemOrcamentoMapper.toVO(entity);
+		assertThat(ItemOrcamentoMapper.toEntity(vo)).usingRecursiveComparison()
+				.withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+				.isEqualTo(modelMapper.map(vo, ItemOrcamento.class));
+	}
+
+	@Test
+	public void itemOrcamentoWithoutReferences() {
+		ItemOrcamento entity = new ItemOrcamento();
+		assertThat(ItemOrcamentoMapper.toVO(entity)).usingRecursiveComparison()
+				.isEqualTo(modelMapper.map(entity, ItemOrcamentoVO.class));
+
+		ItemOrcamentoVO vo = new ItemOrcamentoVO();
+		assertThat(ItemOrcamentoMapper.toEntity(vo)).usingRecursiveComparison()
+				.isEqualTo(modelMapper.map(vo, ItemOrcamento.class));
+	}
+
+	@Test
+	public void orcamentoToVO() {
+		Orcamento entity = mockOrcamento(10, 5);
+		assertThat(OrcamentoMapper.toVO(entity)).usingRecursiveComparison()
+				.isEqualTo(modelMapper.map(entity, OrcamentoVO.class));
+	}
+
+	@Test
+	public void orcamentoToEntity() {
+		OrcamentoVO vo = OrcamentoMapper.toVO(mockOrcamento(11, 5));
+		assertThat(OrcamentoMapper.toEntity(vo)).usingRecursiveComparison()
+				.withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+				.isEqualTo(modelMapper.map(vo, Orcamento.class));
+	}
+
+	@Test
+	public void emptyOrcamentoBothWays() {
+		Orcamento entity = new Orcamento();
+		entity.setItens(null);
+		assertThat(OrcamentoMapper.toVO(entity)).usingRecursiveComparison()
+				.isEqualTo(modelMapper.map(entity, OrcamentoVO.class));
+
+		OrcamentoVO vo = new OrcamentoVO();
+		assertThat(OrcamentoMapper.toEntity(vo)).usingRecursiveComparison()
+				.isEqualTo(modelMapper.map(vo, Orcamento.class));
+	}
+
+	private Cliente mockCliente(long id) {
+		Cliente cliente = new Cliente();
+		cliente.setId(id);
+		cliente.setRazaoSocial("Razao Social " + id);
+		cliente.setInscricaoEstadual("12345678" + id);
+		cliente.setCnpj("12.345.678/0001-0" + id);
+		cliente.setEndereco("Rua " + id);
+		cliente.setEmail("cliente" + id + "@teste.com.br");
+		cliente.setTelefone("1199999000" + id);
+		return cliente;
+	}
+
+	private Produto mockProduto(long id) {
+		Produto produto = new Produto();
+		produto.setId(id);
+		produto.setNomeProduto("Produto " + id);
+		produto.setTipoProduto(TipoProduto.values()[(int) (id % TipoProduto.values().length)]);
+		produto.setQuantidadeProduto(new BigDecimal("10.500"));
+		produto.setValor(id * 1.25);
+		return produto;
+	}
+
+	private Permission mockPermission(long id) {
+		Permission permission = new Permission();
+		permission.setId(id);
+		permission.setDescription("ROLE_" + id);
+		return permission;
+	}
+
+	private Usuario mockUsuario(long id) {
+		Usuario usuario = new Usuario();
+		usuario.setId(id);
+		usuario.setUserName("usuario" + id);
+		usuario.setFullName("Usuario " + id);
+		usuario.setPassword("{pbkdf2}" + id);
+		usuario.setAccountNonExpired(true);
+		usuario.setAccountNonLocked(false);
+		usuario.setCredentialsNonExpired(true);
+		usuario.setEnabled(true);
+		usuario.setPermissions(new ArrayList<>(List.of(mockPermission(1), mockPermission(2))));
+		return usuario;
+	}
+
+	private Orcamento mockOrcamento(long id, int itens) {
+		Orcamento orcamento = new Orcamento();
+		orcamento.setId(id);
+		orcamento.setDataCriacao(new Date(1700000000000L));
+		orcamento.setDataValidade(new Date(1702592000000L));
+		orcamento.setStatus("PENDENTE");
+		orcamento.setCliente(mockCliente(id));
+		orcamento.setUsuario(mockUsuario(id));
+		orcamento.setTotal(BigDecimal.valueOf(itens * 2.5));
+		for (int i = 0; i < itens; i++) {
+			ItemOrcamento item = new ItemOrcamento();
+			item.setId(id * 100 + i);
+			item.setOrcamento(orcamento);
+			item.setProduto(mockProduto(i + 1));
+			item.setQuantidade(BigDecimal.valueOf(i + 1));
+			item.setPrecoUnitario(BigDecimal.valueOf(2.5));
+			orcamento.getItens().add(item);
+		}
+		return orcamento;
+	}
+}
@@ -0,0 +1,66 @@
+package estoque.com.br.unittests.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import estoque.com.br.metrics.LogLinearHistogram;
+
+public class LogLinearHistogramTest {
+
+	@Test
+	public void testPercentilesStayWithinRelativeError() {
+		var histogram = new LogLinearHistogram();
+		var random = new Random(42);
+		long[] values = new long[100_000];
+		for (int i = 0; i < values.length; i++) {
+			// espalhado por varias ordens de grandeza, de 1us a ~10s
+			values[i] = (long) Math.pow(10, random.nextDouble() * 7);
+			histogram.record(values[i]);
+		}
+		Arrays.sort(values);
+		var snapshot = histogram.snapshot();
+
+		assertEquals(values.length, snapshot.count());
+		assertEquals(values[values.length - 1], snapshot.max());
+		for (double p : new double[] { 0.5, 0.9, 0.99, 0.999 }) {
+			long exact = values[(int) Math.ceil(p * values.length) - 1];
+			long measured = snapshot.percentile(p);
+			assertTrue(measured >= exact && measured <= exact * 1.016 + 1,
+					"p" + p + ": " + measured + " vs " + exact);
+		}
+	}
+
+	@Test
+	public void testSmallValuesAreExactAndCountsAreCumulative() {
+		var histogram = new LogLinearHistogram();
+		for (long v = 0; v < 100; v++) {
+			histogram.record(v);
+		}
+		histogram.record(-5);
+		var snapshot = histogram.snapshot();
+
+		assertEquals(101, snapshot.count());
+		assertEquals(4950, snapshot.sum());
+		assertEquals(49, snapshot.percentile(0.5));
+		assertEquals(11, snapshot.countAtOrBelow(9));
+		assertEquals(101, snapshot.countAtOrBelow(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testHugeValuesGoToLastBucketButKeepMaxAndSum() {
+		var histogram = new LogLinearHistogram();
+		histogram.record(Long.MAX_VALUE / 4);
+		histogram.recordNanos(3_000);
+		var snapshot = histogram.snapshot();
+
+		assertEquals(2, snapshot.count());
+		assertEquals(Long.MAX_VALUE / 4, snapshot.max());
+		assertEquals(3, snapshot.percentile(0.5));
+		assertTrue(snapshot.percentile(1.0) >= (1L << 32) - (1L << 26));
+	}
+}
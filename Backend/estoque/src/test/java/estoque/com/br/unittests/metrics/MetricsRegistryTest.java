@@ -0,0 +1,48 @@
+package estoque.com.br.unittests.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import estoque.com.br.metrics.MetricsRegistry;
+
+public class MetricsRegistryTest {
+
+	@Test
+	public void testScrapeUsesPrometheusTextFormat() {
+		var registry = new MetricsRegistry();
+		var timer = registry.timer("estoque_teste_seconds", "Tempo de teste", "handler", "X.y");
+		timer.recordNanos(2_000_000);
+		timer.recordNanos(40_000_000);
+		registry.counter("estoque_teste_total", "Contagem", "status", "2xx").add(3);
+		registry.gauge("estoque_teste_gauge", "Valor", () -> 7);
+		registry.gauges("estoque_teste_sites", "Por ponto", "site", () -> Map.of("a\"b", 2));
+
+		String scrape = registry.scrape();
+
+		assertTrue(scrape.contains("# TYPE estoque_teste_seconds histogram\n"), scrape);
+		assertTrue(scrape.contains("estoque_teste_seconds_bucket{handler=\"X.y\",le=\"0.001\"} 0\n"), scrape);
+		assertTrue(scrape.contains("estoque_teste_seconds_bucket{handler=\"X.y\",le=\"0.0025\"} 1\n"), scrape);
+		assertTrue(scrape.contains("estoque_teste_seconds_bucket{handler=\"X.y\",le=\"0.05\"} 2\n"), scrape);
+		assertTrue(scrape.contains("estoque_teste_seconds_bucket{handler=\"X.y\",le=\"+Inf\"} 2\n"), scrape);
+		assertTrue(scrape.contains("estoque_teste_seconds_count{handler=\"X.y\"} 2\n"), scrape);
+		assertTrue(scrape.contains("estoque_teste_seconds_sum{handler=\"X.y\"} 0.042\n"), scrape);
+		assertTrue(scrape.contains("estoque_teste_seconds_max{handler=\"X.y\"} 0.04\n"), scrape);
+		assertTrue(scrape.contains("estoque_teste_seconds_quantile{handler=\"X.y\",quantile=\"0.5\"} 0.002"), scrape);
+		assertTrue(scrape.contains("estoque_teste_total{status=\"2xx\"} 3\n"), scrape);
+		assertTrue(scrape.contains("estoque_teste_gauge 7\n"), scrape);
+		assertTrue(scrape.contains("estoque_teste_sites{site=\"a\\\"b\"} 2\n"), scrape);
+	}
+
+	@Test
+	public void testSeriesAreReusedAndTypesCannotChange() {
+		var registry = new MetricsRegistry();
+		assertSame(registry.timer("estoque_a_seconds", "A", "handler", "h"),
+				registry.timer("estoque_a_seconds", "A", "handler", "h"));
+		assertThrows(IllegalArgumentException.class, () -> registry.distribution("estoque_a_seconds", "A"));
+	}
+}
@@ -0,0 +1,75 @@
+package estoque.com.br.unittests.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import estoque.com.br.data.vo.ClienteSuggestionVO;
+import estoque.com.br.model.Cliente;
+import estoque.com.br.search.ClienteSuggestIndex;
+
+public class ClienteSuggestIndexTest {
+
+	private ClienteSuggestIndex index;
+
+	@BeforeEach
+	public void setup() {
+		index = new ClienteSuggestIndex();
+		index.index(cliente(1L, "Padaria São João Ltda", "12.345.678/0001-90"));
+		index.index(cliente(2L, "Mercado Joaquim", "98.765.432/0001-10"));
+		index.index(cliente(3L, "Padaria Pão Quente", "12.999.888/0001-77"));
+	}
+
+	@Test
+	public void testNamePrefixIgnoresAccentsAndCase() {
+		assertEquals(List.of(3L, 1L), ids("PADA"));
+		assertEquals(List.of(3L), ids("padaria pao"));
+	}
+
+	@Test
+	public void testWordPrefixComesAfterNamePrefix() {
+		index.index(cliente(4L, "Joao Distribuidora", "55.555.555/0001-55"));
+		assertEquals(List.of(4L, 1L, 2L), ids("joa"));
+		assertEquals(List.of(1L), ids("sao jo"));
+	}
+
+	@Test
+	public void testCnpjPrefixIgnoresPunctuation() {
+		assertEquals(List.of(1L, 3L), ids("12."));
+		assertEquals(List.of(1L), ids("12345"));
+	}
+
+	@Test
+	public void testLimit() {
+		assertEquals(List.of(3L), ids("padaria", 1));
+	}
+
+	@Test
+	public void testUpdateAndRemove() {
+		index.index(cliente(1L, "Confeitaria Central", "12.345.678/0001-90"));
+		index.remove(3L);
+		assertTrue(ids("padaria").isEmpty());
+		assertEquals(List.of(1L), ids("conf"));
+		assertEquals("Confeitaria Central", index.suggest("central", 10).get(0).getRazaoSocial());
+	}
+
+	private List<Long> ids(String query) {
+		return ids(query, 10);
+	}
+
+	private List<Long> ids(String query, int limit) {
+		return index.suggest(query, limit).stream().map(ClienteSuggestionVO::getId).toList();
+	}
+
+	private Cliente cliente(Long id, String razaoSocial, String cnpj) {
+		Cliente cliente = new Cliente();
+		cliente.setId(id);
+		cliente.setRazaoSocial(razaoSocial);
+		cliente.setCnpj(cnpj);
+		return cliente;
+	}
+}
@@ -0,0 +1,69 @@
+package estoque.com.br.unittests.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import estoque.com.br.search.RadixTrie;
+
+public class RadixTrieTest {
+
+	private RadixTrie trie;
+
+	@BeforeEach
+	public void setup() {
+		trie = new RadixTrie();
+		trie.put("padaria sao joao", 1);
+		trie.put("padaria pao quente", 3);
+		trie.put("padaria", 7);
+		trie.put("pastelaria", 5);
+		trie.put("padaria pao quente", 2);
+	}
+
+	@Test
+	public void testPrefixInsideEdgeAndShorterKeysFirst() {
+		assertEquals(List.of(7L, 2L, 3L, 1L, 5L), ids("p"));
+		assertEquals(List.of(7L, 2L, 3L, 1L), ids("pad"));
+		assertEquals(List.of(2L, 3L), ids("padaria p"));
+		assertEquals(List.of(1L), ids("padaria sao joao"));
+		assertTrue(ids("padaria sao joaoz").isEmpty());
+		assertTrue(ids("padeiro").isEmpty());
+	}
+
+	@Test
+	public void testRemoveMergesAndKeepsOtherKeys() {
+		trie.remove("padaria", 7);
+		trie.remove("padaria pao quente", 3);
+		trie.remove("padaria sao joao", 99);
+		assertEquals(List.of(2L, 1L), ids("padaria"));
+
+		trie.remove("padaria pao quente", 2);
+		trie.remove("padaria sao joao", 1);
+		assertTrue(ids("pad").isEmpty());
+		assertEquals(List.of(5L), ids(""));
+
+		trie.put("pao", 4);
+		assertEquals(List.of(4L, 5L), ids("pa"));
+	}
+
+	@Test
+	public void testVisitorStopsEarly() {
+		List<Long> seen = new ArrayList<>();
+		trie.visit("pa", id -> {
+			seen.add(id);
+			return seen.size() < 2;
+		});
+		assertEquals(List.of(7L, 2L), seen);
+	}
+
+	private List<Long> ids(String prefix) {
+		List<Long> ids = new ArrayList<>();
+		trie.visit(prefix, id -> ids.add(id));
+		return ids;
+	}
+}
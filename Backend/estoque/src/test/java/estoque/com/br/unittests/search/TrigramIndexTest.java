@@ -0,0 +1,119 @@
+package estoque.com.br.unittests.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import estoque.com.br.search.TextNormalizer;
+import estoque.com.br.search.TrigramIndex;
+import estoque.com.br.search.TrigramIndex.SearchResult;
+
+public class TrigramIndexTest {
+
+	private TrigramIndex index;
+
+	@BeforeEach
+	public void setup() {
+		index = new TrigramIndex();
+		index.put(1L, "Açúcar Cristal 1kg");
+		index.put(2L, "Arroz Tio João 5kg");
+		index.put(3L, "Arroz Integral");
+		index.put(4L, "Feijão Carioca");
+		index.put(5L, "Farinha de Arroz");
+	}
+
+	@Test
+	public void testNormalize() {
+		assertEquals("acucar cristal 1kg", TextNormalizer.normalize("  Açúcar-CRISTAL, 1kg! "));
+		assertEquals("feijao", TextNormalizer.normalize("FEIJÃO"));
+		assertEquals("", TextNormalizer.normalize(null));
+	}
+
+	@Test
+	public void testAccentAndCaseInsensitive() {
+		assertEquals(List.of(1L), search("acucar"));
+		assertEquals(List.of(1L), search("AÇÚCAR"));
+		assertEquals(List.of(4L), search("feijao"));
+	}
+
+	@Test
+	public void testPrefixWhileTyping() {
+		assertEquals(List.of(3L, 1L, 2L, 5L), search("a"));
+		assertEquals(List.of(3L, 2L, 5L), search("arr"));
+		assertEquals(List.of(2L), search("arroz tio j"));
+	}
+
+	@Test
+	public void testNameStartingWithQueryRanksFirst() {
+		assertEquals(List.of(3L, 2L, 5L), search("arroz"));
+	}
+
+	@Test
+	public void testFuzzy() {
+		assertEquals(List.of(3L, 5L, 2L), search("aroz"));
+		assertEquals(List.of(4L), search("feijao carioka"));
+		assertTrue(search("xyz").isEmpty());
+	}
+
+	@Test
+	public void testUpdateAndRemove() {
+		index.put(3L, "Macarrão Integral");
+		index.remove(5L);
+		assertEquals(List.of(2L), search("arroz"));
+		assertEquals(List.of(3L), search("macarrao"));
+		assertEquals(4, index.size());
+	}
+
+	@Test
+	public void testPagination() {
+		SearchResult result = index.search("arroz", 0.6, 1, 1);
+		assertEquals(List.of(2L), result.getIds());
+		assertEquals(3, result.getTotal());
+	}
+
+	@Test
+	public void testPageBeyondIndexDoesNotOverflow() {
+		SearchResult result = index.search("arroz", 0.6, Integer.MAX_VALUE, Integer.MAX_VALUE);
+		assertTrue(result.getIds().isEmpty());
+		assertEquals(3, result.getTotal());
+		assertThrows(IllegalArgumentException.class, () -> index.search("arroz", 0.6, -1, 10));
+	}
+
+	@Test
+	public void testCompactionKeepsResults() {
+		for (long id = 100; id < 5000; id++) {
+			index.put(id, "Produto " + id);
+		}
+		for (long id = 100; id < 5000; id++) {
+			index.remove(id);
+		}
+		assertEquals(5, index.size());
+		assertEquals(List.of(3L, 2L, 5L), search("arroz"));
+	}
+
+	@Test
+	public void testConcurrentSearchesReuseZeroedCounters() throws Exception {
+		List<Future<List<Long>>> results = new ArrayList<>();
+		try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < 1000; i++) {
+				String query = i % 2 == 0 ? "arroz" : "aroz";
+				results.add(executor.submit(() -> search(query)));
+			}
+		}
+		for (int i = 0; i < results.size(); i++) {
+			assertEquals(i % 2 == 0 ? List.of(3L, 2L, 5L) : List.of(3L, 5L, 2L), results.get(i).get());
+		}
+	}
+
+	private List<Long> search(String query) {
+		return index.search(query, 0.6, 0, 20).getIds();
+	}
+}
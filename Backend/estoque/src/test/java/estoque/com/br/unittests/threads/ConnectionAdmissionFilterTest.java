@@ -0,0 +1,67 @@
+package estoque.com.br.unittests.threads;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.ModelAndView;
+
+import estoque.com.br.exceptions.ServiceOverloadedException;
+import estoque.com.br.threads.ConnectionAdmissionFilter;
+import jakarta.servlet.DispatcherType;
+
+public class ConnectionAdmissionFilterTest {
+
+	private final List<Exception> resolved = new ArrayList<>();
+
+	private ConnectionAdmissionFilter filter;
+
+	@BeforeEach
+	public void setup() {
+		filter = new ConnectionAdmissionFilter(2, Duration.ofMillis(10), 3, (request, response, handler, ex) -> {
+			resolved.add(ex);
+			response.setStatus(503);
+			return new ModelAndView();
+		});
+	}
+
+	@Test
+	public void testRejectsWhenLimitIsReachedAndAdmitsAfterRelease() throws Exception {
+		filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), (first, firstResponse) ->
+			filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), (second, secondResponse) -> {
+				assertEquals(2, filter.getInFlight());
+
+				var rejected = new MockHttpServletResponse();
+				filter.doFilter(new MockHttpServletRequest(), rejected, (request, response) -> fail("sem vaga"));
+				assertEquals(503, rejected.getStatus());
+			}));
+
+		assertEquals(1, resolved.size());
+		assertEquals(3, ((ServiceOverloadedException) resolved.get(0)).getRetryAfterSeconds());
+		assertEquals(0, filter.getInFlight());
+
+		// a vaga volta mesmo quando a requisicao falha
+		assertThrows(IllegalStateException.class, () -> filter.doFilter(new MockHttpServletRequest(),
+				new MockHttpServletResponse(), (request, response) -> { throw new IllegalStateException(); }));
+		assertEquals(0, filter.getInFlight());
+	}
+
+	@Test
+	public void testAsyncRequestReleasesOnStartAndRedispatchIsNotCounted() throws Exception {
+		var request = new MockHttpServletRequest();
+		filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> request.setAsyncStarted(true));
+		assertEquals(0, filter.getInFlight());
+
+		var redispatch = new MockHttpServletRequest();
+		redispatch.setDispatcherType(DispatcherType.ASYNC);
+		filter.doFilter(redispatch, new MockHttpServletResponse(), (req, res) -> assertEquals(0, filter.getInFlight()));
+	}
+}
@@ -0,0 +1,40 @@
+package estoque.com.br.unittests.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import estoque.com.br.exceptions.InvalidCursorException;
+import estoque.com.br.util.KeysetCursor;
+
+public class KeysetCursorTest {
+
+	@Test
+	public void testRoundTrip() {
+		KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor("Razao: Social/Ltda", 42L).encode());
+		assertEquals("Razao: Social/Ltda", cursor.getSortValue());
+		assertEquals(42L, cursor.getId());
+	}
+
+	@Test
+	public void testRoundTripNullSortValue() {
+		KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor(null, 7L).encode());
+		assertNull(cursor.getSortValue());
+		assertEquals(7L, cursor.getId());
+	}
+
+	@Test
+	public void testEmptyCursorStartsFromTheBeginning() {
+		assertNull(KeysetCursor.decode(""));
+		assertNull(KeysetCursor.decode(null));
+	}
+
+	@Test
+	public void testInvalidCursor() {
+		assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("not a cursor!"));
+		assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("WDox"));
+		assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("VjphYmM6eA"));
+	}
+}
@@ -0,0 +1,84 @@
+package estoque.com.br.unittests.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+import estoque.com.br.data.vo.ItemOrcamentoVO;
+import estoque.com.br.mapper.ItemOrcamentoMapper;
+import estoque.com.br.model.ItemOrcamento;
+import estoque.com.br.model.Orcamento;
+import estoque.com.br.util.OrcamentoTotals;
+
+public class OrcamentoTotalsTest {
+
+	@Test
+	public void testSubtotalIsRoundedToCents() {
+		assertEquals(new BigDecimal("0.33"), OrcamentoTotals.subtotal(item("0.333", "1.00")));
+		assertEquals(new BigDecimal("0.00"), OrcamentoTotals.subtotal(item(null, "1.00")));
+	}
+
+	@Test
+	public void testThreeDecimalPriceIsRoundedBeforeTheSubtotal() {
+		ItemOrcamentoVO vo = new ItemOrcamentoVO();
+		vo.setQuantidade(new BigDecimal("3"));
+		vo.setPrecoUnitario(1.005);
+
+		ItemOrcamento item = ItemOrcamentoMapper.toEntity(vo);
+
+		// o banco grava 1.00 (HALF_EVEN); sem arredondar antes o subtotal seria 3.02
+		assertEquals(new BigDecimal("1.00"), item.getPrecoUnitario());
+		assertEquals(new BigDecimal("3.00"), item.getQuantidade());
+		assertEquals(new BigDecimal("3.00"), OrcamentoTotals.subtotal(item));
+	}
+
+	@Test
+	public void testRecalcularSumsTheLines() {
+		Orcamento orcamento = new Orcamento();
+		for (int i = 0; i < 10; i++) {
+			orcamento.getItens().add(item("1", "0.10"));
+		}
+
+		OrcamentoTotals.recalcular(orcamento);
+
+		// com Double a soma daria 0.9999999999999999
+		assertEquals(new BigDecimal("1.00"), orcamento.getTotal());
+		assertEquals(10, orcamento.getQuantidadeItens());
+	}
+
+	@Test
+	public void testAjustarMatchesRecalcular() {
+		Orcamento orcamento = new Orcamento();
+		ItemOrcamento alterado = item("3", "19.99");
+		ItemOrcamento removido = item("2", "5.05");
+		orcamento.getItens().add(alterado);
+		orcamento.getItens().add(removido);
+		OrcamentoTotals.recalcular(orcamento);
+
+		BigDecimal antes = OrcamentoTotals.subtotal(alterado);
+		alterado.setQuantidade(new BigDecimal("1.5"));
+		OrcamentoTotals.ajustar(orcamento, antes, OrcamentoTotals.subtotal(alterado), 0);
+
+		ItemOrcamento novo = item("4", "0.99");
+		orcamento.getItens().add(novo);
+		OrcamentoTotals.ajustar(orcamento, BigDecimal.ZERO, OrcamentoTotals.subtotal(novo), 1);
+
+		orcamento.getItens().remove(removido);
+		OrcamentoTotals.ajustar(orcamento, OrcamentoTotals.subtotal(removido), BigDecimal.ZERO, -1);
+
+		BigDecimal incremental = orcamento.getTotal();
+		OrcamentoTotals.recalcular(orcamento);
+		assertEquals(orcamento.getTotal(), incremental);
+		assertEquals(new BigDecimal("33.94"), incremental);
+		assertEquals(2, orcamento.getQuantidadeItens());
+	}
+
+	private ItemOrcamento item(String quantidade, String preco) {
+		ItemOrcamento item = new ItemOrcamento();
+		item.setQuantidade(quantidade != null ? new BigDecimal(quantidade) : null);
+		item.setPrecoUnitario(new BigDecimal(preco));
+		return item;
+	}
+}
@@ -0,0 +1,74 @@
+package estoque.com.br.unittests.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import estoque.com.br.model.DimensaoRelatorio;
+import estoque.com.br.util.ResumoVendas;
+import estoque.com.br.util.ResumoVendas.Chave;
+import estoque.com.br.util.ResumoVendas.Linha;
+import estoque.com.br.util.ResumoVendas.Valores;
+
+public class ResumoVendasTest {
+
+	private static final LocalDate DIA = LocalDate.of(2024, 5, 10);
+
+	@Test
+	public void testSomarCountsEachOrcamentoOncePerRow() {
+		var resumo = ResumoVendas.somar(List.of(
+				linha(1L, "PENDENTE", 7L, 100L, "kg", "2", "1.50"),
+				linha(1L, "PENDENTE", 7L, 100L, "kg", "1", "1.50"),
+				linha(1L, "PENDENTE", 7L, 101L, "UN", "3", "0.333")));
+
+		assertEquals(new Valores(1, new BigDecimal("6"), new BigDecimal("5.50")),
+				resumo.get(new Chave(DimensaoRelatorio.CLIENTE, DIA, "7", "PENDENTE")));
+		assertEquals(new Valores(1, new BigDecimal("3"), new BigDecimal("4.50")),
+				resumo.get(new Chave(DimensaoRelatorio.PRODUTO, DIA, "100", "PENDENTE")));
+		assertEquals(new Valores(1, new BigDecimal("3"), new BigDecimal("4.50")),
+				resumo.get(new Chave(DimensaoRelatorio.TIPO_PRODUTO, DIA, "KG", "PENDENTE")));
+		// sem vendedor nao ha linha de vendedor
+		assertEquals(5, resumo.size());
+	}
+
+	@Test
+	public void testOrcamentoWithoutItensStillCounts() {
+		var resumo = ResumoVendas.somar(List.of(linha(2L, null, 7L, null, null, null, null)));
+
+		assertEquals(new Valores(1, BigDecimal.ZERO, BigDecimal.ZERO),
+				resumo.get(new Chave(DimensaoRelatorio.CLIENTE, DIA, "7", "")));
+		assertEquals(1, resumo.size());
+	}
+
+	@Test
+	public void testDiferencaMovesTheOrcamentoBetweenRows() {
+		var antes = ResumoVendas.somar(List.of(linha(1L, "PENDENTE", 7L, 100L, "UN", "2", "10")));
+		var depois = ResumoVendas.somar(List.of(linha(1L, "APROVADO", 7L, 100L, "UN", "2", "10")));
+
+		Map<Chave, Valores> diferenca = ResumoVendas.diferenca(antes, depois);
+
+		assertEquals(new Valores(-1, new BigDecimal("-2"), new BigDecimal("-20.00")),
+				diferenca.get(new Chave(DimensaoRelatorio.CLIENTE, DIA, "7", "PENDENTE")));
+		assertEquals(new Valores(1, new BigDecimal("2"), new BigDecimal("20.00")),
+				diferenca.get(new Chave(DimensaoRelatorio.CLIENTE, DIA, "7", "APROVADO")));
+		// chaves em ordem de chave primaria para as transacoes travarem na mesma ordem
+		var chaves = new ArrayList<>(diferenca.keySet());
+		for (int i = 1; i < chaves.size(); i++) {
+			assertTrue(chaves.get(i - 1).compareTo(chaves.get(i)) < 0);
+		}
+		assertTrue(ResumoVendas.diferenca(antes, antes).isEmpty());
+	}
+
+	private static Linha linha(Long orcamentoId, String status, Long clienteId, Long produtoId, String tipo,
+			String quantidade, String preco) {
+		return new Linha(orcamentoId, DIA, status, clienteId, null, produtoId, tipo,
+				quantidade != null ? new BigDecimal(quantidade) : null, preco != null ? new BigDecimal(preco) : null);
+	}
+}
@@ -0,0 +1,59 @@
+package estoque.com.br.unittests.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import estoque.com.br.controllers.ClienteController;
+import estoque.com.br.controllers.OrcamentoController;
+import estoque.com.br.controllers.ProdutoController;
+import estoque.com.br.controllers.UsuarioController;
+import estoque.com.br.util.SelfLinkFactory;
+
+public class SelfLinkFactoryTest {
+
+	@BeforeEach
+	public void setUp() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/estoque/api/cliente/v1");
+		request.setScheme("https");
+		request.setServerName("estoque.com.br");
+		request.setServerPort(8443);
+		request.setContextPath("/estoque");
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	public void testSameSelfLinkAsMethodOn() {
+		var clientes = SelfLinkFactory.forController(ClienteController.class);
+		var produtos = SelfLinkFactory.forController(ProdutoController.class);
+		var usuarios = SelfLinkFactory.forController(UsuarioController.class);
+		var orcamentos = SelfLinkFactory.forController(OrcamentoController.class);
+
+		for (long id : new long[] {1L, 42L, Long.MAX_VALUE}) {
+			assertSameLink(linkTo(methodOn(ClienteController.class).findById(id)).withSelfRel(), clientes.selfLink(id));
+			assertSameLink(linkTo(methodOn(ProdutoController.class).findById(id)).withSelfRel(), produtos.selfLink(id));
+			assertSameLink(linkTo(methodOn(UsuarioController.class).findById(id)).withSelfRel(), usuarios.selfLink(id));
+			assertSameLink(linkTo(methodOn(OrcamentoController.class).findById(id)).withSelfRel(), orcamentos.selfLink(id));
+		}
+	}
+
+	// As affordances do methodOn so aparecem em HAL-FORMS, que a API nao usa
+	private void assertSameLink(Link expected, Link actual) {
+		assertEquals(expected.withAffordances(Collections.emptyList()), actual);
+	}
+}